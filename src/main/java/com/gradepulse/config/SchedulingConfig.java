@@ -0,0 +1,15 @@
+package com.gradepulse.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables background work: the outbox dispatcher drains messages on an async
+ * thread after commit and on a fixed schedule to pick up anything left over.
+ */
+@Configuration
+@EnableAsync
+@EnableScheduling
+public class SchedulingConfig {
+}
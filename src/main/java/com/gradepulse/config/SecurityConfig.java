@@ -1,5 +1,6 @@
 package com.gradepulse.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -11,19 +12,37 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.util.matcher.RequestMatcher;
 import org.springframework.security.config.annotation.web.configurers.HeadersConfigurer;
 
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
 
+    @Value("${gradepulse.admin.username:admin}")
+    private String adminUsername;
+
+    @Value("${gradepulse.admin.password:}")
+    private String adminPassword;
+
+    @Value("${gradepulse.admin.api-token:}")
+    private String adminApiToken;
+
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+        // Maintenance scripts authenticate with a header a cross-site form cannot send
+        RequestMatcher adminScript = request -> request.getHeader(AdminTokenFilter.HEADER) != null
+            && request.getRequestURI().startsWith(request.getContextPath() + "/attendance/admin/");
+
         http
             .authorizeHttpRequests(auth -> auth
+                // Rebuilds and archiving rewrite or delete attendance data
+                .requestMatchers("/attendance/admin/**").hasRole("ADMIN")
                 .requestMatchers("/", "/login", "/h2-console/**", "/template.xlsx", 
                                "/upload", "/dashboard", "/fields", "/fields/**", "/attendance/**", 
-                               "/attendance-alerts", "/css/**", "/js/**", "/webfonts/**").permitAll()
+                               "/attendance-alerts", "/css/**", "/js/**", "/webfonts/**",
+                               "/webhook/whatsapp", "/webhook/whatsapp/status").permitAll()
                 .anyRequest().authenticated()
             )
             .formLogin(form -> form
@@ -36,7 +55,13 @@ public class SecurityConfig {
                 .logoutSuccessUrl("/login?logout")
                 .permitAll()
             )
-            .csrf(csrf -> csrf.ignoringRequestMatchers("/h2-console/**", "/fields/**"))
+            .addFilterBefore(new AdminTokenFilter(adminApiToken), UsernamePasswordAuthenticationFilter.class)
+            // /attendance/api/** is called with JSON bodies by the tablet app, admin scripts send
+            // X-Admin-Token and the /webhook/whatsapp endpoints are called by Twilio (signature-checked);
+            // none has a CSRF token
+            .csrf(csrf -> csrf.ignoringRequestMatchers("/h2-console/**", "/fields/**", "/attendance/api/**",
+                                                       "/webhook/whatsapp", "/webhook/whatsapp/status")
+                              .ignoringRequestMatchers(adminScript))
             .headers(headers -> headers
                 .frameOptions(HeadersConfigurer.FrameOptionsConfig::disable)
                 .contentSecurityPolicy(csp -> csp.policyDirectives(
@@ -58,7 +83,15 @@ public class SecurityConfig {
                 .password(passwordEncoder().encode("123456"))
                 .roles("TEACHER")
                 .build();
-        return new InMemoryUserDetailsManager(user);
+        InMemoryUserDetailsManager users = new InMemoryUserDetailsManager(user);
+        // The admin login exists only when a password is configured
+        if (!adminPassword.isBlank()) {
+            users.createUser(User.withUsername(adminUsername)
+                    .password(passwordEncoder().encode(adminPassword))
+                    .roles("TEACHER", "ADMIN")
+                    .build());
+        }
+        return users;
     }
 
     @Bean
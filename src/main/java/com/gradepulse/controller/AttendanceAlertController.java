@@ -1,16 +1,38 @@
 package com.gradepulse.controller;
 
+import com.gradepulse.dto.CampaignProgress;
+import com.gradepulse.dto.DeliveryStats;
+import com.gradepulse.model.CampaignSegment;
+import com.gradepulse.model.MessageCampaign;
+import com.gradepulse.model.MessageDeadLetter;
+import com.gradepulse.model.OutboundMessage;
+import com.gradepulse.model.SendFailureKind;
 import com.gradepulse.model.Student;
+import com.gradepulse.model.StudentAttendanceSummary;
 import com.gradepulse.repository.StudentRepository;
-import com.gradepulse.service.WhatsAppService;
+import com.gradepulse.service.AttendanceSummaryService;
+import com.gradepulse.service.DeadLetterService;
+import com.gradepulse.service.DeliveryStatusService;
+import com.gradepulse.service.MessageCampaignService;
+import com.gradepulse.service.MessageTemplateKey;
+import com.gradepulse.service.MessageTemplateRegistry;
+import com.gradepulse.service.NotificationOutboxService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import java.security.Principal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
 @Controller
 @RequestMapping("/attendance-alerts")
@@ -18,22 +40,49 @@ import java.util.List;
 @Slf4j
 public class AttendanceAlertController {
 
+    private static final String MESSAGE_TYPE = "ATTENDANCE_ALERT";
+    private static final int DEAD_LETTERS_SHOWN = 20;
+
     private final StudentRepository studentRepository;
-    private final WhatsAppService whatsAppService;
+    private final MessageCampaignService campaignService;
+    private final MessageTemplateRegistry messageTemplates;
+    private final DeliveryStatusService deliveryStatusService;
+    private final AttendanceSummaryService attendanceSummaryService;
+    private final DeadLetterService deadLetterService;
 
     @GetMapping
     public String showAttendanceAlerts(Model model) {
-        // Get students with low attendance (below 75%)
-        List<Student> lowAttendanceStudents = studentRepository.findByAttendancePercentLessThan(75.0);
+        // Both bands (below 75%, 75-85%) from one query, split in memory
+        List<Student> candidates = studentRepository.findAlertCandidates(CampaignSegment.bandsUpperBound());
+        List<Student> lowAttendanceStudents = candidates.stream()
+            .filter(s -> CampaignSegment.LOW.contains(s.getAttendancePercent()))
+            .toList();
+        List<Student> mediumAttendanceStudents = candidates.stream()
+            .filter(s -> CampaignSegment.MEDIUM.contains(s.getAttendancePercent()))
+            .toList();
         
-        // Get students with medium attendance (75-85%)
-        List<Student> mediumAttendanceStudents = studentRepository
-            .findByAttendancePercentBetween(75.0, 85.0);
+        // Current absence streaks for everyone listed (one summary query)
+        List<Long> listedIds = candidates.stream()
+            .map(Student::getId)
+            .toList();
+        Map<Long, Integer> absenceStreaks = new HashMap<>();
+        for (StudentAttendanceSummary summary : attendanceSummaryService.getSummaries(listedIds, null).values()) {
+            absenceStreaks.put(summary.getStudent().getId(), summary.getCurrentAbsenceStreak());
+        }
         
         model.addAttribute("lowAttendanceStudents", lowAttendanceStudents);
         model.addAttribute("mediumAttendanceStudents", mediumAttendanceStudents);
         model.addAttribute("lowCount", lowAttendanceStudents.size());
         model.addAttribute("mediumCount", mediumAttendanceStudents.size());
+        model.addAttribute("absenceStreaks", absenceStreaks);
+
+        // Messages that could not be delivered and wait for someone to re-drive them
+        Map<SendFailureKind, Long> deadLetterCounts = deadLetterService.countOpenByKind();
+        model.addAttribute("deadLetterCounts", deadLetterCounts);
+        model.addAttribute("deadLetterTotal", deadLetterCounts.values().stream().mapToLong(Long::longValue).sum());
+        model.addAttribute("deadLetters", deadLetterService.getOpen(DEAD_LETTERS_SHOWN));
+
+        model.addAttribute("recentCampaigns", campaignService.getRecentProgress());
         
         return "attendance-alerts";
     }
@@ -42,6 +91,7 @@ public class AttendanceAlertController {
     public String sendAttendanceAlerts(
             @RequestParam(required = false) List<Long> studentIds,
             @RequestParam String alertType,
+            Principal principal,
             RedirectAttributes redirectAttributes) {
         
         if (studentIds == null || studentIds.isEmpty()) {
@@ -49,139 +99,144 @@ public class AttendanceAlertController {
             return "redirect:/attendance-alerts";
         }
 
-        int sentCount = 0;
-        int failedCount = 0;
-        int rateLimitErrors = 0;
-        
-        for (Long studentId : studentIds) {
-            if (studentId == null) continue;
-            
-            try {
-                Student student = studentRepository.findById(studentId).orElse(null);
-                if (student == null) continue;
-
-                String message = buildAttendanceMessage(student, alertType);
-                
-                // Send to father
-                if (student.getFatherContact() != null && !student.getFatherContact().trim().isEmpty()) {
-                    try {
-                        whatsAppService.send(student.getFatherContact(), message);
-                        sentCount++;
-                        log.info("Sent alert to father: {}", student.getFatherContact());
-                    } catch (Exception e) {
-                        if (e.getMessage() != null && e.getMessage().contains("exceeded")) {
-                            rateLimitErrors++;
-                        }
-                        log.warn("Failed to send to father {}: {}", student.getFatherContact(), e.getMessage());
-                        failedCount++;
-                    }
-                }
-                
-                // Send to mother
-                if (student.getMotherContact() != null && !student.getMotherContact().trim().isEmpty()) {
-                    try {
-                        whatsAppService.send(student.getMotherContact(), message);
-                        sentCount++;
-                        log.info("Sent alert to mother: {}", student.getMotherContact());
-                    } catch (Exception e) {
-                        if (e.getMessage() != null && e.getMessage().contains("exceeded")) {
-                            rateLimitErrors++;
-                        }
-                        log.warn("Failed to send to mother {}: {}", student.getMotherContact(), e.getMessage());
-                        failedCount++;
-                    }
-                }
-                
-                // Send to guardian
-                if (student.getGuardianContact() != null && !student.getGuardianContact().trim().isEmpty()) {
-                    try {
-                        whatsAppService.send(student.getGuardianContact(), message);
-                        sentCount++;
-                        log.info("Sent alert to guardian: {}", student.getGuardianContact());
-                    } catch (Exception e) {
-                        if (e.getMessage() != null && e.getMessage().contains("exceeded")) {
-                            rateLimitErrors++;
-                        }
-                        log.warn("Failed to send to guardian {}: {}", student.getGuardianContact(), e.getMessage());
-                        failedCount++;
-                    }
-                }
-                
-                // Stop if hit rate limit
-                if (rateLimitErrors > 0) {
-                    log.warn("Hit Twilio rate limit, stopping to avoid further errors");
-                    break;
+        // One query for all selected students
+        List<Student> students = studentRepository.findAllById(studentIds.stream().filter(Objects::nonNull).toList());
+        return queueCampaign("Attendance alert (" + alertType + ")", CampaignSegment.SELECTED, alertType,
+                             students, principal, redirectAttributes);
+    }
+
+    /**
+     * Alert every student currently in an attendance band. The target set is resolved once,
+     * here, and recorded with the campaign; students who move in or out of the band later
+     * don't change it.
+     */
+    @PostMapping("/campaigns")
+    public String startSegmentCampaign(
+            @RequestParam CampaignSegment segment,
+            @RequestParam String alertType,
+            Principal principal,
+            RedirectAttributes redirectAttributes) {
+
+        if (segment.getMaxPercent() == null) {
+            redirectAttributes.addFlashAttribute("error", "Choose an attendance band");
+            return "redirect:/attendance-alerts";
+        }
+        List<Student> students = studentRepository.findAlertCandidates(segment.getMaxPercent()).stream()
+            .filter(s -> segment.contains(s.getAttendancePercent()))
+            .toList();
+        if (students.isEmpty()) {
+            redirectAttributes.addFlashAttribute("warning", "No students in that attendance band");
+            return "redirect:/attendance-alerts";
+        }
+        return queueCampaign("Attendance alert (" + alertType + ", " + segment.name().toLowerCase() + " attendance)",
+                             segment, alertType, students, principal, redirectAttributes);
+    }
+
+    // The messages are queued as a campaign and sent concurrently by the outbox dispatcher
+    // within the Twilio quotas
+    private String queueCampaign(String name, CampaignSegment segment, String alertType, List<Student> students,
+                                 Principal principal, RedirectAttributes redirectAttributes) {
+        List<OutboundMessage> alerts = new ArrayList<>();
+        for (Student student : students) {
+            String message = buildAttendanceMessage(student, alertType);
+            for (String contact : new String[] {
+                    student.getFatherContact(), student.getMotherContact(), student.getGuardianContact() }) {
+                if (contact != null && !contact.trim().isEmpty()) {
+                    alerts.add(NotificationOutboxService.newMessage(contact, message, MESSAGE_TYPE, student.getId()));
                 }
-                
-            } catch (Exception e) {
-                log.error("Error processing student {}: {}", studentId, e.getMessage());
-                failedCount++;
             }
         }
-        
-        if (sentCount > 0) {
-            redirectAttributes.addFlashAttribute("success", 
-                String.format("Successfully sent %d WhatsApp alerts", sentCount));
+
+        if (alerts.isEmpty()) {
+            redirectAttributes.addFlashAttribute("warning", "None of the selected students have a parent contact");
+            return "redirect:/attendance-alerts";
         }
-        
-        if (failedCount > 0) {
-            String errorMsg = rateLimitErrors > 0 
-                ? String.format("%d messages failed - Twilio daily limit (50) exceeded. Try again tomorrow.", failedCount)
-                : String.format("%d messages failed to send (invalid numbers or network issues)", failedCount);
-            redirectAttributes.addFlashAttribute("warning", errorMsg);
+
+        MessageCampaign campaign = campaignService.startCampaign(name, MESSAGE_TYPE, segment, alertType,
+            students.size(), alerts, principal != null ? principal.getName() : "anonymous");
+        if (campaign.getMessageCount() == 0) {
+            redirectAttributes.addFlashAttribute("warning",
+                "These parents already have this alert queued; nothing new was queued");
+            return "redirect:/attendance-alerts";
         }
+        String skipped = campaign.getSkippedCount() > 0
+            ? String.format(" %d duplicate or already queued messages were left out.", campaign.getSkippedCount())
+            : "";
+        redirectAttributes.addFlashAttribute("success",
+            String.format("Queued %d WhatsApp alerts for %d students.%s They are sent in order within the daily message quota"
+                          + " and resume by themselves in the next window if the quota runs out.",
+                          campaign.getMessageCount(), students.size(), skipped));
+        redirectAttributes.addFlashAttribute("campaignId", campaign.getId());
         
         return "redirect:/attendance-alerts";
     }
 
+    @GetMapping("/campaigns/{campaignId}")
+    @ResponseBody
+    public ResponseEntity<CampaignProgress> getCampaignProgress(@PathVariable String campaignId) {
+        return campaignService.getProgress(campaignId)
+            .map(ResponseEntity::ok)
+            .orElse(ResponseEntity.notFound().build());
+    }
+
+    // Paged: pass the previous page's nextAfterId as afterId until it comes back null
+    @GetMapping("/campaigns/{campaignId}/recipients")
+    @ResponseBody
+    public MessageCampaignService.RecipientPage getCampaignRecipients(@PathVariable String campaignId,
+                                                                      @RequestParam(defaultValue = "0") long afterId,
+                                                                      @RequestParam(defaultValue = "500") int limit) {
+        return campaignService.getRecipients(campaignId, afterId, limit);
+    }
+
+    @GetMapping("/campaigns/{campaignId}/delivery")
+    @ResponseBody
+    public DeliveryStats getCampaignDelivery(@PathVariable String campaignId) {
+        return deliveryStatusService.getCampaignStats(campaignId);
+    }
+
+    @GetMapping("/delivery")
+    @ResponseBody
+    public DeliveryStats getDailyDelivery(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return deliveryStatusService.getDailyStats(date != null ? date : LocalDate.now());
+    }
+
+    @GetMapping("/dead-letters")
+    @ResponseBody
+    public List<MessageDeadLetter> getDeadLetters(@RequestParam(defaultValue = "100") int limit) {
+        return deadLetterService.getOpen(Math.min(Math.max(limit, 1), 1000));
+    }
+
+    @PostMapping("/dead-letters/{deadLetterId}/redrive")
+    public String redriveDeadLetter(@PathVariable Long deadLetterId,
+                                    Principal principal,
+                                    RedirectAttributes redirectAttributes) {
+        if (deadLetterService.redrive(deadLetterId, principal != null ? principal.getName() : "anonymous")) {
+            redirectAttributes.addFlashAttribute("success", "Message queued again");
+        } else {
+            redirectAttributes.addFlashAttribute("warning", "That message was already re-queued");
+        }
+        return "redirect:/attendance-alerts";
+    }
+
+    @PostMapping("/dead-letters/redrive")
+    public String redriveDeadLetters(@RequestParam(required = false) SendFailureKind kind,
+                                     Principal principal,
+                                     RedirectAttributes redirectAttributes) {
+        int count = deadLetterService.redriveAll(kind, principal != null ? principal.getName() : "anonymous");
+        redirectAttributes.addFlashAttribute("success", String.format("Queued %d failed messages again", count));
+        return "redirect:/attendance-alerts";
+    }
+
     private String buildAttendanceMessage(Student student, String alertType) {
         double attendance = student.getAttendancePercent() != null ? student.getAttendancePercent() : 0.0;
-        
-        return switch (alertType) {
-            case "critical" -> String.format(
-                "🚨 URGENT ATTENDANCE ALERT\n\n" +
-                "Student: %s\n" +
-                "Class: %s\n" +
-                "Current Attendance: %.1f%%\n\n" +
-                "⚠️ This is critically low and requires immediate attention. " +
-                "Please ensure regular attendance to avoid academic issues.\n\n" +
-                "- GradePulse Team",
-                student.getFullName(),
-                student.getAdmissionClass(),
-                attendance
-            );
-            case "warning" -> String.format(
-                "⚠️ ATTENDANCE ALERT\n\n" +
-                "Student: %s\n" +
-                "Class: %s\n" +
-                "Current Attendance: %.1f%%\n\n" +
-                "Your child's attendance is below the recommended level. " +
-                "Please help maintain regular attendance for better academic performance.\n\n" +
-                "- GradePulse Team",
-                student.getFullName(),
-                student.getAdmissionClass(),
-                attendance
-            );
-            case "reminder" -> String.format(
-                "📋 ATTENDANCE REMINDER\n\n" +
-                "Student: %s\n" +
-                "Class: %s\n" +
-                "Current Attendance: %.1f%%\n\n" +
-                "This is a friendly reminder about attendance. " +
-                "Regular attendance is important for academic success.\n\n" +
-                "- GradePulse Team",
-                student.getFullName(),
-                student.getAdmissionClass(),
-                attendance
-            );
-            default -> String.format(
-                "📊 ATTENDANCE UPDATE\n\n" +
-                "Student: %s\n" +
-                "Current Attendance: %.1f%%\n\n" +
-                "- GradePulse Team",
-                student.getFullName(),
-                attendance
-            );
+        MessageTemplateKey template = switch (alertType) {
+            case "critical" -> MessageTemplateKey.ALERT_CRITICAL;
+            case "warning" -> MessageTemplateKey.ALERT_WARNING;
+            case "reminder" -> MessageTemplateKey.ALERT_REMINDER;
+            default -> MessageTemplateKey.ALERT_UPDATE;
         };
+        return messageTemplates.render(template, student.getLanguagePreference(),
+                                       student.getFullName(), student.getAdmissionClass(), attendance);
     }
 }
@@ -0,0 +1,58 @@
+package com.gradepulse.controller;
+
+import com.gradepulse.dto.FrequentAbsentee;
+import com.gradepulse.model.AttendanceStatus;
+import com.gradepulse.model.ClassSection;
+import com.gradepulse.repository.ClassSectionRepository;
+import com.gradepulse.service.AttendanceBitmapService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Attendance analytics served from the in-memory bitmap index (no attendance_records scans).
+ */
+@RestController
+@RequestMapping("/attendance/api/analytics")
+@RequiredArgsConstructor
+public class AttendanceAnalyticsController {
+
+    private final AttendanceBitmapService bitmapService;
+    private final ClassSectionRepository classSectionRepository;
+
+    // Students absent on at least minAbsent of their last `days` school days
+    @GetMapping("/frequent-absentees")
+    public List<FrequentAbsentee> getFrequentAbsentees(@RequestParam String academicYear,
+                                                       @RequestParam(defaultValue = "10") int days,
+                                                       @RequestParam(defaultValue = "3") int minAbsent,
+                                                       @RequestParam(required = false) String asOf) {
+        LocalDate asOfDate = asOf != null && !asOf.isEmpty() ? LocalDate.parse(asOf) : LocalDate.now();
+        return bitmapService.findFrequentAbsentees(academicYear, asOfDate, days, minAbsent);
+    }
+
+    @GetMapping("/class-daily")
+    public ResponseEntity<Map<AttendanceStatus, Integer>> getClassDailyCounts(@RequestParam Long classSectionId,
+                                                                             @RequestParam(required = false) String date) {
+        ClassSection classSection = classSectionRepository.findById(classSectionId).orElse(null);
+        if (classSection == null) {
+            return ResponseEntity.notFound().build();
+        }
+        LocalDate day = date != null && !date.isEmpty() ? LocalDate.parse(date) : LocalDate.now();
+        return ResponseEntity.ok(
+            bitmapService.getClassDailyCounts(classSection.getAcademicYear(), classSectionId, day));
+    }
+
+    @GetMapping("/streak")
+    public Map<String, Object> getAbsenceStreak(@RequestParam Long studentId,
+                                                @RequestParam String academicYear,
+                                                @RequestParam(required = false) String asOf) {
+        LocalDate asOfDate = asOf != null && !asOf.isEmpty() ? LocalDate.parse(asOf) : LocalDate.now();
+        return Map.of("studentId", studentId,
+                      "academicYear", academicYear,
+                      "absenceStreak", bitmapService.getAbsenceStreak(academicYear, studentId, asOfDate));
+    }
+}
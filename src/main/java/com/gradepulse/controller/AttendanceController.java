@@ -1,19 +1,41 @@
 package com.gradepulse.controller;
 
+import com.gradepulse.dto.ArchivedAttendance;
+import com.gradepulse.dto.AttendanceCalendar;
 import com.gradepulse.dto.AttendanceMarkRequest;
+import com.gradepulse.dto.AttendanceStatusBoard;
 import com.gradepulse.dto.AttendanceSubmission;
+import com.gradepulse.dto.AttendanceSyncRequest;
+import com.gradepulse.dto.AttendanceSyncResult;
+import com.gradepulse.dto.AttendanceTrendPoint;
+import com.gradepulse.dto.ClassSectionTree;
 import com.gradepulse.dto.StudentAttendanceDto;
+import com.gradepulse.model.AttendanceArchivedYear;
+import com.gradepulse.model.AttendanceRecordHistory;
 import com.gradepulse.model.AttendanceStatus;
 import com.gradepulse.model.ClassSection;
+import com.gradepulse.repository.AttendanceRecordHistoryRepository;
 import com.gradepulse.repository.ClassSectionRepository;
+import com.gradepulse.service.AttendanceArchiveService;
+import com.gradepulse.service.AttendanceBitmapService;
+import com.gradepulse.service.AttendanceCalendarService;
+import com.gradepulse.service.AttendancePercentService;
+import com.gradepulse.service.AttendanceRollupService;
 import com.gradepulse.service.AttendanceService;
+import com.gradepulse.service.AttendanceStatusBoardService;
+import com.gradepulse.service.AttendanceSummaryService;
+import com.gradepulse.service.AttendanceSyncService;
+import com.gradepulse.service.ClassSectionTreeService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import java.security.Principal;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.HashMap;
@@ -27,7 +49,17 @@ import java.util.Map;
 public class AttendanceController {
 
     private final ClassSectionRepository classSectionRepository;
+    private final AttendanceRecordHistoryRepository attendanceHistoryRepository;
     private final AttendanceService attendanceService;
+    private final AttendanceRollupService attendanceRollupService;
+    private final AttendanceSummaryService attendanceSummaryService;
+    private final AttendancePercentService attendancePercentService;
+    private final AttendanceBitmapService attendanceBitmapService;
+    private final AttendanceCalendarService attendanceCalendarService;
+    private final AttendanceSyncService attendanceSyncService;
+    private final AttendanceStatusBoardService statusBoardService;
+    private final ClassSectionTreeService classSectionTreeService;
+    private final AttendanceArchiveService attendanceArchiveService;
 
     @GetMapping("/mark")
     public String showAttendanceForm(Model model) {
@@ -142,11 +174,16 @@ public class AttendanceController {
 
             // Prepare result message
             String successMsg = String.format(
-                "✓ Attendance marked successfully for %d students. WhatsApp sent: %d", 
+                "✓ Attendance marked successfully for %d students. WhatsApp queued: %d", 
                 result.getSuccessCount(), 
-                result.getWhatsappSent()
+                result.getWhatsappQueued()
             );
 
+            if (result.getCorrectedCount() > 0 || result.getUnchangedCount() > 0) {
+                successMsg += String.format(" (%d corrected, %d already marked unchanged)",
+                                            result.getCorrectedCount(), result.getUnchangedCount());
+            }
+
             if (result.getFailedCount() > 0) {
                 String errorMsg = String.format(
                     "⚠ %d students failed: %s", 
@@ -168,22 +205,42 @@ public class AttendanceController {
         }
     }
 
+    // JSON bulk sync for the tablet app: many classes per request, replay-safe via idempotency keys
+    @PostMapping("/api/sync")
+    @ResponseBody
+    public Map<String, Object> syncAttendance(@RequestBody AttendanceSyncRequest request) {
+        List<AttendanceSyncResult> results = attendanceSyncService.sync(request);
+        return Map.of("results", results);
+    }
+
     @GetMapping("/success")
     public String showSuccess(Model model) {
         return "attendance-success";
     }
 
     // AJAX endpoints for cascading dropdowns
+    // Whole board -> stream -> class -> section hierarchy for a year in one response;
+    // clients revalidate with If-None-Match and get 304 until a section is added
+    @GetMapping("/api/class-tree")
+    @ResponseBody
+    public ClassSectionTree getClassTree(@RequestParam String academicYear, WebRequest webRequest) {
+        ClassSectionTreeService.CachedTree cached = classSectionTreeService.getTree(academicYear);
+        if (webRequest.checkNotModified(cached.etag())) {
+            return null;
+        }
+        return cached.tree();
+    }
+
     @GetMapping("/api/boards")
     @ResponseBody
     public List<String> getBoards(@RequestParam String academicYear) {
-        return classSectionRepository.findDistinctBoardsByAcademicYear(academicYear);
+        return classSectionTreeService.getBoards(academicYear);
     }
 
     @GetMapping("/api/streams")
     @ResponseBody
     public List<String> getStreams(@RequestParam String academicYear, @RequestParam String board) {
-        return classSectionRepository.findDistinctStreamsByAcademicYearAndBoard(academicYear, board);
+        return classSectionTreeService.getStreams(academicYear, board);
     }
 
     @GetMapping("/api/classes")
@@ -191,17 +248,122 @@ public class AttendanceController {
     public List<String> getClasses(@RequestParam String academicYear, 
                                    @RequestParam String board, 
                                    @RequestParam String stream) {
-        return classSectionRepository.findDistinctClassNamesByAcademicYearBoardAndStream(
-            academicYear, board, stream);
+        return classSectionTreeService.getClassNames(academicYear, board, stream);
     }
 
     @GetMapping("/api/sections")
     @ResponseBody
-    public List<ClassSection> getSections(@RequestParam String academicYear,
-                                         @RequestParam String board,
-                                         @RequestParam String stream,
-                                         @RequestParam String className) {
-        return classSectionRepository.findByAcademicYearAndBoardAndStreamAndClassNameAndIsActiveTrue(
-            academicYear, board, stream, className);
+    public List<ClassSectionTree.Section> getSections(@RequestParam String academicYear,
+                                                      @RequestParam String board,
+                                                      @RequestParam String stream,
+                                                      @RequestParam String className) {
+        return classSectionTreeService.getSections(academicYear, board, stream, className);
+    }
+
+    // School-wide daily attendance trend (served from the daily class rollup)
+    @GetMapping("/api/trends")
+    @ResponseBody
+    public List<AttendanceTrendPoint> getTrends(@RequestParam(required = false) String from,
+                                                @RequestParam(required = false) String to) {
+        LocalDate endDate = to != null && !to.isEmpty() ? LocalDate.parse(to) : LocalDate.now();
+        LocalDate startDate = from != null && !from.isEmpty() ? LocalDate.parse(from) : endDate.minusDays(30);
+        return attendanceRollupService.getSchoolTrend(startDate, endDate);
+    }
+
+    // Which sections are marked today, for the principal's office
+    @GetMapping("/board")
+    public String showStatusBoard(@RequestParam(required = false) String date,
+                                  @RequestParam(required = false) String academicYear,
+                                  Model model) {
+        LocalDate boardDate = date != null && !date.isEmpty() ? LocalDate.parse(date) : LocalDate.now();
+        String year = academicYear != null && !academicYear.isEmpty() ? academicYear : null;
+        model.addAttribute("board", statusBoardService.getBoard(boardDate, year));
+        model.addAttribute("academicYear", year);
+        model.addAttribute("academicYears", classSectionRepository.findDistinctAcademicYears());
+        return "attendance-board";
+    }
+
+    // Polled by the board page; answers 304 while the sections are unchanged
+    @GetMapping("/api/board")
+    @ResponseBody
+    public AttendanceStatusBoard getStatusBoard(@RequestParam(required = false) String date,
+                                                @RequestParam(required = false) String academicYear,
+                                                WebRequest webRequest) {
+        LocalDate boardDate = date != null && !date.isEmpty() ? LocalDate.parse(date) : LocalDate.now();
+        String year = academicYear != null && !academicYear.isEmpty() ? academicYear : null;
+        AttendanceStatusBoard board = statusBoardService.getBoard(boardDate, year);
+        String etag = "\"board-" + boardDate + "-" + Integer.toHexString(board.getSections().hashCode()) + "\"";
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        return board;
+    }
+
+    // Student x day status matrix for one class (defaults to the current month)
+    @GetMapping("/api/calendar")
+    @ResponseBody
+    public ResponseEntity<?> getCalendar(@RequestParam Long classSectionId,
+                                         @RequestParam(required = false) String from,
+                                         @RequestParam(required = false) String to) {
+        LocalDate startDate = from != null && !from.isEmpty() ? LocalDate.parse(from) : LocalDate.now().withDayOfMonth(1);
+        LocalDate endDate = to != null && !to.isEmpty() ? LocalDate.parse(to) : startDate.plusMonths(1).minusDays(1);
+        try {
+            AttendanceCalendar calendar = attendanceCalendarService.getCalendar(classSectionId, startDate, endDate);
+            return ResponseEntity.ok(calendar);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // Corrections made to a student's attendance, newest first
+    @GetMapping("/api/history")
+    @ResponseBody
+    public List<AttendanceRecordHistory> getCorrectionHistory(@RequestParam Long studentId) {
+        return attendanceHistoryRepository.findByStudentIdOrderByChangedAtDesc(studentId);
+    }
+
+    // Backfill job: rebuild the daily rollup from attendance_records
+    @PostMapping("/admin/rollup/rebuild")
+    @ResponseBody
+    public Map<String, Object> rebuildRollup() {
+        int rows = attendanceRollupService.rebuildAll();
+        return Map.of("rollupRows", rows);
+    }
+
+    // Backfill job: rebuild per-student attendance summaries and percentages from attendance_records
+    @PostMapping("/admin/summary/rebuild")
+    @ResponseBody
+    public Map<String, Object> rebuildSummaries() {
+        int rows = attendanceSummaryService.rebuildAll();
+        int students = attendancePercentService.recalculateAll();
+        return Map.of("summaryRows", rows, "studentsRecalculated", students);
+    }
+
+    // Backfill job: rebuild the compact attendance bitmaps from attendance_records
+    @PostMapping("/admin/bitmap/rebuild")
+    @ResponseBody
+    public Map<String, Object> rebuildBitmaps() {
+        int rows = attendanceBitmapService.rebuildAll();
+        return Map.of("bitmapRows", rows);
+    }
+
+    // Archive job: move a closed academic year out of attendance_records into the compressed archive
+    @PostMapping("/admin/archive")
+    @ResponseBody
+    public ResponseEntity<?> archiveYear(@RequestParam String academicYear, Principal principal) {
+        try {
+            AttendanceArchivedYear archived = attendanceArchiveService.archiveYear(
+                academicYear, principal != null ? principal.getName() : "admin");
+            return ResponseEntity.ok(archived);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/api/archive")
+    @ResponseBody
+    public List<ArchivedAttendance> getArchivedAttendance(@RequestParam Long studentId,
+                                                          @RequestParam String academicYear) {
+        return attendanceArchiveService.getArchivedRecords(studentId, academicYear);
     }
 }
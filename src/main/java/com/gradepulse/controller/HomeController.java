@@ -1,13 +1,17 @@
 package com.gradepulse.controller;
 
+import com.gradepulse.dto.AttendanceTrendPoint;
 import com.gradepulse.dto.DashboardStats;
 import com.gradepulse.repository.StudentRepository;
+import com.gradepulse.service.AttendanceRollupService;
+import com.gradepulse.service.UploadActivityService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import jakarta.servlet.http.HttpServletResponse;
 
+import java.time.LocalDate;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -18,6 +22,12 @@ public class HomeController {
     @Autowired
     private StudentRepository studentRepository;
 
+    @Autowired
+    private UploadActivityService uploadActivityService;
+
+    @Autowired
+    private AttendanceRollupService attendanceRollupService;
+
     @GetMapping("/login")
     public String login() {
         return "login";
@@ -66,10 +76,17 @@ public class HomeController {
         stats.setAboveEightyPercent(studentRepository.countByAttendancePercentGreaterThanEqual(80.0));
         stats.setBelowEightyPercent(studentRepository.countByAttendancePercentLessThan(80.0));
         
-        // For now, set upload stats to 0 (we'll implement tracking later)
-        stats.setUploadsToday(0L);
-        stats.setUploadsThisWeek(0L);
-        stats.setUploadsThisMonth(0L);
+        // Today's attendance (read from the daily class rollup)
+        AttendanceTrendPoint today = attendanceRollupService.getSchoolTotalsForDate(LocalDate.now());
+        stats.setPresentToday(today.getPresentCount());
+        stats.setAbsentToday(today.getAbsentCount());
+        stats.setLateToday(today.getLateCount());
+        stats.setTodayAttendancePercent(today.getAttendancePercent());
+        
+        // Upload activity (read from pre-aggregated daily buckets)
+        stats.setUploadsToday(uploadActivityService.countUploadsToday());
+        stats.setUploadsThisWeek(uploadActivityService.countUploadsThisWeek());
+        stats.setUploadsThisMonth(uploadActivityService.countUploadsThisMonth());
         
         model.addAttribute("stats", stats);
         return "dashboard";
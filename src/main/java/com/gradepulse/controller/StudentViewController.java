@@ -2,6 +2,7 @@ package com.gradepulse.controller;
 
 import com.gradepulse.model.Student;
 import com.gradepulse.repository.StudentRepository;
+import com.gradepulse.service.AttendanceSummaryService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -24,6 +25,9 @@ public class StudentViewController {
     @Autowired
     private StudentRepository studentRepository;
 
+    @Autowired
+    private AttendanceSummaryService attendanceSummaryService;
+
     @GetMapping
     public String listStudents(
             @RequestParam(required = false) String search,
@@ -283,6 +287,7 @@ public class StudentViewController {
             return "redirect:/students";
         }
         model.addAttribute("student", student);
+        model.addAttribute("attendanceSummary", attendanceSummaryService.getLatestSummary(student).orElse(null));
         log.info("Viewing student details: {}", student.getFullName());
         return "student-detail";
     }
@@ -4,11 +4,17 @@ import com.google.gson.Gson;
 import com.gradepulse.dto.StudentUploadDto;
 import com.gradepulse.model.ClassSection;
 import com.gradepulse.model.FieldConfig;
+import com.gradepulse.model.MessageLanguage;
+import com.gradepulse.model.OutboundMessage;
 import com.gradepulse.model.Student;
 import com.gradepulse.repository.FieldConfigRepository;
 import com.gradepulse.repository.StudentRepository;
+import com.gradepulse.service.AttendancePercentService;
 import com.gradepulse.service.ClassSectionMappingService;
-import com.gradepulse.service.WhatsAppService;
+import com.gradepulse.service.UploadActivityService;
+import com.gradepulse.service.MessageTemplateKey;
+import com.gradepulse.service.MessageTemplateRegistry;
+import com.gradepulse.service.NotificationOutboxService;
 import org.apache.poi.hssf.usermodel.HSSFWorkbook;
 import org.apache.poi.ss.usermodel.*;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
@@ -23,6 +29,7 @@ import org.springframework.web.multipart.MultipartFile;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.security.Principal;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
@@ -37,7 +44,10 @@ public class UploadController {
     private StudentRepository studentRepository;
 
     @Autowired
-    private WhatsAppService whatsAppService;
+    private NotificationOutboxService notificationOutboxService;
+
+    @Autowired
+    private MessageTemplateRegistry messageTemplates;
 
     @Autowired
     private FieldConfigRepository fieldConfigRepository;
@@ -45,6 +55,12 @@ public class UploadController {
     @Autowired
     private ClassSectionMappingService classSectionMappingService;
 
+    @Autowired
+    private UploadActivityService uploadActivityService;
+
+    @Autowired
+    private AttendancePercentService attendancePercentService;
+
     private final Gson gson = new Gson();
 
     // === 1. Show upload page ===
@@ -518,7 +534,9 @@ public class UploadController {
 
     // === 3. Confirm & Save ===
     @PostMapping("/upload/confirm")
-    public String confirmUpload(@RequestParam Map<String, String> allParams, Model model) {
+    public String confirmUpload(@RequestParam Map<String, String> allParams, Model model, Principal principal) {
+        long startNanos = System.nanoTime();
+
         // Extract academic year (default to current academic year)
         String academicYear = allParams.getOrDefault("academicYear", "2024-2025");
         log.info("Processing upload for academic year: {}", academicYear);
@@ -544,10 +562,14 @@ public class UploadController {
 
         List<Student> students = new ArrayList<>();
         int savedCount = 0;
+        int insertedCount = 0;
+        int updatedCount = 0;
+        int failedCount = 0;
 
         for (StudentUploadDto dto : dtos) {
             if (!dto.isValid()) {
                 log.warn("Skipping invalid row: ID={}", dto.getStudentId());
+                failedCount++;
                 continue;
             }
 
@@ -555,8 +577,10 @@ public class UploadController {
             Student s = studentRepository.findByStudentId(dto.getStudentId());
             if (s == null) {
                 s = new Student();
+                insertedCount++;
                 log.info("Creating new student: ID={}", dto.getStudentId());
             } else {
+                updatedCount++;
                 log.info("Updating existing student: ID={}", dto.getStudentId());
             }
 
@@ -655,31 +679,39 @@ public class UploadController {
         if (!students.isEmpty()) {
             studentRepository.saveAll(students);
             log.info("Successfully saved {} students", savedCount);
+
+            // The spreadsheet percentage is only a seed: students with recorded
+            // attendance get their computed value back
+            List<Long> savedIds = students.stream().map(Student::getId).toList();
+            attendancePercentService.recalculate(savedIds);
         }
 
-        // Send WhatsApp (wrapped in try-catch to handle API limits)
+        // Record upload activity (duration covers parsing, class mapping and the DB save)
+        long durationMs = (System.nanoTime() - startNanos) / 1_000_000;
         try {
-            String welcome = "Welcome to GradePulse! Reply with:\n1 → English\n2 → हिंदी\n3 → தமிழ்\n4 → ಕನ್ನಡ";
-            int sentCount = 0;
+            uploadActivityService.recordUpload(
+                principal != null ? principal.getName() : "anonymous",
+                academicYear, insertedCount, updatedCount, failedCount, durationMs);
+        } catch (Exception e) {
+            log.warn("Failed to record upload activity: {}", e.getMessage());
+        }
+
+        // Queue the welcome message; the outbox sends it at bulk priority within the Twilio quotas
+        try {
+            String welcome = messageTemplates.render(MessageTemplateKey.WELCOME, MessageLanguage.ENGLISH);
+            List<OutboundMessage> welcomes = new ArrayList<>();
             for (Student s : students) {
-                if (sentCount >= 10) break; // Limit to 10 messages per upload to avoid API limits
-                
                 if (s.getFatherContact() != null && s.getFatherContact().matches("\\d{10}")) {
-                    whatsAppService.send(s.getFatherContact(), welcome);
-                    log.info("WhatsApp sent to father: {}", s.getFatherContact());
-                    sentCount++;
+                    welcomes.add(NotificationOutboxService.newMessage(s.getFatherContact(), welcome, "WELCOME", s.getId()));
                 }
-                if (sentCount >= 10) break;
-                
                 if (s.getMotherContact() != null && s.getMotherContact().matches("\\d{10}")) {
-                    whatsAppService.send(s.getMotherContact(), welcome);
-                    log.info("WhatsApp sent to mother: {}", s.getMotherContact());
-                    sentCount++;
+                    welcomes.add(NotificationOutboxService.newMessage(s.getMotherContact(), welcome, "WELCOME", s.getId()));
                 }
             }
-            log.info("Successfully sent {} WhatsApp messages", sentCount);
+            notificationOutboxService.enqueueAll(welcomes);
+            log.info("Queued {} WhatsApp welcome messages", welcomes.size());
         } catch (Exception e) {
-            log.warn("WhatsApp sending failed (possibly due to API limits): {}", e.getMessage());
+            log.warn("Failed to queue WhatsApp welcome messages: {}", e.getMessage());
             // Continue execution - don't fail the upload if WhatsApp fails
         }
 
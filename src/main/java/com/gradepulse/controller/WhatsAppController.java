@@ -1,65 +1,94 @@
 // src/main/java/com/gradepulse/controller/WhatsAppController.java
 package com.gradepulse.controller;
 
-import com.gradepulse.model.Student;
-import com.gradepulse.repository.StudentRepository;
+import com.gradepulse.service.DeliveryStatusService;
+import com.gradepulse.service.InboundMessageService;
 import com.gradepulse.service.WhatsAppService;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
 @RestController
 @RequestMapping("/webhook")
 @RequiredArgsConstructor
 public class WhatsAppController {
 
-    private final StudentRepository studentRepository;
+    private static final String EMPTY_TWIML = "<?xml version=\"1.0\" encoding=\"UTF-8\"?><Response></Response>";
+
+    private final InboundMessageService inboundMessageService;
     private final WhatsAppService whatsAppService;
+    private final DeliveryStatusService deliveryStatusService;
 
-    @PostMapping("/whatsapp")
-    public ResponseEntity<String> handle(
-            @RequestParam String From,
-            @RequestParam String Body) {
+    @Value("${gradepulse.whatsapp.validate-callbacks:true}")
+    private boolean validateCallbacks;
 
-        String from = From.replace("whatsapp:", "");
-        String text = Body.trim();
+    @Value("${gradepulse.whatsapp.inbound-webhook-url:}")
+    private String inboundWebhookUrl;
 
-        Student student = findByContact(from);
-        if (student == null) {
-            return ResponseEntity.ok("Student not found");
-        }
+    @Value("${gradepulse.whatsapp.status-callback-url:}")
+    private String statusCallbackUrl;
 
-        String lang = switch (text) {
-            case "1" -> "ENGLISH";
-            case "2" -> "HINDI";
-            case "3" -> "TAMIL";
-            case "4" -> "KANNADA";
-            default -> {
-                whatsAppService.send(from, "Please reply with 1, 2, 3, or 4.");
-                yield null;
-            }
-        };
+    /**
+     * Incoming WhatsApp message from a parent. Only checked and recorded here, deduplicated by
+     * MessageSid; InboundMessageService processes it in the background, so Twilio gets its
+     * answer in milliseconds and a redelivery is not handled twice.
+     */
+    @PostMapping(value = "/whatsapp", produces = MediaType.TEXT_XML_VALUE)
+    public ResponseEntity<String> handle(HttpServletRequest request,
+                                         @RequestHeader(value = "X-Twilio-Signature", required = false) String signature) {
+        Map<String, String> params = formParams(request);
+        if (validateCallbacks && !whatsAppService.verifyCallback(
+                signedUrl(inboundWebhookUrl, request), params, signature)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        String from = params.get("From");
+        if (from == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        String messageSid = params.get("MessageSid");
+        if (messageSid == null || messageSid.isBlank()) {
+            messageSid = "LOCAL" + UUID.randomUUID().toString().replace("-", "");
+        }
+        String body = params.get("Body");
+        inboundMessageService.accept(messageSid, from.replace("whatsapp:", ""), body != null ? body.trim() : "");
 
-        if (lang != null) {
-            student.setLanguagePreference(lang);
-            studentRepository.save(student);
-            whatsAppService.send(from, "Language set to " + lang + ". Thank you!");
+        // Empty TwiML: replies go out through the outbox, not in this response
+        return ResponseEntity.ok(EMPTY_TWIML);
+    }
 
-            // Notify other parent
-            if (student.getFatherContact() != null && !from.equals(student.getFatherContact())) {
-                whatsAppService.send(student.getFatherContact(), student.getFullName() + "'s language: " + lang);
-            }
-            if (student.getMotherContact() != null && !from.equals(student.getMotherContact())) {
-                whatsAppService.send(student.getMotherContact(), student.getFullName() + "'s language: " + lang);
-            }
+    /**
+     * Twilio delivery status callback (sent, delivered, read, failed, ...). Only buffered here;
+     * DeliveryStatusService writes callbacks in batches.
+     */
+    @PostMapping("/whatsapp/status")
+    public ResponseEntity<Void> handleStatus(HttpServletRequest request,
+                                             @RequestHeader(value = "X-Twilio-Signature", required = false) String signature) {
+        Map<String, String> params = formParams(request);
+        if (validateCallbacks && !whatsAppService.verifyCallback(
+                signedUrl(statusCallbackUrl, request), params, signature)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
         }
+        deliveryStatusService.record(params.get("MessageSid"), params.get("MessageStatus"), params.get("ErrorCode"));
+        return ResponseEntity.noContent().build();
+    }
 
-        return ResponseEntity.ok("OK");
+    private static Map<String, String> formParams(HttpServletRequest request) {
+        Map<String, String> params = new HashMap<>();
+        request.getParameterMap().forEach((name, values) -> params.put(name, values[0]));
+        return params;
     }
 
-    private Student findByContact(String contact) {
-        return studentRepository.findByFatherContactOrMotherContactOrGuardianContact(
-            contact, contact, contact
-        );
+    // Twilio signs the URL it called: the configured public URL, which behind a proxy differs
+    // from the one this request arrived on
+    private static String signedUrl(String configuredUrl, HttpServletRequest request) {
+        return configuredUrl != null && !configuredUrl.isBlank() ? configuredUrl : request.getRequestURL().toString();
     }
 }
\ No newline at end of file
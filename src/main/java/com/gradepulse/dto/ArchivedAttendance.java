@@ -0,0 +1,24 @@
+package com.gradepulse.dto;
+
+import com.gradepulse.model.AttendanceStatus;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+// One attendance record read back from the archive of a closed academic year
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchivedAttendance {
+    private LocalDate attendanceDate;
+    private AttendanceStatus status;
+    private LocalTime arrivalTime;
+    private Long classSectionId;
+    private String markedBy;
+    private LocalDateTime markedAt;
+    private String notes;
+}
@@ -0,0 +1,36 @@
+package com.gradepulse.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Dense student x day attendance matrix for one class section.
+ * Each row's {@code days} string has one character per calendar day from startDate:
+ * P/A/L/H (see AttendanceStatus#getCode) or '.' when no attendance was marked.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AttendanceCalendar {
+
+    public static final char NOT_MARKED = '.';
+
+    private Long classSectionId;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private List<Row> students;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Row {
+        private Long id;
+        private String studentId;
+        private String fullName;
+        private String days;
+    }
+}
@@ -0,0 +1,53 @@
+package com.gradepulse.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Which active class sections have attendance marked on a date, with per-status counts.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AttendanceStatusBoard {
+    private LocalDate date;
+    private LocalDateTime generatedAt;
+    private long version; // bumped whenever attendance is submitted
+    private List<Section> sections;
+
+    public long getMarkedCount() {
+        return sections.stream().filter(Section::isMarked).count();
+    }
+
+    public long getUnmarkedCount() {
+        return sections.size() - getMarkedCount();
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Section {
+        private Long classSectionId;
+        private String academicYear;
+        private String board;
+        private String stream;
+        private String className;
+        private String sectionName;
+        private boolean marked;
+        private int presentCount;
+        private int absentCount;
+        private int lateCount;
+        private int halfDayCount;
+        private String markedBy;
+        private LocalDateTime markedAt;
+
+        public int getTotalCount() {
+            return presentCount + absentCount + lateCount + halfDayCount;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.gradepulse.dto;
+
+import com.gradepulse.model.AttendanceStatus;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JSON body of POST /attendance/api/sync: many class submissions in one request.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AttendanceSyncRequest {
+    private String markedBy; // default for submissions that don't set their own
+    private List<Item> submissions;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Item {
+        private String idempotencyKey; // client-generated, unique per class submission
+        private Long classSectionId;
+        private LocalDate attendanceDate;
+        private Map<Long, AttendanceStatus> studentAttendance;
+        private Map<Long, LocalTime> arrivalTimes;
+        private Map<Long, String> notes;
+        private String markedBy;
+    }
+}
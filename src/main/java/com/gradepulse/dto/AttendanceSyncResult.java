@@ -0,0 +1,26 @@
+package com.gradepulse.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AttendanceSyncResult {
+
+    public enum Outcome {
+        APPLIED,   // written by this request
+        REPLAYED,  // key seen before; stored outcome returned, nothing written
+        REJECTED   // invalid submission; nothing written, safe to fix and resend
+    }
+
+    private String idempotencyKey;
+    private Outcome outcome;
+    private int successCount;
+    private int failedCount;
+    private int whatsappQueued;
+    private List<String> errors;
+}
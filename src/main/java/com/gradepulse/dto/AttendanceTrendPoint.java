@@ -0,0 +1,28 @@
+package com.gradepulse.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AttendanceTrendPoint {
+    private LocalDate date;
+    private long presentCount;
+    private long absentCount;
+    private long lateCount;
+    private long halfDayCount;
+
+    public long getTotalCount() {
+        return presentCount + absentCount + lateCount + halfDayCount;
+    }
+
+    // Late and half-day students are counted as attending
+    public double getAttendancePercent() {
+        long total = getTotalCount();
+        return total > 0 ? (presentCount + lateCount + halfDayCount) * 100.0 / total : 0.0;
+    }
+}
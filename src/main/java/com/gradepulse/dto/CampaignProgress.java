@@ -0,0 +1,33 @@
+package com.gradepulse.dto;
+
+import com.gradepulse.model.CampaignSegment;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CampaignProgress {
+
+    private String campaignId;
+    private String name;
+    private CampaignSegment segment;
+    private LocalDateTime createdAt;
+    private long total;
+    private long pending;
+    private long sent;
+    private long failed;
+    private long skipped;
+    private LocalDateTime resumesAt; // set while every waiting message is held (quota, backoff)
+
+    public boolean isComplete() {
+        return pending == 0;
+    }
+
+    public double getPercentDone() {
+        return total > 0 ? (sent + failed) * 100.0 / total : 100.0;
+    }
+}
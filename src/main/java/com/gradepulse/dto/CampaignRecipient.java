@@ -0,0 +1,32 @@
+package com.gradepulse.dto;
+
+import com.gradepulse.model.DeliveryStatus;
+import com.gradepulse.model.OutboundMessageStatus;
+import com.gradepulse.model.SendFailureKind;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One recipient of a campaign and where its message stands: waiting (and until when),
+ * sent and how far it got, or failed and why.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CampaignRecipient {
+
+    private Long messageId;
+    private Long studentId;
+    private String studentName;
+    private String recipient;
+    private OutboundMessageStatus status;
+    private int attempts;
+    private LocalDateTime availableAt;
+    private LocalDateTime sentAt;
+    private DeliveryStatus deliveryStatus;
+    private SendFailureKind failureKind;
+    private String lastError;
+}
@@ -0,0 +1,28 @@
+package com.gradepulse.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Active class sections of one academic year as board -> stream -> class -> sections,
+ * every level sorted. Feeds the cascading dropdowns on the attendance form in one request.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClassSectionTree {
+    private String academicYear;
+    private Map<String, Map<String, Map<String, List<Section>>>> boards;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Section {
+        private Long id;
+        private String sectionName;
+    }
+}
@@ -32,6 +32,12 @@ public class DashboardStats {
     private Long aboveEightyPercent;
     private Long belowEightyPercent;
     
+    // Today's marked attendance (from the daily class rollup)
+    private Long presentToday;
+    private Long absentToday;
+    private Long lateToday;
+    private Double todayAttendancePercent;
+    
     // Recent activity
     private Long uploadsToday;
     private Long uploadsThisWeek;
@@ -0,0 +1,38 @@
+package com.gradepulse.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeliveryStats {
+
+    private String scope;            // a date (yyyy-MM-dd) or a campaign id
+    private long messagesSent;       // outbox rows sent
+    private long providerMessages;   // WhatsApp messages they went out as (after coalescing)
+    private Map<String, Long> byStatus; // outbox rows per delivery status; NONE = no callback yet
+
+    public long getDelivered() {
+        return count("DELIVERED") + count("READ");
+    }
+
+    public long getRead() {
+        return count("READ");
+    }
+
+    public long getFailed() {
+        return count("FAILED") + count("UNDELIVERED");
+    }
+
+    public double getDeliveryRate() {
+        return messagesSent > 0 ? getDelivered() * 100.0 / messagesSent : 0.0;
+    }
+
+    private long count(String status) {
+        return byStatus != null ? byStatus.getOrDefault(status, 0L) : 0L;
+    }
+}
@@ -0,0 +1,15 @@
+package com.gradepulse.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FrequentAbsentee {
+    private Long studentId;
+    private Long classSectionId;
+    private int absentDays;
+    private int markedDays;
+}
@@ -0,0 +1,39 @@
+package com.gradepulse.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "attendance_archive", uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"student_id", "academic_year"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AttendanceArchive {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "student_id", nullable = false)
+    private Long studentId;
+
+    @Column(name = "academic_year", nullable = false, length = 20)
+    private String academicYear;
+
+    @Column(name = "record_count", nullable = false)
+    private int recordCount;
+
+    // GZIP-compressed records, see AttendanceArchiveService#encode
+    @Lob
+    @Column(nullable = false)
+    private byte[] payload;
+
+    @Column(name = "archived_at")
+    private LocalDateTime archivedAt;
+}
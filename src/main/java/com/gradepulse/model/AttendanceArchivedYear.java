@@ -0,0 +1,35 @@
+package com.gradepulse.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "attendance_archived_years")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AttendanceArchivedYear {
+
+    @Id
+    @Column(name = "academic_year", length = 20)
+    private String academicYear;
+
+    @Column(name = "record_count", nullable = false)
+    private long recordCount;
+
+    @Column(name = "student_count", nullable = false)
+    private int studentCount;
+
+    @Column(name = "compressed_bytes", nullable = false)
+    private long compressedBytes;
+
+    @Column(name = "archived_by", length = 100)
+    private String archivedBy;
+
+    @Column(name = "archived_at")
+    private LocalDateTime archivedAt = LocalDateTime.now();
+}
@@ -0,0 +1,44 @@
+package com.gradepulse.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "attendance_bitmaps", uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"student_id", "academic_year"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AttendanceBitmap {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "student_id", nullable = false)
+    private Long studentId;
+
+    @Column(name = "academic_year", nullable = false, length = 20)
+    private String academicYear;
+
+    // Section the student was last marked in for this year
+    @Column(name = "class_section_id")
+    private Long classSectionId;
+
+    @Column(nullable = false, length = AttendanceBits.BYTE_LENGTH)
+    private byte[] bits;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        updatedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,190 @@
+package com.gradepulse.model;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Compact attendance history for one student in one academic year.
+ *
+ * Each calendar day from the start of the academic year (1 April) has one bit in three planes:
+ * a "marked" plane, plus two status planes that hold the 2-bit AttendanceStatus ordinal
+ * (PRESENT=00, ABSENT=01, LATE=10, HALF_DAY=11). Counting and streak queries run over whole
+ * 64-bit words, so a year of history is 7 words per plane and 168 bytes on disk.
+ *
+ * Instances are mutated only while being built; once published to AttendanceBitmapService's
+ * index they are treated as immutable snapshots.
+ */
+public final class AttendanceBits {
+
+    public static final int WORDS = 7;
+    public static final int CAPACITY_DAYS = WORDS * 64;
+    public static final int BYTE_LENGTH = WORDS * 8 * 3;
+
+    private final long[] marked = new long[WORDS];
+    private final long[] lo = new long[WORDS];
+    private final long[] hi = new long[WORDS];
+
+    // Academic year "2024-2025" starts on 1 April 2024
+    public static LocalDate yearStart(String academicYear) {
+        int firstYear = Integer.parseInt(academicYear.substring(0, 4));
+        return LocalDate.of(firstYear, Month.APRIL, 1);
+    }
+
+    // Day index within the academic year, or -1 if the date falls outside the bitmap
+    public static int dayIndex(String academicYear, LocalDate date) {
+        long index = ChronoUnit.DAYS.between(yearStart(academicYear), date);
+        return index >= 0 && index < CAPACITY_DAYS ? (int) index : -1;
+    }
+
+    public static LocalDate dateOf(String academicYear, int day) {
+        return yearStart(academicYear).plusDays(day);
+    }
+
+    public void set(int day, AttendanceStatus status) {
+        int w = day >>> 6;
+        long bit = 1L << day;
+        int code = status.ordinal();
+        marked[w] |= bit;
+        lo[w] = (code & 1) != 0 ? lo[w] | bit : lo[w] & ~bit;
+        hi[w] = (code & 2) != 0 ? hi[w] | bit : hi[w] & ~bit;
+    }
+
+    public void clear(int day) {
+        int w = day >>> 6;
+        long bit = ~(1L << day);
+        marked[w] &= bit;
+        lo[w] &= bit;
+        hi[w] &= bit;
+    }
+
+    public AttendanceStatus get(int day) {
+        int w = day >>> 6;
+        long bit = 1L << day;
+        if ((marked[w] & bit) == 0) {
+            return null;
+        }
+        int code = ((lo[w] & bit) != 0 ? 1 : 0) | ((hi[w] & bit) != 0 ? 2 : 0);
+        return AttendanceStatus.values()[code];
+    }
+
+    // Word w of the plane holding days with the given status
+    private long statusWord(int w, AttendanceStatus status) {
+        long l = lo[w];
+        long h = hi[w];
+        long match = switch (status) {
+            case PRESENT -> ~l & ~h;
+            case ABSENT -> l & ~h;
+            case LATE -> ~l & h;
+            case HALF_DAY -> l & h;
+        };
+        return match & marked[w];
+    }
+
+    // Bits of word w that fall inside [fromDay, toDay]
+    private static long rangeMask(int w, int fromDay, int toDay) {
+        long mask = -1L;
+        if (w == fromDay >>> 6) {
+            mask &= -1L << (fromDay & 63);
+        }
+        if (w == toDay >>> 6) {
+            mask &= -1L >>> (63 - (toDay & 63));
+        }
+        return mask;
+    }
+
+    /**
+     * Number of days with the given status in [fromDay, toDay] (inclusive, clamped to the bitmap).
+     */
+    public int count(AttendanceStatus status, int fromDay, int toDay) {
+        fromDay = Math.max(fromDay, 0);
+        toDay = Math.min(toDay, CAPACITY_DAYS - 1);
+        int total = 0;
+        for (int w = fromDay >>> 6; w <= toDay >>> 6 && fromDay <= toDay; w++) {
+            total += Long.bitCount(statusWord(w, status) & rangeMask(w, fromDay, toDay));
+        }
+        return total;
+    }
+
+    public int countMarked(int fromDay, int toDay) {
+        fromDay = Math.max(fromDay, 0);
+        toDay = Math.min(toDay, CAPACITY_DAYS - 1);
+        int total = 0;
+        for (int w = fromDay >>> 6; w <= toDay >>> 6 && fromDay <= toDay; w++) {
+            total += Long.bitCount(marked[w] & rangeMask(w, fromDay, toDay));
+        }
+        return total;
+    }
+
+    /**
+     * First day of the window holding the last {@code markedDays} marked (school) days up to uptoDay.
+     * Returns 0 when fewer days than that have been marked.
+     */
+    public int windowStart(int uptoDay, int markedDays) {
+        uptoDay = Math.min(uptoDay, CAPACITY_DAYS - 1);
+        if (markedDays <= 0 || uptoDay < 0) {
+            return uptoDay + 1;
+        }
+        int remaining = markedDays;
+        for (int w = uptoDay >>> 6; w >= 0; w--) {
+            long word = marked[w] & rangeMask(w, 0, uptoDay);
+            int inWord = Long.bitCount(word);
+            if (inWord >= remaining) {
+                for (int i = 1; i < remaining; i++) {
+                    word &= ~Long.highestOneBit(word);
+                }
+                return (w << 6) + 63 - Long.numberOfLeadingZeros(word);
+            }
+            remaining -= inWord;
+        }
+        return 0;
+    }
+
+    /**
+     * Consecutive ABSENT school days ending at or before uptoDay. Unmarked days
+     * (weekends, holidays) don't break the streak; any other marked status does.
+     */
+    public int trailingAbsenceStreak(int uptoDay) {
+        uptoDay = Math.min(uptoDay, CAPACITY_DAYS - 1);
+        if (uptoDay < 0) {
+            return 0;
+        }
+        for (int w = uptoDay >>> 6; w >= 0; w--) {
+            long attended = (marked[w] & ~statusWord(w, AttendanceStatus.ABSENT)) & rangeMask(w, 0, uptoDay);
+            if (attended != 0) {
+                int lastAttended = (w << 6) + 63 - Long.numberOfLeadingZeros(attended);
+                return count(AttendanceStatus.ABSENT, lastAttended + 1, uptoDay);
+            }
+        }
+        return count(AttendanceStatus.ABSENT, 0, uptoDay);
+    }
+
+    public byte[] toBytes() {
+        ByteBuffer buffer = ByteBuffer.allocate(BYTE_LENGTH);
+        for (long word : marked) buffer.putLong(word);
+        for (long word : lo) buffer.putLong(word);
+        for (long word : hi) buffer.putLong(word);
+        return buffer.array();
+    }
+
+    public static AttendanceBits fromBytes(byte[] bytes) {
+        AttendanceBits bits = new AttendanceBits();
+        if (bytes == null || bytes.length < BYTE_LENGTH) {
+            return bits;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        for (int w = 0; w < WORDS; w++) bits.marked[w] = buffer.getLong();
+        for (int w = 0; w < WORDS; w++) bits.lo[w] = buffer.getLong();
+        for (int w = 0; w < WORDS; w++) bits.hi[w] = buffer.getLong();
+        return bits;
+    }
+
+    public AttendanceBits copy() {
+        AttendanceBits copy = new AttendanceBits();
+        System.arraycopy(marked, 0, copy.marked, 0, WORDS);
+        System.arraycopy(lo, 0, copy.lo, 0, WORDS);
+        System.arraycopy(hi, 0, copy.hi, 0, WORDS);
+        return copy;
+    }
+}
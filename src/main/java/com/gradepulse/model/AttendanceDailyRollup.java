@@ -0,0 +1,56 @@
+package com.gradepulse.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "attendance_daily_rollup", uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"class_section_id", "rollup_date"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AttendanceDailyRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "class_section_id", nullable = false)
+    private ClassSection classSection;
+
+    @Column(name = "rollup_date", nullable = false)
+    private LocalDate rollupDate;
+
+    @Column(name = "academic_year", nullable = false, length = 20)
+    private String academicYear;
+
+    @Column(name = "present_count", nullable = false)
+    private int presentCount;
+
+    @Column(name = "absent_count", nullable = false)
+    private int absentCount;
+
+    @Column(name = "late_count", nullable = false)
+    private int lateCount;
+
+    @Column(name = "half_day_count", nullable = false)
+    private int halfDayCount;
+
+    @Column(name = "marked_by", length = 100)
+    private String markedBy;
+
+    @Column(name = "marked_at")
+    private LocalDateTime markedAt;
+
+    // Helper method to get total students marked
+    public int getTotalCount() {
+        return presentCount + absentCount + lateCount + halfDayCount;
+    }
+}
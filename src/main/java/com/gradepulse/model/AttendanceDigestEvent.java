@@ -0,0 +1,53 @@
+package com.gradepulse.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+@Entity
+@Table(name = "attendance_digest_events")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AttendanceDigestEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 30)
+    private String recipient;
+
+    @Column(name = "recipient_key", nullable = false, length = 30)
+    private String recipientKey; // OutboundMessage.normalizeContact(recipient)
+
+    @Column(name = "student_id", nullable = false)
+    private Long studentId;
+
+    @Column(name = "class_section_id")
+    private Long classSectionId;
+
+    @Column(name = "attendance_date", nullable = false)
+    private LocalDate attendanceDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private AttendanceStatus status;
+
+    @Column(name = "arrival_time")
+    private LocalTime arrivalTime;
+
+    @Column(name = "due_at", nullable = false)
+    private LocalDateTime dueAt; // digest time of the student's school on attendance_date
+
+    @Column(name = "digested_at")
+    private LocalDateTime digestedAt;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt = LocalDateTime.now();
+}
@@ -0,0 +1,48 @@
+package com.gradepulse.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "attendance_record_history")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AttendanceRecordHistory {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "student_id", nullable = false)
+    private Long studentId;
+
+    @Column(name = "attendance_date", nullable = false)
+    private LocalDate attendanceDate;
+
+    // Section of the record before the correction
+    @Column(name = "class_section_id")
+    private Long classSectionId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "previous_status", nullable = false, length = 20)
+    private AttendanceStatus previousStatus;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "new_status", nullable = false, length = 20)
+    private AttendanceStatus newStatus;
+
+    @Column(name = "previous_marked_by", length = 100)
+    private String previousMarkedBy;
+
+    @Column(name = "changed_by", length = 100)
+    private String changedBy;
+
+    @Column(name = "changed_at")
+    private LocalDateTime changedAt = LocalDateTime.now();
+}
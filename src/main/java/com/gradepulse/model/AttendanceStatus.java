@@ -1,17 +1,19 @@
 package com.gradepulse.model;
 
 public enum AttendanceStatus {
-    PRESENT("Present", "✓"),
-    ABSENT("Absent", "✗"),
-    LATE("Late", "⏰"),
-    HALF_DAY("Half Day", "½");
+    PRESENT("Present", "✓", 'P'),
+    ABSENT("Absent", "✗", 'A'),
+    LATE("Late", "⏰", 'L'),
+    HALF_DAY("Half Day", "½", 'H');
 
     private final String displayName;
     private final String symbol;
+    private final char code; // one-character form used by the calendar matrix
 
-    AttendanceStatus(String displayName, String symbol) {
+    AttendanceStatus(String displayName, String symbol, char code) {
         this.displayName = displayName;
         this.symbol = symbol;
+        this.code = code;
     }
 
     public String getDisplayName() {
@@ -21,4 +23,8 @@ public enum AttendanceStatus {
     public String getSymbol() {
         return symbol;
     }
+
+    public char getCode() {
+        return code;
+    }
 }
@@ -0,0 +1,38 @@
+package com.gradepulse.model;
+
+/**
+ * Which students an alert campaign targets. LOW and MEDIUM are attendance bands, resolved
+ * when the campaign starts; SELECTED is a hand-picked list.
+ */
+public enum CampaignSegment {
+    LOW(null, 75.0),
+    MEDIUM(75.0, 85.0),
+    SELECTED(null, null);
+
+    private final Double minPercent; // inclusive
+    private final Double maxPercent; // exclusive
+
+    CampaignSegment(Double minPercent, Double maxPercent) {
+        this.minPercent = minPercent;
+        this.maxPercent = maxPercent;
+    }
+
+    public Double getMinPercent() {
+        return minPercent;
+    }
+
+    public Double getMaxPercent() {
+        return maxPercent;
+    }
+
+    public boolean contains(Double percent) {
+        return percent != null
+            && (minPercent == null || percent >= minPercent)
+            && (maxPercent == null || percent < maxPercent);
+    }
+
+    // Upper bound of every attendance band: one query below it finds all candidates
+    public static double bandsUpperBound() {
+        return MEDIUM.maxPercent;
+    }
+}
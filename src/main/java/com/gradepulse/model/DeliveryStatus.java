@@ -0,0 +1,40 @@
+package com.gradepulse.model;
+
+/**
+ * Delivery states reported by Twilio status callbacks, in the order a message moves through them.
+ * Callbacks can arrive out of order, so a status only replaces one with a lower rank.
+ */
+public enum DeliveryStatus {
+    QUEUED(0),       // accepted by the API, not yet handed to WhatsApp
+    SENT(1),
+    DELIVERED(2),
+    UNDELIVERED(2),
+    FAILED(2),
+    READ(3);
+
+    private final int rank;
+
+    DeliveryStatus(int rank) {
+        this.rank = rank;
+    }
+
+    public int getRank() {
+        return rank;
+    }
+
+    // Twilio's lower-case MessageStatus value; accepted/sending count as queued. Null if unknown.
+    public static DeliveryStatus fromCallback(String status) {
+        if (status == null) {
+            return null;
+        }
+        return switch (status.trim().toLowerCase()) {
+            case "accepted", "scheduled", "queued", "sending" -> QUEUED;
+            case "sent" -> SENT;
+            case "delivered" -> DELIVERED;
+            case "undelivered" -> UNDELIVERED;
+            case "failed", "canceled" -> FAILED;
+            case "read" -> READ;
+            default -> null;
+        };
+    }
+}
@@ -0,0 +1,42 @@
+package com.gradepulse.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "inbound_messages")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InboundMessage {
+
+    @Id
+    @Column(name = "message_sid", length = 64)
+    private String messageSid; // Twilio's id; a redelivery carries the same one
+
+    @Column(nullable = false, length = 30)
+    private String sender; // contact without the "whatsapp:" prefix
+
+    @Column(columnDefinition = "TEXT")
+    private String body;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private InboundMessageStatus status = InboundMessageStatus.RECEIVED;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @Column(name = "received_at", nullable = false)
+    private LocalDateTime receivedAt;
+
+    @Column(name = "processed_at")
+    private LocalDateTime processedAt;
+}
@@ -0,0 +1,8 @@
+package com.gradepulse.model;
+
+public enum InboundMessageStatus {
+    RECEIVED,   // recorded by the webhook, waiting for the worker
+    PROCESSED,
+    IGNORED,    // sender is not a known parent contact
+    FAILED      // processing kept failing; see last_error
+}
@@ -0,0 +1,54 @@
+package com.gradepulse.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "message_campaigns")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MessageCampaign {
+
+    @Id
+    @Column(length = 36)
+    private String id;
+
+    @Column(nullable = false, length = 100)
+    private String name;
+
+    @Column(name = "message_type", nullable = false, length = 30)
+    private String messageType;
+
+    @Column(name = "student_count", nullable = false)
+    private int studentCount;
+
+    @Column(name = "message_count", nullable = false)
+    private int messageCount;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "target_segment", length = 20)
+    private CampaignSegment targetSegment;
+
+    @Column(name = "target_min_percent")
+    private Double targetMinPercent;
+
+    @Column(name = "target_max_percent")
+    private Double targetMaxPercent;
+
+    @Column(name = "alert_type", length = 20)
+    private String alertType; // critical, warning, reminder, ...
+
+    @Column(name = "skipped_count")
+    private int skippedCount; // same parent twice for a student, or this alert already queued for them
+
+    @Column(name = "created_by", length = 100)
+    private String createdBy;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt = LocalDateTime.now();
+}
@@ -0,0 +1,57 @@
+package com.gradepulse.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "message_dead_letters")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MessageDeadLetter {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "outbox_id", nullable = false)
+    private Long outboxId;
+
+    @Column(nullable = false, length = 30)
+    private String recipient;
+
+    @Column(name = "message_type", nullable = false, length = 30)
+    private String messageType;
+
+    @Column(name = "student_id")
+    private Long studentId;
+
+    @Column(name = "campaign_id", length = 36)
+    private String campaignId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "failure_kind", nullable = false, length = 20)
+    private SendFailureKind failureKind;
+
+    @Column(name = "error_code", length = 10)
+    private String errorCode;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "dead_at")
+    private LocalDateTime deadAt = LocalDateTime.now();
+
+    @Column(name = "redriven_at")
+    private LocalDateTime redrivenAt; // null while the entry is open
+
+    @Column(name = "redriven_by", length = 100)
+    private String redrivenBy;
+}
@@ -0,0 +1,64 @@
+package com.gradepulse.model;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+
+/**
+ * Languages parents can choose for WhatsApp messages (stored as Student.languagePreference).
+ * Each carries its date and time formatters, built once and shared by every rendered message.
+ */
+public enum MessageLanguage {
+    ENGLISH("en", Locale.ENGLISH, '1'),
+    HINDI("hi", Locale.of("hi", "IN"), '2'),
+    TAMIL("ta", Locale.of("ta", "IN"), '3'),
+    KANNADA("kn", Locale.of("kn", "IN"), '4');
+
+    private final String code;
+    private final char menuChoice; // digit a parent replies with to pick this language
+    private final DateTimeFormatter dateFormat;
+    private final DateTimeFormatter timeFormat;
+
+    MessageLanguage(String code, Locale locale, char menuChoice) {
+        this.code = code;
+        this.menuChoice = menuChoice;
+        this.dateFormat = DateTimeFormatter.ofPattern("dd MMM yyyy", locale);
+        this.timeFormat = DateTimeFormatter.ofPattern("hh:mm a", locale);
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public DateTimeFormatter getTimeFormat() {
+        return timeFormat;
+    }
+
+    public String formatDate(LocalDate date) {
+        return dateFormat.format(date);
+    }
+
+    // Language for a stored preference; unknown or missing preferences get English
+    public static MessageLanguage of(String preference) {
+        if (preference != null) {
+            for (MessageLanguage language : values()) {
+                if (language.name().equalsIgnoreCase(preference.trim())) {
+                    return language;
+                }
+            }
+        }
+        return ENGLISH;
+    }
+
+    // Language picked by a reply to the welcome menu ("1" to "4"), or null
+    public static MessageLanguage fromMenuChoice(String reply) {
+        if (reply != null && reply.length() == 1) {
+            for (MessageLanguage language : values()) {
+                if (language.menuChoice == reply.charAt(0)) {
+                    return language;
+                }
+            }
+        }
+        return null;
+    }
+}
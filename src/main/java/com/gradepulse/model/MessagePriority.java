@@ -0,0 +1,22 @@
+package com.gradepulse.model;
+
+/**
+ * Send order for queued WhatsApp messages, highest first. Stored in message_outbox.priority
+ * as the ordinal, so the dispatcher can order by the column directly.
+ */
+public enum MessagePriority {
+    URGENT,   // absence notices and streak alerts, replies to a parent's message
+    NORMAL,   // manual alerts, informational notices
+    BULK;     // welcome messages and other broadcasts
+
+    public static MessagePriority forType(String messageType) {
+        if (messageType == null) {
+            return NORMAL;
+        }
+        return switch (messageType) {
+            case "ATTENDANCE", "ABSENCE_STREAK", "REPLY" -> URGENT;
+            case "WELCOME" -> BULK;
+            default -> NORMAL;
+        };
+    }
+}
@@ -0,0 +1,105 @@
+package com.gradepulse.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "message_outbox")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboundMessage {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 30)
+    private String recipient;
+
+    @Column(name = "recipient_key", length = 30)
+    private String recipientKey; // normalized recipient, see normalizeContact
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String body;
+
+    @Column(name = "message_type", nullable = false, length = 30)
+    private String messageType; // ATTENDANCE, WELCOME, ALERT, ...
+
+    @Column(name = "student_id")
+    private Long studentId;
+
+    @Column(name = "campaign_id", length = 36)
+    private String campaignId; // set for messages queued as part of a MessageCampaign
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private OutboundMessageStatus status = OutboundMessageStatus.PENDING;
+
+    @Column(nullable = false)
+    private int priority = MessagePriority.NORMAL.ordinal();
+
+    @Column(name = "available_at")
+    private LocalDateTime availableAt; // not sent before this; null means immediately
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "throttled_attempts", nullable = false)
+    private int throttledAttempts; // throttled sends in a row; back off on these, not on attempts
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "failure_kind", length = 20)
+    private SendFailureKind failureKind; // classification of lastError
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "sent_at")
+    private LocalDateTime sentAt;
+
+    @Column(name = "coalesced_into")
+    private Long coalescedInto; // message whose combined send carried this one
+
+    @Column(name = "provider_sid", length = 64)
+    private String providerSid;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "delivery_status", length = 20)
+    private DeliveryStatus deliveryStatus;
+
+    @Column(name = "delivery_error_code", length = 10)
+    private String deliveryErrorCode;
+
+    @Column(name = "delivery_updated_at")
+    private LocalDateTime deliveryUpdatedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+        if (recipientKey == null) {
+            recipientKey = normalizeContact(recipient);
+        }
+    }
+
+    /**
+     * Grouping key for a phone number: digits only, reduced to the last 10 so that
+     * "+91 98450 12345", "098450 12345" and "9845012345" all land on the same parent.
+     */
+    public static String normalizeContact(String contact) {
+        if (contact == null) {
+            return null;
+        }
+        String digits = contact.replaceAll("[^0-9]", "");
+        return digits.length() > 10 ? digits.substring(digits.length() - 10) : digits;
+    }
+}
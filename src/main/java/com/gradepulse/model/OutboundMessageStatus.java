@@ -0,0 +1,7 @@
+package com.gradepulse.model;
+
+public enum OutboundMessageStatus {
+    PENDING,
+    SENT,
+    FAILED
+}
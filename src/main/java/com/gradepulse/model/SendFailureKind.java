@@ -0,0 +1,42 @@
+package com.gradepulse.model;
+
+/**
+ * Why the provider did not accept a message. Transient kinds are retried with backoff;
+ * permanent ones go straight to the dead-letter table, since sending again cannot succeed
+ * until someone fixes the contact or the configuration.
+ *
+ * Throttling says nothing about the message itself, so RATE_LIMITED and QUOTA_EXCEEDED don't
+ * use up one of its attempts: a campaign that hits the provider's limits waits and resumes
+ * instead of running out of retries. The same goes for NOT_CONFIGURED (missing or rejected
+ * credentials): the queue waits for the configuration to be fixed instead of dead-lettering.
+ */
+public enum SendFailureKind {
+    INVALID_RECIPIENT(false), // not a valid / not a WhatsApp number
+    REJECTED(false),          // any other 4xx: bad request, blocked, unauthorized
+    RATE_LIMITED(true, false), // 429 or a provider throughput limit
+    QUOTA_EXCEEDED(true, false), // provider's daily message limit; resumes in the next window
+    NETWORK(true),            // connection failed or timed out
+    PROVIDER_ERROR(true),     // 5xx from the provider
+    NOT_CONFIGURED(true, false), // credentials missing or rejected; fixing .env needs a restart
+    UNKNOWN(true);
+
+    private final boolean transientFailure;
+    private final boolean countsAsAttempt;
+
+    SendFailureKind(boolean transientFailure) {
+        this(transientFailure, true);
+    }
+
+    SendFailureKind(boolean transientFailure, boolean countsAsAttempt) {
+        this.transientFailure = transientFailure;
+        this.countsAsAttempt = countsAsAttempt;
+    }
+
+    public boolean isTransient() {
+        return transientFailure;
+    }
+
+    public boolean countsAsAttempt() {
+        return countsAsAttempt;
+    }
+}
@@ -0,0 +1,108 @@
+package com.gradepulse.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "student_attendance_summary", uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"student_id", "academic_year"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StudentAttendanceSummary {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "student_id", nullable = false)
+    private Student student;
+
+    @Column(name = "academic_year", nullable = false, length = 20)
+    private String academicYear;
+
+    @Column(name = "last_attendance_date")
+    private LocalDate lastAttendanceDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "last_status", length = 20)
+    private AttendanceStatus lastStatus;
+
+    @Column(name = "current_absence_streak", nullable = false)
+    private int currentAbsenceStreak;
+
+    @Column(name = "present_count", nullable = false)
+    private int presentCount;
+
+    @Column(name = "absent_count", nullable = false)
+    private int absentCount;
+
+    @Column(name = "late_count", nullable = false)
+    private int lateCount;
+
+    @Column(name = "half_day_count", nullable = false)
+    private int halfDayCount;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        updatedAt = LocalDateTime.now();
+    }
+
+    /**
+     * Apply one newly written attendance record. Counters always move; last status and
+     * streak only move forward in time, so a back-dated record doesn't reset today's state.
+     */
+    public void applyRecord(AttendanceStatus status, LocalDate date) {
+        adjustCount(status, 1);
+        if (lastAttendanceDate == null || date.isAfter(lastAttendanceDate)) {
+            currentAbsenceStreak = status == AttendanceStatus.ABSENT ? currentAbsenceStreak + 1 : 0;
+            lastAttendanceDate = date;
+            lastStatus = status;
+        }
+    }
+
+    /**
+     * Replace an existing mark. absenceStreak is the streak recomputed as of lastAttendanceDate,
+     * or -1 when it isn't known (the streak is then only fixed up for the last day itself).
+     */
+    public void applyCorrection(AttendanceStatus previous, AttendanceStatus status, LocalDate date, int absenceStreak) {
+        adjustCount(previous, -1);
+        adjustCount(status, 1);
+        if (lastAttendanceDate == null || date.isAfter(lastAttendanceDate)) {
+            lastAttendanceDate = date;
+        }
+        if (date.equals(lastAttendanceDate)) {
+            lastStatus = status;
+        }
+        if (absenceStreak >= 0) {
+            currentAbsenceStreak = absenceStreak;
+        } else if (date.equals(lastAttendanceDate)) {
+            currentAbsenceStreak = status == AttendanceStatus.ABSENT ? Math.max(currentAbsenceStreak, 1) : 0;
+        }
+    }
+
+    public void adjustCount(AttendanceStatus status, int delta) {
+        switch (status) {
+            case PRESENT -> presentCount += delta;
+            case ABSENT -> absentCount += delta;
+            case LATE -> lateCount += delta;
+            case HALF_DAY -> halfDayCount += delta;
+        }
+    }
+
+    // Helper method to get total days recorded
+    public int getTotalCount() {
+        return presentCount + absentCount + lateCount + halfDayCount;
+    }
+}
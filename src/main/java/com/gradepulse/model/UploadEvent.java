@@ -0,0 +1,54 @@
+package com.gradepulse.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "upload_events")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UploadEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "uploaded_by", length = 100)
+    private String uploadedBy;
+
+    @Column(name = "uploaded_at", nullable = false)
+    private LocalDateTime uploadedAt;
+
+    @Column(name = "academic_year", length = 20)
+    private String academicYear;
+
+    @Column(name = "rows_inserted", nullable = false)
+    private int rowsInserted;
+
+    @Column(name = "rows_updated", nullable = false)
+    private int rowsUpdated;
+
+    @Column(name = "rows_failed", nullable = false)
+    private int rowsFailed;
+
+    @Column(name = "duration_ms", nullable = false)
+    private long durationMs;
+
+    @PrePersist
+    protected void onCreate() {
+        if (uploadedAt == null) {
+            uploadedAt = LocalDateTime.now();
+        }
+    }
+
+    // Helper for throughput reporting
+    public double getRowsPerSecond() {
+        int rows = rowsInserted + rowsUpdated;
+        return durationMs > 0 ? rows * 1000.0 / durationMs : rows;
+    }
+}
@@ -0,0 +1,16 @@
+package com.gradepulse.repository;
+
+import com.gradepulse.model.AttendanceArchive;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface AttendanceArchiveRepository extends JpaRepository<AttendanceArchive, Long> {
+
+    Optional<AttendanceArchive> findByStudentIdAndAcademicYear(Long studentId, String academicYear);
+
+    List<AttendanceArchive> findByStudentIdOrderByAcademicYearDesc(Long studentId);
+}
@@ -0,0 +1,9 @@
+package com.gradepulse.repository;
+
+import com.gradepulse.model.AttendanceArchivedYear;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface AttendanceArchivedYearRepository extends JpaRepository<AttendanceArchivedYear, String> {
+}
@@ -0,0 +1,81 @@
+package com.gradepulse.repository;
+
+import com.gradepulse.model.AttendanceRecord;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Writes attendance records for a whole class in a single JDBC batch.
+ * IDENTITY ids stop Hibernate from batching inserts, so the hot path
+ * (every class at 9 AM) goes through JdbcTemplate instead of save() per row.
+ *
+ * Rows are upserted on unique_attendance (student_id, attendance_date), so a
+ * correction or a second teacher submitting the same class overwrites the mark
+ * atomically instead of failing on the constraint.
+ */
+@Repository
+@RequiredArgsConstructor
+public class AttendanceBatchWriter {
+
+    private static final String COLUMNS =
+        "(student_id, attendance_date, status, arrival_time, " +
+        "marked_at, marked_by, class_section_id, academic_year, notes) ";
+
+    private static final String H2_UPSERT_SQL =
+        "MERGE INTO attendance_records " + COLUMNS + "KEY (student_id, attendance_date) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String MYSQL_UPSERT_SQL =
+        "INSERT INTO attendance_records " + COLUMNS + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+        "ON DUPLICATE KEY UPDATE status = VALUES(status), arrival_time = VALUES(arrival_time), " +
+        "marked_at = VALUES(marked_at), marked_by = VALUES(marked_by), " +
+        "class_section_id = VALUES(class_section_id), academic_year = VALUES(academic_year), notes = VALUES(notes)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final UpsertDialect upsertDialect;
+
+    public int[] upsertAll(List<AttendanceRecord> records) {
+        if (records.isEmpty()) {
+            return new int[0];
+        }
+        LocalDateTime now = LocalDateTime.now();
+        return jdbcTemplate.batchUpdate(upsertDialect.choose(H2_UPSERT_SQL, MYSQL_UPSERT_SQL), new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                AttendanceRecord record = records.get(i);
+                if (record.getMarkedAt() == null) {
+                    record.setMarkedAt(now);
+                }
+                ps.setLong(1, record.getStudent().getId());
+                ps.setDate(2, Date.valueOf(record.getAttendanceDate()));
+                ps.setString(3, record.getStatus().name());
+                if (record.getArrivalTime() != null) {
+                    ps.setTime(4, Time.valueOf(record.getArrivalTime()));
+                } else {
+                    ps.setNull(4, Types.TIME);
+                }
+                ps.setTimestamp(5, Timestamp.valueOf(record.getMarkedAt()));
+                ps.setString(6, record.getMarkedBy());
+                ps.setLong(7, record.getClassSection().getId());
+                ps.setString(8, record.getAcademicYear());
+                ps.setString(9, record.getNotes());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return records.size();
+            }
+        });
+    }
+}
@@ -0,0 +1,23 @@
+package com.gradepulse.repository;
+
+import com.gradepulse.model.AttendanceBitmap;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface AttendanceBitmapRepository extends JpaRepository<AttendanceBitmap, Long> {
+
+    List<AttendanceBitmap> findByStudentIdInAndAcademicYear(Collection<Long> studentIds, String academicYear);
+
+    List<AttendanceBitmap> findByAcademicYear(String academicYear);
+
+    // Rebuilds only cover years still in attendance_records; archived years keep their rows
+    @Modifying
+    @Query(value = "DELETE FROM attendance_bitmaps WHERE academic_year NOT IN (SELECT academic_year FROM attendance_archived_years)", nativeQuery = true)
+    int deleteUnarchivedRows();
+}
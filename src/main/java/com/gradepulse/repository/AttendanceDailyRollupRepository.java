@@ -0,0 +1,47 @@
+package com.gradepulse.repository;
+
+import com.gradepulse.model.AttendanceDailyRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface AttendanceDailyRollupRepository extends JpaRepository<AttendanceDailyRollup, Long> {
+
+    // School-wide daily totals: [date, present, absent, late, halfDay]
+    @Query("SELECT r.rollupDate, SUM(r.presentCount), SUM(r.absentCount), SUM(r.lateCount), SUM(r.halfDayCount) " +
+           "FROM AttendanceDailyRollup r WHERE r.rollupDate BETWEEN ?1 AND ?2 " +
+           "GROUP BY r.rollupDate ORDER BY r.rollupDate")
+    List<Object[]> sumByDateBetween(LocalDate startDate, LocalDate endDate);
+
+    // Status board: every active section with its rollup for the date (null counts = not marked).
+    // [id, academicYear, board, stream, className, sectionName, present, absent, late, halfDay, markedBy, markedAt]
+    @Query("SELECT cs.id, cs.academicYear, cs.board, cs.stream, cs.className, cs.sectionName, " +
+           "r.presentCount, r.absentCount, r.lateCount, r.halfDayCount, r.markedBy, r.markedAt " +
+           "FROM ClassSection cs LEFT JOIN AttendanceDailyRollup r ON r.classSection = cs AND r.rollupDate = ?1 " +
+           "WHERE cs.isActive = true AND (?2 IS NULL OR cs.academicYear = ?2) " +
+           "ORDER BY cs.board, cs.stream, cs.className, cs.sectionName")
+    List<Object[]> findStatusBoard(LocalDate date, String academicYear);
+
+    // Rebuilds only cover years still in attendance_records; archived years keep their rows
+    @Modifying
+    @Query(value = "DELETE FROM attendance_daily_rollup WHERE academic_year NOT IN (SELECT academic_year FROM attendance_archived_years)", nativeQuery = true)
+    int deleteUnarchivedRows();
+
+    @Modifying
+    @Query(value = "INSERT INTO attendance_daily_rollup (class_section_id, rollup_date, academic_year, " +
+                   "present_count, absent_count, late_count, half_day_count, marked_by, marked_at) " +
+                   "SELECT class_section_id, attendance_date, MAX(academic_year), " +
+                   "SUM(CASE WHEN status = 'PRESENT' THEN 1 ELSE 0 END), " +
+                   "SUM(CASE WHEN status = 'ABSENT' THEN 1 ELSE 0 END), " +
+                   "SUM(CASE WHEN status = 'LATE' THEN 1 ELSE 0 END), " +
+                   "SUM(CASE WHEN status = 'HALF_DAY' THEN 1 ELSE 0 END), " +
+                   "MAX(marked_by), MAX(marked_at) " +
+                   "FROM attendance_records GROUP BY class_section_id, attendance_date",
+           nativeQuery = true)
+    int backfillFromRecords();
+}
@@ -0,0 +1,32 @@
+package com.gradepulse.repository;
+
+import com.gradepulse.model.AttendanceDigestEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface AttendanceDigestEventRepository extends JpaRepository<AttendanceDigestEvent, Long> {
+
+    // Next page of parents with due events, keyset-paged on the recipient key
+    @Query("SELECT DISTINCT e.recipientKey FROM AttendanceDigestEvent e WHERE e.digestedAt IS NULL " +
+           "AND e.dueAt <= :now AND e.recipientKey > :after ORDER BY e.recipientKey")
+    List<String> findDueRecipientKeys(@Param("now") LocalDateTime now, @Param("after") String after, Pageable pageable);
+
+    // All due events of those parents, by parent and date, in marking order
+    @Query("SELECT e FROM AttendanceDigestEvent e WHERE e.digestedAt IS NULL AND e.dueAt <= :now " +
+           "AND e.recipientKey IN :keys ORDER BY e.recipientKey, e.attendanceDate, e.id")
+    List<AttendanceDigestEvent> findDueForRecipients(@Param("keys") Collection<String> keys,
+                                                     @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE AttendanceDigestEvent e SET e.digestedAt = :at WHERE e.id IN :ids")
+    int markDigested(@Param("ids") Collection<Long> ids, @Param("at") LocalDateTime at);
+}
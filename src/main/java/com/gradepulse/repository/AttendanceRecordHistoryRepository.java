@@ -0,0 +1,13 @@
+package com.gradepulse.repository;
+
+import com.gradepulse.model.AttendanceRecordHistory;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface AttendanceRecordHistoryRepository extends JpaRepository<AttendanceRecordHistory, Long> {
+
+    List<AttendanceRecordHistory> findByStudentIdOrderByChangedAtDesc(Long studentId);
+}
@@ -9,6 +9,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -34,6 +35,18 @@ public interface AttendanceRecordRepository extends JpaRepository<AttendanceReco
 
     boolean existsByStudentAndAttendanceDate(Student student, LocalDate date);
 
+    // Existing marks for the students being submitted: [student_id, status, class_section_id, marked_by].
+    // Locks the rows so concurrent corrections of the same class record the right previous status
+    @Query(value = "SELECT student_id, status, class_section_id, marked_by FROM attendance_records " +
+                   "WHERE student_id IN (?1) AND attendance_date = ?2 FOR UPDATE",
+           nativeQuery = true)
+    List<Object[]> findMarksForUpdate(Collection<Long> studentIds, LocalDate date);
+
+    // Calendar projection: [studentId, date, status] without loading entities
+    @Query("SELECT ar.student.id, ar.attendanceDate, ar.status FROM AttendanceRecord ar " +
+           "WHERE ar.classSection.id = ?1 AND ar.attendanceDate BETWEEN ?2 AND ?3")
+    List<Object[]> findStatusMatrix(Long classSectionId, LocalDate startDate, LocalDate endDate);
+
     boolean existsByClassSectionAndAttendanceDate(ClassSection classSection, LocalDate date);
 
     @Query("SELECT ar FROM AttendanceRecord ar WHERE ar.student = ?1 AND ar.status = 'ABSENT' AND ar.attendanceDate >= ?2 ORDER BY ar.attendanceDate DESC")
@@ -0,0 +1,56 @@
+package com.gradepulse.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Adds status count deltas to a class section's daily rollup row in a single upsert on
+ * unique_daily_rollup (class_section_id, rollup_date), creating the row on the first
+ * submission of the day. A separate UPDATE-then-INSERT lets two concurrent first
+ * submissions both insert, failing one of them on the constraint.
+ *
+ * A null markedBy / markedAt leaves the row's values alone (a reversal made from another
+ * section's submission doesn't change who marked this one).
+ */
+@Repository
+@RequiredArgsConstructor
+public class AttendanceRollupWriter {
+
+    private static final String H2_UPSERT_SQL =
+        "MERGE INTO attendance_daily_rollup r " +
+        "USING (VALUES (CAST(? AS BIGINT), CAST(? AS DATE), CAST(? AS VARCHAR(20)), CAST(? AS INT), CAST(? AS INT), " +
+        "CAST(? AS INT), CAST(? AS INT), CAST(? AS VARCHAR(100)), CAST(? AS TIMESTAMP))) " +
+        "s (class_section_id, rollup_date, academic_year, present, absent, late, half_day, marked_by, marked_at) " +
+        "ON r.class_section_id = s.class_section_id AND r.rollup_date = s.rollup_date " +
+        "WHEN MATCHED THEN UPDATE SET present_count = r.present_count + s.present, " +
+        "absent_count = r.absent_count + s.absent, late_count = r.late_count + s.late, " +
+        "half_day_count = r.half_day_count + s.half_day, " +
+        "marked_by = COALESCE(s.marked_by, r.marked_by), marked_at = COALESCE(s.marked_at, r.marked_at) " +
+        "WHEN NOT MATCHED THEN INSERT (class_section_id, rollup_date, academic_year, present_count, absent_count, " +
+        "late_count, half_day_count, marked_by, marked_at) " +
+        "VALUES (s.class_section_id, s.rollup_date, s.academic_year, s.present, s.absent, s.late, s.half_day, " +
+        "s.marked_by, s.marked_at)";
+
+    private static final String MYSQL_UPSERT_SQL =
+        "INSERT INTO attendance_daily_rollup (class_section_id, rollup_date, academic_year, present_count, " +
+        "absent_count, late_count, half_day_count, marked_by, marked_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+        "ON DUPLICATE KEY UPDATE present_count = present_count + VALUES(present_count), " +
+        "absent_count = absent_count + VALUES(absent_count), late_count = late_count + VALUES(late_count), " +
+        "half_day_count = half_day_count + VALUES(half_day_count), " +
+        "marked_by = COALESCE(VALUES(marked_by), marked_by), marked_at = COALESCE(VALUES(marked_at), marked_at)";
+
+    private final UpsertDialect upsertDialect;
+
+    public void applyCounts(Long classSectionId, LocalDate rollupDate, String academicYear,
+                            int present, int absent, int late, int halfDay,
+                            String markedBy, LocalDateTime markedAt) {
+        Object[] args = { classSectionId, Date.valueOf(rollupDate), academicYear, present, absent, late, halfDay,
+                          markedBy, markedAt != null ? Timestamp.valueOf(markedAt) : null };
+        upsertDialect.update(H2_UPSERT_SQL, MYSQL_UPSERT_SQL, args);
+    }
+}
@@ -0,0 +1,27 @@
+package com.gradepulse.repository;
+
+import com.gradepulse.model.AttendanceSyncKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface AttendanceSyncKeyRepository extends JpaRepository<AttendanceSyncKey, String> {
+
+    List<AttendanceSyncKey> findByIdempotencyKeyIn(Collection<String> keys);
+
+    // Outcome of the submission, stored for replays
+    @Modifying
+    @Query("UPDATE AttendanceSyncKey k SET k.successCount = ?2, k.failedCount = ?3, k.whatsappQueued = ?4 " +
+           "WHERE k.idempotencyKey = ?1")
+    int recordOutcome(String idempotencyKey, int successCount, int failedCount, int whatsappQueued);
+
+    @Modifying
+    @Query("DELETE FROM AttendanceSyncKey k WHERE k.createdAt < ?1")
+    int deleteCreatedBefore(LocalDateTime cutoff);
+}
@@ -0,0 +1,33 @@
+package com.gradepulse.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Claims an attendance sync idempotency key with a plain INSERT. Saving the entity through
+ * Spring Data would merge it (the id is assigned), turning a key committed concurrently by
+ * another request into an UPDATE; the INSERT fails on the primary key instead, so exactly one
+ * request applies the submission.
+ */
+@Repository
+@RequiredArgsConstructor
+public class AttendanceSyncKeyWriter {
+
+    private static final String INSERT_SQL =
+        "INSERT INTO attendance_sync_keys (idempotency_key, class_section_id, attendance_date, " +
+        "success_count, failed_count, whatsapp_queued, marked_by, created_at) VALUES (?, ?, ?, 0, 0, 0, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Throws DuplicateKeyException when the key is already claimed
+    public void claim(String idempotencyKey, Long classSectionId, LocalDate attendanceDate, String markedBy) {
+        jdbcTemplate.update(INSERT_SQL, idempotencyKey, classSectionId, Date.valueOf(attendanceDate), markedBy,
+                            Timestamp.valueOf(LocalDateTime.now()));
+    }
+}
@@ -0,0 +1,60 @@
+package com.gradepulse.repository;
+
+import com.gradepulse.model.DeliveryStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Writes a batch of delivery status callbacks in one transaction: every event is appended to
+ * message_status_events, and each SID's outbox rows move to the batch's furthest status for it.
+ * The rank check in the UPDATE keeps a late "sent" from overwriting "delivered".
+ */
+@Repository
+@RequiredArgsConstructor
+public class DeliveryStatusWriter {
+
+    private static final String INSERT_EVENT_SQL =
+        "INSERT INTO message_status_events (provider_sid, status, error_code, received_at) VALUES (?, ?, ?, ?)";
+
+    private static final String UPDATE_OUTBOX_SQL =
+        "UPDATE message_outbox SET delivery_status = ?, " +
+        "delivery_error_code = COALESCE(?, delivery_error_code), delivery_updated_at = ? " +
+        "WHERE provider_sid = ? AND " + rankExpression() + " < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public record StatusEvent(String providerSid, DeliveryStatus status, String errorCode, LocalDateTime receivedAt) {}
+
+    @Transactional
+    public void write(List<StatusEvent> events, Collection<StatusEvent> furthestPerSid) {
+        jdbcTemplate.batchUpdate(INSERT_EVENT_SQL, events, events.size(), (ps, event) -> {
+            ps.setString(1, event.providerSid());
+            ps.setString(2, event.status().name());
+            ps.setString(3, event.errorCode());
+            ps.setTimestamp(4, Timestamp.valueOf(event.receivedAt()));
+        });
+        jdbcTemplate.batchUpdate(UPDATE_OUTBOX_SQL, furthestPerSid, furthestPerSid.size(), (ps, event) -> {
+            ps.setString(1, event.status().name());
+            ps.setString(2, event.errorCode());
+            ps.setTimestamp(3, Timestamp.valueOf(event.receivedAt()));
+            ps.setString(4, event.providerSid());
+            ps.setInt(5, event.status().getRank());
+        });
+    }
+
+    // delivery_status as its DeliveryStatus rank; -1 before any status is known
+    private static String rankExpression() {
+        StringBuilder sql = new StringBuilder("(CASE delivery_status");
+        for (DeliveryStatus status : DeliveryStatus.values()) {
+            sql.append(" WHEN '").append(status.name()).append("' THEN ").append(status.getRank());
+        }
+        return sql.append(" ELSE -1 END)").toString();
+    }
+}
@@ -0,0 +1,31 @@
+package com.gradepulse.repository;
+
+import com.gradepulse.model.InboundMessage;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface InboundMessageRepository extends JpaRepository<InboundMessage, String> {
+
+    // Take a RECEIVED message for processing; 0 if another worker already has it
+    @Modifying
+    @Query("UPDATE InboundMessage m SET m.status = com.gradepulse.model.InboundMessageStatus.PROCESSED, " +
+           "m.processedAt = ?2 WHERE m.messageSid = ?1 AND m.status = com.gradepulse.model.InboundMessageStatus.RECEIVED")
+    int claim(String messageSid, LocalDateTime processedAt);
+
+    // Messages still waiting since before the cutoff: a lost hand-off or a failed attempt
+    @Query("SELECT m.messageSid FROM InboundMessage m WHERE m.status = com.gradepulse.model.InboundMessageStatus.RECEIVED " +
+           "AND m.receivedAt < ?1 ORDER BY m.receivedAt")
+    List<String> findWaitingSince(LocalDateTime cutoff, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM InboundMessage m WHERE m.receivedAt < ?1 " +
+           "AND m.status <> com.gradepulse.model.InboundMessageStatus.RECEIVED")
+    int deleteHandledBefore(LocalDateTime cutoff);
+}
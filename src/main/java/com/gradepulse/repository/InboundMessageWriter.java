@@ -0,0 +1,35 @@
+package com.gradepulse.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * Records an inbound message unless its MessageSid is already known, in one statement and
+ * without going through the persistence context, so the webhook can answer in a few ms.
+ */
+@Repository
+@RequiredArgsConstructor
+public class InboundMessageWriter {
+
+    private static final String INSERT_SQL =
+        "INSERT INTO inbound_messages (message_sid, sender, body, status, attempts, received_at) " +
+        "SELECT ?, ?, ?, 'RECEIVED', 0, ? WHERE NOT EXISTS " +
+        "(SELECT 1 FROM inbound_messages WHERE message_sid = ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // false for a message that was already recorded (a redelivery)
+    public boolean insertIfAbsent(String messageSid, String sender, String body, LocalDateTime receivedAt) {
+        try {
+            return jdbcTemplate.update(INSERT_SQL, messageSid, sender, body, Timestamp.valueOf(receivedAt), messageSid) == 1;
+        } catch (DuplicateKeyException e) {
+            // Two deliveries of the same message at the same moment; the other one won
+            return false;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.gradepulse.repository;
+
+import com.gradepulse.model.MessageCampaign;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface MessageCampaignRepository extends JpaRepository<MessageCampaign, String> {
+
+    List<MessageCampaign> findTop5ByOrderByCreatedAtDesc();
+}
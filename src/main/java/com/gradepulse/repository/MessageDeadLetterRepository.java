@@ -0,0 +1,27 @@
+package com.gradepulse.repository;
+
+import com.gradepulse.model.MessageDeadLetter;
+import com.gradepulse.model.SendFailureKind;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface MessageDeadLetterRepository extends JpaRepository<MessageDeadLetter, Long> {
+
+    @Query("SELECT d FROM MessageDeadLetter d WHERE d.redrivenAt IS NULL ORDER BY d.deadAt DESC, d.id DESC")
+    List<MessageDeadLetter> findOpen(Pageable pageable);
+
+    // Open entries of one kind, or of every kind when kind is null
+    @Query("SELECT d FROM MessageDeadLetter d WHERE d.redrivenAt IS NULL " +
+           "AND (:kind IS NULL OR d.failureKind = :kind) ORDER BY d.id")
+    List<MessageDeadLetter> findOpenByKind(@Param("kind") SendFailureKind kind, Pageable pageable);
+
+    // [failureKind, count] for open entries
+    @Query("SELECT d.failureKind, COUNT(d) FROM MessageDeadLetter d WHERE d.redrivenAt IS NULL GROUP BY d.failureKind")
+    List<Object[]> countOpenByKind();
+}
@@ -0,0 +1,87 @@
+package com.gradepulse.repository;
+
+import com.gradepulse.dto.CampaignRecipient;
+import com.gradepulse.model.OutboundMessage;
+import com.gradepulse.model.OutboundMessageStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+@Repository
+public interface OutboundMessageRepository extends JpaRepository<OutboundMessage, Long> {
+
+    // Next PENDING messages that are due, highest priority first, oldest first within a priority
+    @Query("SELECT m FROM OutboundMessage m WHERE m.status = com.gradepulse.model.OutboundMessageStatus.PENDING " +
+           "AND (m.availableAt IS NULL OR m.availableAt <= ?1) ORDER BY m.priority, m.id")
+    List<OutboundMessage> findDue(LocalDateTime now, Pageable pageable);
+
+    // When the next PENDING message that is held back (coalescing window, retry backoff) becomes due
+    @Query("SELECT MIN(m.availableAt) FROM OutboundMessage m WHERE m.status = com.gradepulse.model.OutboundMessageStatus.PENDING " +
+           "AND m.availableAt > ?1")
+    LocalDateTime findNextAvailableAt(LocalDateTime now);
+
+    // Everything still PENDING for one parent that is due by the given time, in send order
+    @Query("SELECT m FROM OutboundMessage m WHERE m.status = com.gradepulse.model.OutboundMessageStatus.PENDING " +
+           "AND m.recipientKey = ?1 AND (m.availableAt IS NULL OR m.availableAt <= ?2) ORDER BY m.priority, m.id")
+    List<OutboundMessage> findPendingForRecipient(String recipientKey, LocalDateTime dueBy);
+
+    // Carry every PENDING message that would be due before the given time over to it
+    @Modifying
+    @Transactional
+    @Query("UPDATE OutboundMessage m SET m.availableAt = ?1 WHERE m.status = com.gradepulse.model.OutboundMessageStatus.PENDING " +
+           "AND (m.availableAt IS NULL OR m.availableAt < ?1)")
+    int deferPendingUntil(LocalDateTime until);
+
+    long countByStatus(OutboundMessageStatus status);
+
+    // The given provider SIDs that are already stored on an outbox row
+    @Query("SELECT DISTINCT m.providerSid FROM OutboundMessage m WHERE m.providerSid IN ?1")
+    Set<String> findKnownProviderSids(Collection<String> providerSids);
+
+    // [delivery status, rows, provider messages] for messages sent in [from, to)
+    @Query("SELECT m.deliveryStatus, COUNT(m), COUNT(DISTINCT m.providerSid) FROM OutboundMessage m " +
+           "WHERE m.status = com.gradepulse.model.OutboundMessageStatus.SENT AND m.sentAt >= ?1 AND m.sentAt < ?2 " +
+           "GROUP BY m.deliveryStatus")
+    List<Object[]> countDeliveryStatusSentBetween(LocalDateTime from, LocalDateTime to);
+
+    // [delivery status, rows, provider messages] for one campaign's sent messages
+    @Query("SELECT m.deliveryStatus, COUNT(m), COUNT(DISTINCT m.providerSid) FROM OutboundMessage m " +
+           "WHERE m.status = com.gradepulse.model.OutboundMessageStatus.SENT AND m.campaignId = ?1 " +
+           "GROUP BY m.deliveryStatus")
+    List<Object[]> countDeliveryStatusForCampaign(String campaignId);
+
+    // [status, count] for one campaign's messages
+    @Query("SELECT m.status, COUNT(m) FROM OutboundMessage m WHERE m.campaignId = ?1 GROUP BY m.status")
+    List<Object[]> countByStatusForCampaign(String campaignId);
+
+    // Provider sends since the given time: messages coalesced into another one went out as part of it
+    @Query("SELECT COUNT(m) FROM OutboundMessage m WHERE m.status = com.gradepulse.model.OutboundMessageStatus.SENT " +
+           "AND m.sentAt >= ?1 AND m.coalescedInto IS NULL")
+    long countSendsSince(LocalDateTime since);
+
+    // [studentId, recipientKey] of messages of this type still waiting to be sent for these students
+    @Query("SELECT m.studentId, m.recipientKey FROM OutboundMessage m " +
+           "WHERE m.status = com.gradepulse.model.OutboundMessageStatus.PENDING " +
+           "AND m.messageType = ?1 AND m.studentId IN ?2")
+    List<Object[]> findPendingRecipients(String messageType, Collection<Long> studentIds);
+
+    // When a campaign's next waiting message may go out (quota carry-over, retry backoff)
+    @Query("SELECT MIN(m.availableAt) FROM OutboundMessage m WHERE m.campaignId = ?1 " +
+           "AND m.status = com.gradepulse.model.OutboundMessageStatus.PENDING")
+    LocalDateTime findNextAvailableAtForCampaign(String campaignId);
+
+    // Per-recipient state of one campaign, in queue order, keyset-paged on the message id
+    @Query("SELECT new com.gradepulse.dto.CampaignRecipient(m.id, m.studentId, s.fullName, m.recipient, m.status, " +
+           "m.attempts, m.availableAt, m.sentAt, m.deliveryStatus, m.failureKind, m.lastError) " +
+           "FROM OutboundMessage m LEFT JOIN Student s ON s.id = m.studentId " +
+           "WHERE m.campaignId = ?1 AND m.id > ?2 ORDER BY m.id")
+    List<CampaignRecipient> findRecipientsForCampaign(String campaignId, Long afterId, Pageable pageable);
+}
@@ -0,0 +1,60 @@
+package com.gradepulse.repository;
+
+import com.gradepulse.model.Student;
+import com.gradepulse.model.StudentAttendanceSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface StudentAttendanceSummaryRepository extends JpaRepository<StudentAttendanceSummary, Long> {
+
+    @Query("SELECT s FROM StudentAttendanceSummary s WHERE s.student.id IN ?1 AND s.academicYear = ?2")
+    List<StudentAttendanceSummary> findByStudentIdsAndAcademicYear(Collection<Long> studentIds, String academicYear);
+
+    // Most recent academic year per student (for pages that aren't tied to a class section)
+    @Query("SELECT s FROM StudentAttendanceSummary s WHERE s.student.id IN ?1 AND s.academicYear = " +
+           "(SELECT MAX(s2.academicYear) FROM StudentAttendanceSummary s2 WHERE s2.student = s.student)")
+    List<StudentAttendanceSummary> findLatestByStudentIds(Collection<Long> studentIds);
+
+    Optional<StudentAttendanceSummary> findFirstByStudentOrderByAcademicYearDesc(Student student);
+
+    // Rebuild job (same statements as the V19 backfill)
+
+    // Rebuilds only cover years still in attendance_records; archived years keep their rows
+    @Modifying
+    @Query(value = "DELETE FROM student_attendance_summary WHERE academic_year NOT IN (SELECT academic_year FROM attendance_archived_years)", nativeQuery = true)
+    int deleteUnarchivedRows();
+
+    @Modifying
+    @Query(value = "INSERT INTO student_attendance_summary (student_id, academic_year, last_attendance_date, " +
+                   "present_count, absent_count, late_count, half_day_count, current_absence_streak, updated_at) " +
+                   "SELECT student_id, academic_year, MAX(attendance_date), " +
+                   "SUM(CASE WHEN status = 'PRESENT' THEN 1 ELSE 0 END), " +
+                   "SUM(CASE WHEN status = 'ABSENT' THEN 1 ELSE 0 END), " +
+                   "SUM(CASE WHEN status = 'LATE' THEN 1 ELSE 0 END), " +
+                   "SUM(CASE WHEN status = 'HALF_DAY' THEN 1 ELSE 0 END), " +
+                   "0, CURRENT_TIMESTAMP " +
+                   "FROM attendance_records GROUP BY student_id, academic_year",
+           nativeQuery = true)
+    int insertCountsFromRecords();
+
+    @Modifying
+    @Query(value = "UPDATE student_attendance_summary s SET " +
+                   "last_status = (SELECT ar.status FROM attendance_records ar " +
+                   "  WHERE ar.student_id = s.student_id AND ar.attendance_date = s.last_attendance_date), " +
+                   "current_absence_streak = (SELECT COUNT(*) FROM attendance_records ar " +
+                   "  WHERE ar.student_id = s.student_id AND ar.academic_year = s.academic_year " +
+                   "  AND ar.status = 'ABSENT' AND ar.attendance_date > COALESCE(" +
+                   "    (SELECT MAX(nb.attendance_date) FROM attendance_records nb " +
+                   "     WHERE nb.student_id = s.student_id AND nb.academic_year = s.academic_year " +
+                   "     AND nb.status <> 'ABSENT'), DATE '1900-01-01')) " +
+                   "WHERE s.academic_year NOT IN (SELECT academic_year FROM attendance_archived_years)",
+           nativeQuery = true)
+    int updateLastStatusAndStreaks();
+}
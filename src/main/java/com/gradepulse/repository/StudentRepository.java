@@ -3,10 +3,13 @@ package com.gradepulse.repository;
 import com.gradepulse.model.ClassSection;
 import com.gradepulse.model.Student;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface StudentRepository extends JpaRepository<Student, Long> {
@@ -18,8 +21,8 @@ public interface StudentRepository extends JpaRepository<Student, Long> {
         String guardianContact
     );
 
-    // Optional: Find by contact (for future WhatsApp)
-    Student findByFatherContactOrMotherContactOrGuardianContact(
+    // Every child of a parent contact (WhatsApp replies); a parent may have several at the school
+    List<Student> findByFatherContactOrMotherContactOrGuardianContactOrderById(
         String fatherContact, 
         String motherContact, 
         String guardianContact
@@ -39,6 +42,17 @@ public interface StudentRepository extends JpaRepository<Student, Long> {
     
     // NEW: Find specific students in a class section (for batch operations)
     List<Student> findByClassSectionAndIdIn(ClassSection classSection, List<Long> ids);
+
+    @Query("SELECT s.languagePreference FROM Student s WHERE s.id = ?1")
+    Optional<String> findLanguagePreference(Long id);
+
+    // Roster projections for the attendance calendar: [id, studentId (shown as the roll number), fullName].
+    // Unordered; AttendanceCalendarService sorts the rows by name
+    @Query("SELECT s.id, s.studentId, s.fullName FROM Student s WHERE s.classSection.id = ?1")
+    List<Object[]> findRosterByClassSectionId(Long classSectionId);
+
+    @Query("SELECT s.id, s.studentId, s.fullName FROM Student s WHERE s.id IN ?1")
+    List<Object[]> findRosterByIdIn(Collection<Long> ids);
     
     // Analytics queries
     long countByGender(String gender);
@@ -62,4 +76,40 @@ public interface StudentRepository extends JpaRepository<Student, Long> {
     
     @Query("SELECT s FROM Student s WHERE s.attendancePercent >= :minPercent AND s.attendancePercent < :maxPercent")
     List<Student> findByAttendancePercentBetween(Double minPercent, Double maxPercent);
-}
\ No newline at end of file
+
+    // Locks the students about to be marked, in id order, so submissions touching the same students
+    // (two teachers submitting one class, or a student moved between sections) run one after the other.
+    // Locking the marks alone is not enough: on the first submission of the day there are none yet
+    @Query(value = "SELECT id FROM students WHERE id IN (?1) ORDER BY id FOR UPDATE", nativeQuery = true)
+    List<Long> lockForMarking(Collection<Long> studentIds);
+
+    // Every student in an attendance alert band (CampaignSegment), lowest attendance first
+    @Query("SELECT s FROM Student s WHERE s.attendancePercent < :below ORDER BY s.attendancePercent, s.id")
+    List<Student> findAlertCandidates(Double below);
+
+    // attendance_percent from the latest per-student attendance summary, over the days the
+    // student's section was marked (see AttendancePercentService)
+    String PERCENT_FROM_SUMMARY = "UPDATE students s SET attendance_percent = (" +
+        "SELECT ROUND((sm.present_count + sm.late_count + sm.half_day_count * 0.5) * 100.0 " +
+        "  / NULLIF(GREATEST(sm.present_count + sm.absent_count + sm.late_count + sm.half_day_count, " +
+        "    (SELECT COUNT(*) FROM attendance_daily_rollup r WHERE r.class_section_id = s.class_section_id " +
+        "     AND r.academic_year = sm.academic_year " +
+        "     AND r.present_count + r.absent_count + r.late_count + r.half_day_count > 0)), 0), 1) " +
+        "FROM student_attendance_summary sm WHERE sm.student_id = s.id " +
+        "AND sm.academic_year = (SELECT MAX(sm2.academic_year) FROM student_attendance_summary sm2 " +
+        "  WHERE sm2.student_id = s.id)) " +
+        "WHERE EXISTS (SELECT 1 FROM student_attendance_summary sm3 WHERE sm3.student_id = s.id)";
+
+    @Modifying
+    @Query(value = PERCENT_FROM_SUMMARY, nativeQuery = true)
+    int updateAttendancePercentFromSummaries();
+
+    // Same, for the students of some sections only (uses idx_students_class_section)
+    @Modifying
+    @Query(value = PERCENT_FROM_SUMMARY + " AND s.class_section_id IN (?1)", nativeQuery = true)
+    int updateAttendancePercentForSections(Collection<Long> classSectionIds);
+
+    @Modifying
+    @Query(value = PERCENT_FROM_SUMMARY + " AND s.id IN (?1)", nativeQuery = true)
+    int updateAttendancePercentForStudents(Collection<Long> studentIds);
+}
@@ -0,0 +1,15 @@
+package com.gradepulse.repository;
+
+import com.gradepulse.model.UploadDailyCount;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+
+@Repository
+public interface UploadDailyCountRepository extends JpaRepository<UploadDailyCount, LocalDate> {
+
+    @Query("SELECT COALESCE(SUM(b.uploadCount), 0) FROM UploadDailyCount b WHERE b.bucketDate >= ?1")
+    Long sumUploadsSince(LocalDate fromDate);
+}
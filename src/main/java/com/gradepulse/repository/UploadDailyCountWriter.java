@@ -0,0 +1,41 @@
+package com.gradepulse.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.time.LocalDate;
+
+/**
+ * Adds one upload to its day's bucket in a single upsert, creating the bucket on the
+ * first upload of the day. A separate UPDATE-then-INSERT lets two concurrent first
+ * uploads both insert, and one of them would lose its count on the primary key.
+ */
+@Repository
+@RequiredArgsConstructor
+public class UploadDailyCountWriter {
+
+    private static final String H2_UPSERT_SQL =
+        "MERGE INTO upload_daily_counts b " +
+        "USING (VALUES (CAST(? AS DATE), CAST(? AS BIGINT), CAST(? AS BIGINT), CAST(? AS BIGINT), CAST(? AS BIGINT))) " +
+        "s (bucket_date, rows_inserted, rows_updated, rows_failed, duration_ms) ON b.bucket_date = s.bucket_date " +
+        "WHEN MATCHED THEN UPDATE SET upload_count = b.upload_count + 1, " +
+        "rows_inserted = b.rows_inserted + s.rows_inserted, rows_updated = b.rows_updated + s.rows_updated, " +
+        "rows_failed = b.rows_failed + s.rows_failed, total_duration_ms = b.total_duration_ms + s.duration_ms " +
+        "WHEN NOT MATCHED THEN INSERT (bucket_date, upload_count, rows_inserted, rows_updated, rows_failed, total_duration_ms) " +
+        "VALUES (s.bucket_date, 1, s.rows_inserted, s.rows_updated, s.rows_failed, s.duration_ms)";
+
+    private static final String MYSQL_UPSERT_SQL =
+        "INSERT INTO upload_daily_counts (bucket_date, upload_count, rows_inserted, rows_updated, rows_failed, total_duration_ms) " +
+        "VALUES (?, 1, ?, ?, ?, ?) " +
+        "ON DUPLICATE KEY UPDATE upload_count = upload_count + 1, " +
+        "rows_inserted = rows_inserted + VALUES(rows_inserted), rows_updated = rows_updated + VALUES(rows_updated), " +
+        "rows_failed = rows_failed + VALUES(rows_failed), total_duration_ms = total_duration_ms + VALUES(total_duration_ms)";
+
+    private final UpsertDialect upsertDialect;
+
+    public void increment(LocalDate bucketDate, long rowsInserted, long rowsUpdated, long rowsFailed, long durationMs) {
+        Object[] args = { Date.valueOf(bucketDate), rowsInserted, rowsUpdated, rowsFailed, durationMs };
+        upsertDialect.update(H2_UPSERT_SQL, MYSQL_UPSERT_SQL, args);
+    }
+}
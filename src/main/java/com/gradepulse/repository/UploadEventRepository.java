@@ -0,0 +1,13 @@
+package com.gradepulse.repository;
+
+import com.gradepulse.model.UploadEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface UploadEventRepository extends JpaRepository<UploadEvent, Long> {
+
+    List<UploadEvent> findTop20ByOrderByUploadedAtDesc();
+}
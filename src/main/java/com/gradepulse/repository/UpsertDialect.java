@@ -0,0 +1,51 @@
+package com.gradepulse.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+
+/**
+ * Upserts for the JdbcTemplate writers: H2 (dev, tests) takes MERGE, MySQL / MariaDB take
+ * INSERT ... ON DUPLICATE KEY UPDATE. Each writer keeps both statements next to each other;
+ * this picks one for the database in use, detected once from the connection metadata.
+ */
+@Component
+@RequiredArgsConstructor
+public class UpsertDialect {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private volatile Boolean mysql;
+
+    public String choose(String h2Sql, String mysqlSql) {
+        return isMysql() ? mysqlSql : h2Sql;
+    }
+
+    /**
+     * Run a single-row upsert that adds to a counter row. H2's MERGE doesn't lock a missing key,
+     * so a concurrent first writer can still win the insert and this one fails on the key; the
+     * row exists by then, and the one retry takes the update branch.
+     */
+    public int update(String h2Sql, String mysqlSql, Object... args) {
+        String sql = choose(h2Sql, mysqlSql);
+        try {
+            return jdbcTemplate.update(sql, args);
+        } catch (DataIntegrityViolationException e) {
+            return jdbcTemplate.update(sql, args);
+        }
+    }
+
+    private boolean isMysql() {
+        if (mysql == null) {
+            String product = jdbcTemplate.execute((ConnectionCallback<String>) con ->
+                con.getMetaData().getDatabaseProductName());
+            String name = product != null ? product.toLowerCase(Locale.ROOT) : "";
+            mysql = name.contains("mysql") || name.contains("mariadb");
+        }
+        return mysql;
+    }
+}
@@ -0,0 +1,72 @@
+package com.gradepulse.service;
+
+import com.gradepulse.model.OutboundMessage;
+import com.gradepulse.model.Student;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Raises a parent alert the moment a student's consecutive-absence streak reaches the threshold.
+ * Streaks are maintained at write time by AttendanceSummaryService, so detection is a comparison
+ * of the before/after values it publishes: no scans, and one alert per streak (continuing
+ * absences past the threshold don't re-alert until the streak is broken).
+ *
+ * Runs synchronously in the submitting transaction; the alerts go through the outbox with the marks.
+ */
+@Service
+@Slf4j
+public class AbsenceAlertService {
+
+    public static final String MESSAGE_TYPE = "ABSENCE_STREAK";
+
+    private final NotificationOutboxService outboxService;
+    private final MessageTemplateRegistry messageTemplates;
+    private final int threshold;
+    private final boolean enabled;
+
+    public AbsenceAlertService(NotificationOutboxService outboxService,
+                               MessageTemplateRegistry messageTemplates,
+                               @Value("${gradepulse.attendance.absence-alert-threshold:3}") int threshold,
+                               @Value("${gradepulse.attendance.absence-alert-enabled:true}") boolean enabled) {
+        this.outboxService = outboxService;
+        this.messageTemplates = messageTemplates;
+        this.threshold = threshold;
+        this.enabled = enabled;
+    }
+
+    @EventListener
+    public void onAbsenceStreaksChanged(AttendanceSummaryService.AbsenceStreaksChanged event) {
+        if (!enabled) {
+            return;
+        }
+        List<OutboundMessage> alerts = new ArrayList<>();
+        for (AttendanceSummaryService.StreakChange change : event.changes()) {
+            if (change.previousStreak() < threshold && change.currentStreak() >= threshold) {
+                Student student = change.student();
+                log.info("{} has been absent {} school days in a row; alerting parents",
+                         student.getFullName(), change.currentStreak());
+                addAlerts(alerts, student, buildMessage(student, change));
+            }
+        }
+        outboxService.enqueueAll(alerts);
+    }
+
+    private void addAlerts(List<OutboundMessage> alerts, Student student, String message) {
+        for (String contact : new String[] { student.getFatherContact(), student.getMotherContact(),
+                                             student.getGuardianContact() }) {
+            if (contact != null && !contact.trim().isEmpty()) {
+                alerts.add(NotificationOutboxService.newMessage(contact, message, MESSAGE_TYPE, student.getId()));
+            }
+        }
+    }
+
+    private String buildMessage(Student student, AttendanceSummaryService.StreakChange change) {
+        return messageTemplates.render(MessageTemplateKey.ABSENCE_STREAK, student.getLanguagePreference(),
+                                       student.getFullName(), change.currentStreak(), change.asOf());
+    }
+}
@@ -0,0 +1,237 @@
+package com.gradepulse.service;
+
+import com.gradepulse.dto.ArchivedAttendance;
+import com.gradepulse.model.AttendanceArchive;
+import com.gradepulse.model.AttendanceArchivedYear;
+import com.gradepulse.model.AttendanceBits;
+import com.gradepulse.model.AttendanceStatus;
+import com.gradepulse.repository.AttendanceArchiveRepository;
+import com.gradepulse.repository.AttendanceArchivedYearRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Moves closed academic years out of attendance_records into attendance_archive
+ * (one GZIP blob per student per year) and reads them back for student history.
+ *
+ * Only attendance_records shrinks: rollups, summaries and bitmaps for the year stay,
+ * so trends, percentages and day-level analytics keep working for archived years.
+ * Archived years are read-only; submitAttendance rejects marks for them.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AttendanceArchiveService {
+
+    private static final int FORMAT_VERSION = 1;
+    private static final int INSERT_BATCH_SIZE = 200;
+
+    private static final String STREAM_SQL =
+        "SELECT student_id, attendance_date, status, arrival_time, class_section_id, marked_by, marked_at, notes " +
+        "FROM attendance_records WHERE academic_year = ? ORDER BY student_id, attendance_date";
+
+    private static final String INSERT_SQL =
+        "INSERT INTO attendance_archive (student_id, academic_year, record_count, payload, archived_at) " +
+        "VALUES (?, ?, ?, ?, ?)";
+
+    private final AttendanceArchiveRepository archiveRepository;
+    private final AttendanceArchivedYearRepository archivedYearRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    private final Set<String> archivedYears = ConcurrentHashMap.newKeySet();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadArchivedYears() {
+        archivedYearRepository.findAll().forEach(year -> archivedYears.add(year.getAcademicYear()));
+    }
+
+    public boolean isArchived(String academicYear) {
+        return archivedYears.contains(academicYear);
+    }
+
+    public List<AttendanceArchivedYear> getArchivedYears() {
+        return archivedYearRepository.findAll();
+    }
+
+    /**
+     * Archive one closed academic year (it must have ended on 31 March before today).
+     */
+    @Transactional
+    public AttendanceArchivedYear archiveYear(String academicYear, String archivedBy) {
+        if (archivedYearRepository.existsById(academicYear)) {
+            throw new IllegalArgumentException("Academic year " + academicYear + " is already archived");
+        }
+        LocalDate yearEnd = AttendanceBits.yearStart(academicYear).plusYears(1);
+        if (!LocalDate.now().isAfter(yearEnd)) {
+            throw new IllegalArgumentException("Academic year " + academicYear + " is not closed yet");
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> batch = new ArrayList<>();
+        long[] totals = new long[3]; // records, students, compressed bytes
+        List<ArchivedAttendance> current = new ArrayList<>();
+        Long[] currentStudent = {null};
+
+        jdbcTemplate.query(STREAM_SQL, rs -> {
+            long studentId = rs.getLong("student_id");
+            if (currentStudent[0] != null && currentStudent[0] != studentId) {
+                addToBatch(batch, totals, currentStudent[0], academicYear, current, now);
+                current.clear();
+                if (batch.size() >= INSERT_BATCH_SIZE) {
+                    jdbcTemplate.batchUpdate(INSERT_SQL, batch);
+                    batch.clear();
+                }
+            }
+            currentStudent[0] = studentId;
+            Timestamp markedAt = rs.getTimestamp("marked_at");
+            Time arrival = rs.getTime("arrival_time");
+            current.add(new ArchivedAttendance(
+                rs.getDate("attendance_date").toLocalDate(),
+                AttendanceStatus.valueOf(rs.getString("status")),
+                arrival != null ? arrival.toLocalTime() : null,
+                rs.getLong("class_section_id"),
+                rs.getString("marked_by"),
+                markedAt != null ? markedAt.toLocalDateTime() : null,
+                rs.getString("notes")));
+        }, academicYear);
+        if (currentStudent[0] != null) {
+            addToBatch(batch, totals, currentStudent[0], academicYear, current, now);
+        }
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, batch);
+        }
+
+        int deleted = jdbcTemplate.update("DELETE FROM attendance_records WHERE academic_year = ?", academicYear);
+        if (deleted != totals[0]) {
+            throw new IllegalStateException("Attendance for " + academicYear + " changed while archiving; retry");
+        }
+
+        AttendanceArchivedYear archived = new AttendanceArchivedYear(
+            academicYear, totals[0], (int) totals[1], totals[2], archivedBy, now);
+        archivedYearRepository.save(archived);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                archivedYears.add(academicYear);
+            }
+        });
+
+        log.info("Archived academic year {}: {} records for {} students into {} compressed bytes",
+                 academicYear, totals[0], totals[1], totals[2]);
+        return archived;
+    }
+
+    private void addToBatch(List<Object[]> batch, long[] totals, Long studentId, String academicYear,
+                            List<ArchivedAttendance> records, LocalDateTime now) {
+        byte[] payload = encode(records);
+        batch.add(new Object[] { studentId, academicYear, records.size(), payload, Timestamp.valueOf(now) });
+        totals[0] += records.size();
+        totals[1]++;
+        totals[2] += payload.length;
+    }
+
+    @Transactional(readOnly = true)
+    public List<ArchivedAttendance> getArchivedRecords(Long studentId, String academicYear) {
+        return archiveRepository.findByStudentIdAndAcademicYear(studentId, academicYear)
+            .map(archive -> decode(archive.getPayload()))
+            .orElse(List.of());
+    }
+
+    // === Payload format: GZIP(version, count, then per record the fields below) ===
+
+    static byte[] encode(List<ArchivedAttendance> records) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(new GZIPOutputStream(bytes))) {
+            out.writeInt(FORMAT_VERSION);
+            out.writeInt(records.size());
+            for (ArchivedAttendance record : records) {
+                out.writeInt((int) record.getAttendanceDate().toEpochDay());
+                out.writeByte(record.getStatus().ordinal());
+                out.writeInt(record.getArrivalTime() != null ? record.getArrivalTime().toSecondOfDay() : -1);
+                out.writeLong(record.getClassSectionId() != null ? record.getClassSectionId() : -1L);
+                out.writeLong(record.getMarkedAt() != null ? record.getMarkedAt().toEpochSecond(ZoneOffset.UTC) : Long.MIN_VALUE);
+                writeString(out, record.getMarkedBy());
+                writeString(out, record.getNotes());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    static List<ArchivedAttendance> decode(byte[] payload) {
+        try (DataInputStream in = new DataInputStream(new GZIPInputStream(new ByteArrayInputStream(payload)))) {
+            int version = in.readInt();
+            if (version != FORMAT_VERSION) {
+                throw new IllegalStateException("Unknown attendance archive format " + version);
+            }
+            int count = in.readInt();
+            List<ArchivedAttendance> records = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                LocalDate date = LocalDate.ofEpochDay(in.readInt());
+                AttendanceStatus status = AttendanceStatus.values()[in.readByte()];
+                int arrival = in.readInt();
+                long classSectionId = in.readLong();
+                long markedAt = in.readLong();
+                records.add(new ArchivedAttendance(
+                    date,
+                    status,
+                    arrival >= 0 ? LocalTime.ofSecondOfDay(arrival) : null,
+                    classSectionId >= 0 ? classSectionId : null,
+                    readString(in),
+                    markedAt != Long.MIN_VALUE ? LocalDateTime.ofEpochSecond(markedAt, 0, ZoneOffset.UTC) : null,
+                    readString(in)));
+            }
+            return records;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,274 @@
+package com.gradepulse.service;
+
+import com.gradepulse.dto.FrequentAbsentee;
+import com.gradepulse.model.AttendanceBitmap;
+import com.gradepulse.model.AttendanceBits;
+import com.gradepulse.model.AttendanceRecord;
+import com.gradepulse.model.AttendanceStatus;
+import com.gradepulse.repository.AttendanceBitmapRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compact attendance store: one AttendanceBits bitmap per student per academic year,
+ * persisted in attendance_bitmaps and mirrored in an in-memory index.
+ *
+ * submitAttendance updates the persisted rows in its own transaction; the in-memory
+ * snapshots are swapped in only after that transaction commits. Analytics queries
+ * (frequent absentees, class daily counts, streaks) run entirely against the index.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AttendanceBitmapService {
+
+    private static final int REBUILD_BATCH_SIZE = 500;
+
+    private static final String INSERT_SQL =
+        "INSERT INTO attendance_bitmaps (student_id, academic_year, class_section_id, bits, updated_at) " +
+        "VALUES (?, ?, ?, ?, ?)";
+
+    private static final String STREAM_SQL =
+        "SELECT student_id, academic_year, class_section_id, attendance_date, status " +
+        "FROM attendance_records ORDER BY student_id, academic_year, attendance_date";
+
+    private final AttendanceBitmapRepository bitmapRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    // academicYear -> studentId -> published snapshot
+    private final Map<String, Map<Long, IndexedBits>> index = new ConcurrentHashMap<>();
+
+    public record IndexedBits(Long classSectionId, AttendanceBits bits) {}
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadIndex() {
+        Map<String, Map<Long, IndexedBits>> loaded = new HashMap<>();
+        for (AttendanceBitmap row : bitmapRepository.findAll()) {
+            loaded.computeIfAbsent(row.getAcademicYear(), y -> new ConcurrentHashMap<>())
+                .put(row.getStudentId(), new IndexedBits(row.getClassSectionId(), AttendanceBits.fromBytes(row.getBits())));
+        }
+        index.clear();
+        index.putAll(loaded);
+        log.info("Loaded attendance bitmap index: {} academic years, {} student-years",
+                 loaded.size(), loaded.values().stream().mapToInt(Map::size).sum());
+    }
+
+    /**
+     * Set the bits for written records of one class section and persist them.
+     * Returns the updated bitmaps keyed by student id.
+     */
+    @Transactional
+    public Map<Long, AttendanceBits> applyRecords(String academicYear, Long classSectionId, List<AttendanceRecord> records) {
+        Map<Long, AttendanceBits> result = new HashMap<>();
+        if (records.isEmpty()) {
+            return result;
+        }
+        List<Long> studentIds = records.stream().map(r -> r.getStudent().getId()).toList();
+        Map<Long, AttendanceBitmap> rows = new HashMap<>();
+        for (AttendanceBitmap row : bitmapRepository.findByStudentIdInAndAcademicYear(studentIds, academicYear)) {
+            rows.put(row.getStudentId(), row);
+        }
+
+        Map<Long, IndexedBits> updated = new HashMap<>();
+        for (AttendanceRecord record : records) {
+            int day = AttendanceBits.dayIndex(academicYear, record.getAttendanceDate());
+            if (day < 0) {
+                log.warn("Attendance date {} is outside academic year {}; not stored in bitmap",
+                         record.getAttendanceDate(), academicYear);
+                continue;
+            }
+            Long studentId = record.getStudent().getId();
+            IndexedBits current = updated.get(studentId);
+            AttendanceBits bits = current != null
+                ? current.bits()
+                : rows.containsKey(studentId) ? AttendanceBits.fromBytes(rows.get(studentId).getBits()) : new AttendanceBits();
+            bits.set(day, record.getStatus());
+            updated.put(studentId, new IndexedBits(classSectionId, bits));
+        }
+
+        List<AttendanceBitmap> toSave = new ArrayList<>();
+        for (Map.Entry<Long, IndexedBits> entry : updated.entrySet()) {
+            AttendanceBitmap row = rows.computeIfAbsent(entry.getKey(), id -> {
+                AttendanceBitmap created = new AttendanceBitmap();
+                created.setStudentId(id);
+                created.setAcademicYear(academicYear);
+                return created;
+            });
+            row.setClassSectionId(classSectionId);
+            row.setBits(entry.getValue().bits().toBytes());
+            toSave.add(row);
+        }
+        bitmapRepository.saveAll(toSave);
+        publishAfterCommit(academicYear, updated);
+        updated.forEach((studentId, entry) -> result.put(studentId, entry.bits()));
+        return result;
+    }
+
+    private void publishAfterCommit(String academicYear, Map<Long, IndexedBits> updated) {
+        Runnable publish = () -> index.computeIfAbsent(academicYear, y -> new ConcurrentHashMap<>()).putAll(updated);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publish.run();
+                }
+            });
+        } else {
+            publish.run();
+        }
+    }
+
+    /**
+     * Rebuild job: stream attendance_records in student/date order and rewrite the bitmaps
+     * of every year still held there (archived years keep theirs).
+     */
+    @Transactional
+    public int rebuildAll() {
+        bitmapRepository.deleteUnarchivedRows();
+        List<Object[]> batch = new ArrayList<>();
+        int[] written = {0};
+        BitmapBuilder builder = new BitmapBuilder();
+
+        jdbcTemplate.query(STREAM_SQL, rs -> {
+            long studentId = rs.getLong("student_id");
+            String academicYear = rs.getString("academic_year");
+            if (!builder.isFor(studentId, academicYear)) {
+                builder.flushTo(batch);
+                builder.start(studentId, academicYear);
+                if (batch.size() >= REBUILD_BATCH_SIZE) {
+                    written[0] += batch.size();
+                    jdbcTemplate.batchUpdate(INSERT_SQL, batch);
+                    batch.clear();
+                }
+            }
+            int day = AttendanceBits.dayIndex(academicYear, rs.getDate("attendance_date").toLocalDate());
+            if (day >= 0) {
+                builder.bits.set(day, AttendanceStatus.valueOf(rs.getString("status")));
+            }
+            builder.classSectionId = rs.getLong("class_section_id");
+        });
+        builder.flushTo(batch);
+        if (!batch.isEmpty()) {
+            written[0] += batch.size();
+            jdbcTemplate.batchUpdate(INSERT_SQL, batch);
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    loadIndex();
+                }
+            });
+        }
+        log.info("Rebuilt {} attendance bitmaps", written[0]);
+        return written[0];
+    }
+
+    // Accumulates one (student, academic year) bitmap while streaming records
+    private static class BitmapBuilder {
+        Long studentId;
+        String academicYear;
+        Long classSectionId;
+        AttendanceBits bits;
+
+        boolean isFor(long studentId, String academicYear) {
+            return this.studentId != null && this.studentId == studentId && this.academicYear.equals(academicYear);
+        }
+
+        void start(long studentId, String academicYear) {
+            this.studentId = studentId;
+            this.academicYear = academicYear;
+            this.bits = new AttendanceBits();
+        }
+
+        void flushTo(List<Object[]> batch) {
+            if (studentId != null) {
+                batch.add(new Object[] { studentId, academicYear, classSectionId, bits.toBytes(),
+                                         Timestamp.valueOf(LocalDateTime.now()) });
+            }
+        }
+    }
+
+    // === Analytics (in-memory index only) ===
+
+    /**
+     * Students absent on at least {@code minAbsent} of their last {@code lastSchoolDays} marked days up to asOf.
+     */
+    public List<FrequentAbsentee> findFrequentAbsentees(String academicYear, LocalDate asOf,
+                                                        int lastSchoolDays, int minAbsent) {
+        List<FrequentAbsentee> result = new ArrayList<>();
+        int upto = lastDayIndex(academicYear, asOf);
+        if (upto < 0) {
+            return result;
+        }
+        for (Map.Entry<Long, IndexedBits> entry : index.getOrDefault(academicYear, Map.of()).entrySet()) {
+            AttendanceBits bits = entry.getValue().bits();
+            int start = bits.windowStart(upto, lastSchoolDays);
+            int absent = bits.count(AttendanceStatus.ABSENT, start, upto);
+            if (absent >= minAbsent) {
+                result.add(new FrequentAbsentee(entry.getKey(), entry.getValue().classSectionId(),
+                                                absent, bits.countMarked(start, upto)));
+            }
+        }
+        result.sort(Comparator.comparingInt(FrequentAbsentee::getAbsentDays).reversed());
+        return result;
+    }
+
+    public Map<AttendanceStatus, Integer> getClassDailyCounts(String academicYear, Long classSectionId, LocalDate date) {
+        Map<AttendanceStatus, Integer> counts = new EnumMap<>(AttendanceStatus.class);
+        for (AttendanceStatus status : AttendanceStatus.values()) {
+            counts.put(status, 0);
+        }
+        int day = AttendanceBits.dayIndex(academicYear, date);
+        if (day < 0) {
+            return counts;
+        }
+        for (IndexedBits entry : index.getOrDefault(academicYear, Map.of()).values()) {
+            if (classSectionId.equals(entry.classSectionId())) {
+                AttendanceStatus status = entry.bits().get(day);
+                if (status != null) {
+                    counts.merge(status, 1, Integer::sum);
+                }
+            }
+        }
+        return counts;
+    }
+
+    public int getAbsenceStreak(String academicYear, Long studentId, LocalDate asOf) {
+        IndexedBits entry = index.getOrDefault(academicYear, Map.of()).get(studentId);
+        int upto = lastDayIndex(academicYear, asOf);
+        return entry == null || upto < 0 ? 0 : entry.bits().trailingAbsenceStreak(upto);
+    }
+
+    public IndexedBits getSnapshot(String academicYear, Long studentId) {
+        return index.getOrDefault(academicYear, Map.of()).get(studentId);
+    }
+
+    // asOf clamped to the bitmap's range (dates after the year end query the whole year)
+    private int lastDayIndex(String academicYear, LocalDate asOf) {
+        if (asOf.isBefore(AttendanceBits.yearStart(academicYear))) {
+            return -1;
+        }
+        int day = AttendanceBits.dayIndex(academicYear, asOf);
+        return day >= 0 ? day : AttendanceBits.CAPACITY_DAYS - 1;
+    }
+}
@@ -0,0 +1,84 @@
+package com.gradepulse.service;
+
+import com.gradepulse.dto.AttendanceCalendar;
+import com.gradepulse.model.AttendanceStatus;
+import com.gradepulse.repository.AttendanceRecordRepository;
+import com.gradepulse.repository.StudentRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Builds the class attendance calendar from two projection queries (roster and
+ * [student, date, status] tuples) into a char matrix, without loading entities.
+ */
+@Service
+@RequiredArgsConstructor
+public class AttendanceCalendarService {
+
+    // A full academic year plus slack; longer ranges should be requested in pieces
+    public static final int MAX_DAYS = 400;
+
+    private final AttendanceRecordRepository attendanceRepository;
+    private final StudentRepository studentRepository;
+
+    @Transactional(readOnly = true)
+    public AttendanceCalendar getCalendar(Long classSectionId, LocalDate startDate, LocalDate endDate) {
+        if (endDate.isBefore(startDate)) {
+            throw new IllegalArgumentException("End date is before start date");
+        }
+        int days = (int) ChronoUnit.DAYS.between(startDate, endDate) + 1;
+        if (days > MAX_DAYS) {
+            throw new IllegalArgumentException("Date range is limited to " + MAX_DAYS + " days");
+        }
+
+        // id -> [roll number (Student.studentId), fullName]; the current roster first
+        Map<Long, String[]> roster = new LinkedHashMap<>();
+        for (Object[] row : studentRepository.findRosterByClassSectionId(classSectionId)) {
+            roster.put((Long) row[0], new String[] { (String) row[1], (String) row[2] });
+        }
+
+        Map<Long, char[]> matrix = new LinkedHashMap<>();
+        for (Object[] row : attendanceRepository.findStatusMatrix(classSectionId, startDate, endDate)) {
+            Long studentId = (Long) row[0];
+            int day = (int) ChronoUnit.DAYS.between(startDate, (LocalDate) row[1]);
+            matrix.computeIfAbsent(studentId, id -> emptyRow(days))[day] = ((AttendanceStatus) row[2]).getCode();
+        }
+
+        // Students who were marked in this class but have since moved section
+        Set<Long> missing = new HashSet<>(matrix.keySet());
+        missing.removeAll(roster.keySet());
+        if (!missing.isEmpty()) {
+            for (Object[] row : studentRepository.findRosterByIdIn(missing)) {
+                roster.put((Long) row[0], new String[] { (String) row[1], (String) row[2] });
+            }
+        }
+
+        List<AttendanceCalendar.Row> rows = new ArrayList<>(roster.size());
+        for (Map.Entry<Long, String[]> entry : roster.entrySet()) {
+            char[] statuses = matrix.get(entry.getKey());
+            rows.add(new AttendanceCalendar.Row(entry.getKey(), entry.getValue()[0], entry.getValue()[1],
+                                                new String(statuses != null ? statuses : emptyRow(days))));
+        }
+        rows.sort(Comparator.comparing(AttendanceCalendar.Row::getFullName,
+                                       Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER)));
+        return new AttendanceCalendar(classSectionId, startDate, endDate, rows);
+    }
+
+    private static char[] emptyRow(int days) {
+        char[] row = new char[days];
+        Arrays.fill(row, AttendanceCalendar.NOT_MARKED);
+        return row;
+    }
+}
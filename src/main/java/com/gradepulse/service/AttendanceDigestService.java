@@ -0,0 +1,245 @@
+package com.gradepulse.service;
+
+import com.gradepulse.model.AttendanceDigestEvent;
+import com.gradepulse.model.AttendanceRecord;
+import com.gradepulse.model.AttendanceStatus;
+import com.gradepulse.model.ClassSection;
+import com.gradepulse.model.OutboundMessage;
+import com.gradepulse.model.Student;
+import com.gradepulse.repository.AttendanceDigestEventRepository;
+import com.gradepulse.repository.ClassSectionRepository;
+import com.gradepulse.repository.StudentRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Optional daily digest (gradepulse.whatsapp.digest.enabled): instead of one WhatsApp per student
+ * per submission, each parent gets one message a day listing their children's attendance.
+ *
+ * Submissions record an AttendanceDigestEvent per parent contact, due at the digest time of the
+ * student's school (gradepulse.whatsapp.digest.time, overridable per school). A job running every
+ * minute works through the parents with due events a chunk at a time - keyset-paged on the
+ * contact, one transaction per chunk - and queues one digest per parent and run. Absences are
+ * still sent immediately unless absences-immediate is turned off; they also appear in the digest.
+ *
+ * A mark recorded after its day's digest went out (a late submission, a correction, a backfilled
+ * date) is not sent on its own: it waits for the school's next digest time and goes out in that
+ * digest, under its own date.
+ */
+@Service
+@Slf4j
+public class AttendanceDigestService {
+
+    public static final String MESSAGE_TYPE = "ATTENDANCE_DIGEST";
+    private static final int CHUNK_SIZE = 200; // parents per transaction
+
+    private final AttendanceDigestEventRepository eventRepository;
+    private final StudentRepository studentRepository;
+    private final ClassSectionRepository classSectionRepository;
+    private final NotificationOutboxService outboxService;
+    private final MessageTemplateRegistry messageTemplates;
+    private final TransactionTemplate transactionTemplate;
+
+    private final boolean enabled;
+    private final boolean absencesImmediate;
+    private final LocalTime defaultTime;
+    private final Map<String, LocalTime> schoolTimes;
+
+    public AttendanceDigestService(AttendanceDigestEventRepository eventRepository,
+                                   StudentRepository studentRepository,
+                                   ClassSectionRepository classSectionRepository,
+                                   NotificationOutboxService outboxService,
+                                   MessageTemplateRegistry messageTemplates,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${gradepulse.whatsapp.digest.enabled:false}") boolean enabled,
+                                   @Value("${gradepulse.whatsapp.digest.absences-immediate:true}") boolean absencesImmediate,
+                                   @Value("${gradepulse.whatsapp.digest.time:17:00}") LocalTime defaultTime,
+                                   @Value("${gradepulse.whatsapp.digest.school-times:}") String schoolTimes) {
+        this.eventRepository = eventRepository;
+        this.studentRepository = studentRepository;
+        this.classSectionRepository = classSectionRepository;
+        this.outboxService = outboxService;
+        this.messageTemplates = messageTemplates;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.absencesImmediate = absencesImmediate;
+        this.defaultTime = defaultTime;
+        this.schoolTimes = parseSchoolTimes(schoolTimes);
+        if (enabled) {
+            log.info("Attendance digest mode on: digests at {} ({} school overrides), absences {}",
+                     defaultTime, this.schoolTimes.size(), absencesImmediate ? "sent immediately" : "digest only");
+        }
+    }
+
+    // Whether a mark with this status waits for the digest instead of being sent right away
+    public boolean holdsForDigest(AttendanceStatus status) {
+        return enabled && !(absencesImmediate && status == AttendanceStatus.ABSENT);
+    }
+
+    /**
+     * Record the marks for the parents' digests, in the caller's transaction. Does nothing
+     * unless digest mode is on.
+     */
+    public void recordAll(List<AttendanceRecord> records) {
+        if (!enabled || records.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<AttendanceDigestEvent> events = new ArrayList<>();
+        for (AttendanceRecord record : records) {
+            Student student = record.getStudent();
+            LocalDateTime dueAt = dueAt(student.getSchoolName(), record.getAttendanceDate(), now);
+            for (String contact : new String[] { student.getFatherContact(), student.getMotherContact() }) {
+                if (contact == null || contact.trim().isEmpty()) {
+                    continue;
+                }
+                AttendanceDigestEvent event = new AttendanceDigestEvent();
+                event.setRecipient(contact.trim());
+                event.setRecipientKey(OutboundMessage.normalizeContact(contact));
+                event.setStudentId(student.getId());
+                event.setClassSectionId(record.getClassSection() != null ? record.getClassSection().getId() : null);
+                event.setAttendanceDate(record.getAttendanceDate());
+                event.setStatus(record.getStatus());
+                event.setArrivalTime(record.getArrivalTime());
+                event.setDueAt(dueAt);
+                events.add(event);
+            }
+        }
+        eventRepository.saveAll(events);
+    }
+
+    // The date's digest time, or the next digest time after now once that has passed
+    LocalDateTime dueAt(String schoolName, LocalDate date, LocalDateTime now) {
+        LocalTime time = schoolName != null
+            ? schoolTimes.getOrDefault(schoolName.trim().toLowerCase(Locale.ROOT), defaultTime)
+            : defaultTime;
+        LocalDateTime dueAt = date.atTime(time);
+        if (dueAt.isAfter(now)) {
+            return dueAt;
+        }
+        LocalDateTime today = now.toLocalDate().atTime(time);
+        return today.isAfter(now) ? today : today.plusDays(1);
+    }
+
+    @Scheduled(cron = "${gradepulse.whatsapp.digest.cron:0 * * * * *}")
+    public void sendDueDigests() {
+        LocalDateTime now = LocalDateTime.now();
+        int digests = 0;
+        String after = "";
+        ChunkResult chunk;
+        do {
+            String from = after;
+            chunk = transactionTemplate.execute(status -> sendChunk(from, now));
+            digests += chunk.digests();
+            after = chunk.lastKey();
+        } while (chunk.parents() == CHUNK_SIZE);
+        if (digests > 0) {
+            log.info("Queued {} attendance digests", digests);
+        }
+    }
+
+    private ChunkResult sendChunk(String afterKey, LocalDateTime now) {
+        List<String> keys = eventRepository.findDueRecipientKeys(now, afterKey, PageRequest.of(0, CHUNK_SIZE));
+        if (keys.isEmpty()) {
+            return new ChunkResult(0, 0, afterKey);
+        }
+        List<AttendanceDigestEvent> events = eventRepository.findDueForRecipients(keys, now);
+
+        // Students and sections of the whole chunk, one query each
+        Map<Long, Student> students = studentRepository
+            .findAllById(events.stream().map(AttendanceDigestEvent::getStudentId).distinct().toList()).stream()
+            .collect(Collectors.toMap(Student::getId, Function.identity()));
+        Map<Long, ClassSection> sections = classSectionRepository
+            .findAllById(events.stream().map(AttendanceDigestEvent::getClassSectionId)
+                             .filter(Objects::nonNull).distinct().toList()).stream()
+            .collect(Collectors.toMap(ClassSection::getId, Function.identity()));
+
+        // One digest per parent, holding every date that came due; a later mark of the same
+        // student and date (a correction) wins
+        Map<String, Map<String, AttendanceDigestEvent>> digests = new LinkedHashMap<>();
+        for (AttendanceDigestEvent event : events) {
+            digests.computeIfAbsent(event.getRecipientKey(), k -> new LinkedHashMap<>())
+                   .put(event.getAttendanceDate() + "|" + event.getStudentId(), event);
+        }
+
+        List<OutboundMessage> messages = new ArrayList<>(digests.size());
+        for (Map<String, AttendanceDigestEvent> latest : digests.values()) {
+            List<AttendanceDigestEvent> lines = latest.values().stream()
+                .filter(e -> students.containsKey(e.getStudentId()))
+                .toList();
+            if (!lines.isEmpty()) {
+                AttendanceDigestEvent first = lines.get(0);
+                messages.add(NotificationOutboxService.newMessage(first.getRecipient(),
+                    buildDigest(lines, students, sections), MESSAGE_TYPE, first.getStudentId()));
+            }
+        }
+        outboxService.enqueueAll(messages);
+        eventRepository.markDigested(events.stream().map(AttendanceDigestEvent::getId).toList(), now);
+        return new ChunkResult(keys.size(), messages.size(), keys.get(keys.size() - 1));
+    }
+
+    // In the language of the first child listed; one header per date (events arrive in date order)
+    private String buildDigest(List<AttendanceDigestEvent> lines, Map<Long, Student> students,
+                               Map<Long, ClassSection> sections) {
+        String language = students.get(lines.get(0).getStudentId()).getLanguagePreference();
+        StringBuilder body = new StringBuilder();
+        LocalDate date = null;
+        for (AttendanceDigestEvent event : lines) {
+            if (!event.getAttendanceDate().equals(date)) {
+                date = event.getAttendanceDate();
+                if (!body.isEmpty()) {
+                    body.append('\n');
+                }
+                body.append(messageTemplates.render(MessageTemplateKey.DIGEST_HEADER, language, date)).append("\n\n");
+            }
+            Student student = students.get(event.getStudentId());
+            ClassSection section = sections.get(event.getClassSectionId());
+            String classInfo = section != null
+                ? section.getClassName() + " " + section.getSectionName()
+                : student.getAdmissionClass();
+            MessageTemplateKey line = switch (event.getStatus()) {
+                case PRESENT -> MessageTemplateKey.DIGEST_PRESENT;
+                case ABSENT -> MessageTemplateKey.DIGEST_ABSENT;
+                case LATE -> MessageTemplateKey.DIGEST_LATE;
+                case HALF_DAY -> MessageTemplateKey.DIGEST_HALF_DAY;
+            };
+            body.append(messageTemplates.render(line, language, student.getFullName(), classInfo, event.getArrivalTime()))
+                .append('\n');
+        }
+        body.append('\n').append(messageTemplates.render(MessageTemplateKey.DIGEST_FOOTER, language));
+        return body.toString();
+    }
+
+    // "Cambridge High School=16:30, Ryan International=17:15"; school names match case-insensitively
+    private static Map<String, LocalTime> parseSchoolTimes(String spec) {
+        Map<String, LocalTime> times = new HashMap<>();
+        for (String entry : spec.split(",")) {
+            int eq = entry.lastIndexOf('=');
+            if (eq > 0) {
+                times.put(entry.substring(0, eq).trim().toLowerCase(Locale.ROOT),
+                          LocalTime.parse(entry.substring(eq + 1).trim()));
+            }
+        }
+        return times;
+    }
+
+    private record ChunkResult(int parents, int digests, String lastKey) {}
+}
@@ -0,0 +1,61 @@
+package com.gradepulse.service;
+
+import com.gradepulse.repository.StudentRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+
+/**
+ * Derives students.attendance_percent from recorded attendance.
+ *
+ * The percentage is (present + late + half day × 0.5), from the per-student summary counters,
+ * over the working days of the academic year: the days the student's section was marked,
+ * counted from the daily rollup. A day the section was marked but the student was left out
+ * therefore counts against them. The student's own marked days are the floor, for a student
+ * who moved sections mid-year.
+ *
+ * A newly marked day changes the denominator of every student in the section, so each
+ * submission recomputes the whole section (and any section a student was moved out of) in one
+ * set-based UPDATE rather than a full recomputation. Per student that reads one summary row and
+ * counts the section's rollup rows for the year (one per marked day, on the rollup's unique
+ * index), so a class of 40 costs 40 row updates, not just the students on the sheet. The value
+ * is stored on the students row so the existing alert and dashboard queries keep using the
+ * column index. All paths share the SQL in StudentRepository.PERCENT_FROM_SUMMARY.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AttendancePercentService {
+
+    private final StudentRepository studentRepository;
+
+    /**
+     * Recalculate every student of the given sections, after a submission.
+     */
+    @Transactional
+    public int recalculateSections(Collection<Long> classSectionIds) {
+        return classSectionIds.isEmpty() ? 0 : studentRepository.updateAttendancePercentForSections(classSectionIds);
+    }
+
+    /**
+     * Recalculate for specific students from their latest summary (e.g. after an upload
+     * overwrote the column with a spreadsheet value).
+     */
+    @Transactional
+    public int recalculate(Collection<Long> studentIds) {
+        return studentIds.isEmpty() ? 0 : studentRepository.updateAttendancePercentForStudents(studentIds);
+    }
+
+    /**
+     * Full recomputation for every student with recorded attendance (backfill only).
+     */
+    @Transactional
+    public int recalculateAll() {
+        int updated = studentRepository.updateAttendancePercentFromSummaries();
+        log.info("Recalculated attendance percentage for {} students", updated);
+        return updated;
+    }
+}
@@ -0,0 +1,101 @@
+package com.gradepulse.service;
+
+import com.gradepulse.dto.AttendanceTrendPoint;
+import com.gradepulse.model.AttendanceStatus;
+import com.gradepulse.model.ClassSection;
+import com.gradepulse.repository.AttendanceDailyRollupRepository;
+import com.gradepulse.repository.AttendanceRollupWriter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maintains the per class section per day attendance rollup.
+ * Writes happen inside the caller's transaction (submitAttendance), so the rollup
+ * never disagrees with attendance_records; readers use it for trends and reports.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AttendanceRollupService {
+
+    private final AttendanceDailyRollupRepository rollupRepository;
+    private final AttendanceRollupWriter rollupWriter;
+
+    /**
+     * Add status count deltas for one class section and date.
+     * Deltas may be negative (e.g. when a record moves from one status to another).
+     */
+    @Transactional
+    public void applyCounts(ClassSection classSection, LocalDate date,
+                            Map<AttendanceStatus, Integer> deltas, String markedBy) {
+        int present = deltas.getOrDefault(AttendanceStatus.PRESENT, 0);
+        int absent = deltas.getOrDefault(AttendanceStatus.ABSENT, 0);
+        int late = deltas.getOrDefault(AttendanceStatus.LATE, 0);
+        int halfDay = deltas.getOrDefault(AttendanceStatus.HALF_DAY, 0);
+        if (present == 0 && absent == 0 && late == 0 && halfDay == 0) {
+            return;
+        }
+
+        // One upsert: the first submission of the day creates the row
+        rollupWriter.applyCounts(classSection.getId(), date, classSection.getAcademicYear(),
+                                 present, absent, late, halfDay, markedBy, LocalDateTime.now());
+    }
+
+    /**
+     * Take a corrected mark's old status back out of the section it was counted in. Unlike
+     * applyCounts this leaves the row's marked_by / marked_at alone: the teacher correcting the
+     * mark from another section didn't mark this one.
+     */
+    @Transactional
+    public void applyReversal(ClassSection classSection, LocalDate date, Map<AttendanceStatus, Integer> deltas) {
+        int present = deltas.getOrDefault(AttendanceStatus.PRESENT, 0);
+        int absent = deltas.getOrDefault(AttendanceStatus.ABSENT, 0);
+        int late = deltas.getOrDefault(AttendanceStatus.LATE, 0);
+        int halfDay = deltas.getOrDefault(AttendanceStatus.HALF_DAY, 0);
+        if (present == 0 && absent == 0 && late == 0 && halfDay == 0) {
+            return;
+        }
+        rollupWriter.applyCounts(classSection.getId(), date, classSection.getAcademicYear(),
+                                 present, absent, late, halfDay, null, null);
+    }
+
+    /**
+     * Backfill job: rebuild the whole rollup from attendance_records in one set-based statement.
+     */
+    @Transactional
+    public int rebuildAll() {
+        int deleted = rollupRepository.deleteUnarchivedRows();
+        int inserted = rollupRepository.backfillFromRecords();
+        log.info("Rebuilt attendance rollup: removed {} rows, inserted {} rows", deleted, inserted);
+        return inserted;
+    }
+
+    @Transactional(readOnly = true)
+    public List<AttendanceTrendPoint> getSchoolTrend(LocalDate startDate, LocalDate endDate) {
+        List<AttendanceTrendPoint> trend = new ArrayList<>();
+        for (Object[] row : rollupRepository.sumByDateBetween(startDate, endDate)) {
+            trend.add(new AttendanceTrendPoint(
+                (LocalDate) row[0],
+                ((Number) row[1]).longValue(),
+                ((Number) row[2]).longValue(),
+                ((Number) row[3]).longValue(),
+                ((Number) row[4]).longValue()
+            ));
+        }
+        return trend;
+    }
+
+    @Transactional(readOnly = true)
+    public AttendanceTrendPoint getSchoolTotalsForDate(LocalDate date) {
+        List<AttendanceTrendPoint> trend = getSchoolTrend(date, date);
+        return trend.isEmpty() ? new AttendanceTrendPoint(date, 0, 0, 0, 0) : trend.get(0);
+    }
+}
@@ -3,11 +3,14 @@ package com.gradepulse.service;
 import com.gradepulse.dto.AttendanceSubmission;
 import com.gradepulse.dto.StudentAttendanceDto;
 import com.gradepulse.model.*;
+import com.gradepulse.repository.AttendanceBatchWriter;
+import com.gradepulse.repository.AttendanceRecordHistoryRepository;
 import com.gradepulse.repository.AttendanceRecordRepository;
 import com.gradepulse.repository.ClassSectionRepository;
 import com.gradepulse.repository.StudentRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -15,18 +18,35 @@ import java.time.LocalDate;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class AttendanceService {
 
+    private static final DateTimeFormatter DISPLAY_DATE = DateTimeFormatter.ofPattern("dd MMM yyyy");
+
     private final AttendanceRecordRepository attendanceRepository;
+    private final AttendanceBatchWriter attendanceBatchWriter;
     private final ClassSectionRepository classSectionRepository;
     private final StudentRepository studentRepository;
-    private final WhatsAppService whatsAppService;
+    private final NotificationOutboxService outboxService;
+    private final AttendanceRollupService rollupService;
+    private final AttendanceSummaryService summaryService;
+    private final AttendancePercentService attendancePercentService;
+    private final AttendanceBitmapService bitmapService;
+    private final AttendanceRecordHistoryRepository historyRepository;
+    private final AttendanceArchiveService archiveService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MessageTemplateRegistry messageTemplates;
+    private final AttendanceDigestService digestService;
 
     @Transactional
     public AttendanceSubmissionResult submitAttendance(AttendanceSubmission submission) {
@@ -38,15 +58,49 @@ public class AttendanceService {
         ClassSection classSection = classSectionRepository.findById(classSectionId)
             .orElseThrow(() -> new IllegalArgumentException("Class section not found"));
 
+        if (archiveService.isArchived(classSection.getAcademicYear())) {
+            throw new IllegalArgumentException(
+                "Academic year " + classSection.getAcademicYear() + " is archived and can no longer be marked");
+        }
+
         LocalDate attendanceDate = submission.getAttendanceDate() != null 
             ? submission.getAttendanceDate() 
             : LocalDate.now();
 
         int successCount = 0;
         int failedCount = 0;
-        int whatsappSent = 0;
-        int whatsappFailed = 0;
+        int whatsappQueued = 0;
+        int noContactCount = 0;
+        int correctedCount = 0;
+        int unchangedCount = 0;
         List<String> errors = new ArrayList<>();
+        Map<AttendanceStatus, Integer> statusCounts = new EnumMap<>(AttendanceStatus.class);
+
+        // Lock the students first, then load them with one query; the marks read below can't
+        // change until this transaction ends
+        Map<Long, Student> studentsById = new HashMap<>();
+        List<Long> requestedIds = submission.getStudentAttendance().keySet().stream()
+            .filter(Objects::nonNull)
+            .toList();
+        if (!requestedIds.isEmpty()) {
+            studentRepository.lockForMarking(requestedIds);
+        }
+        for (Student student : studentRepository.findAllById(requestedIds)) {
+            studentsById.put(student.getId(), student);
+        }
+
+        // Existing marks for these students on this date, read (and locked) with one query
+        Map<Long, ExistingMark> existingMarks = new HashMap<>();
+        if (!requestedIds.isEmpty()) {
+            for (Object[] row : attendanceRepository.findMarksForUpdate(requestedIds, attendanceDate)) {
+                existingMarks.put(((Number) row[0]).longValue(), new ExistingMark(
+                    AttendanceStatus.valueOf((String) row[1]), ((Number) row[2]).longValue(), (String) row[3]));
+            }
+        }
+
+        List<AttendanceRecord> newRecords = new ArrayList<>();
+        Map<Long, AttendanceStatus> previousStatuses = new HashMap<>();
+        List<AttendanceRecordHistory> corrections = new ArrayList<>();
 
         for (Map.Entry<Long, AttendanceStatus> entry : submission.getStudentAttendance().entrySet()) {
             Long studentId = entry.getKey();
@@ -57,126 +111,149 @@ public class AttendanceService {
             }
             
             AttendanceStatus status = entry.getValue();
+            if (status == null) {
+                errors.add("Student ID " + studentId + " has no attendance status");
+                failedCount++;
+                continue;
+            }
 
-            try {
-                Student student = studentRepository.findById(studentId).orElse(null);
-                if (student == null) {
-                    errors.add("Student ID " + studentId + " not found");
-                    failedCount++;
-                    continue;
-                }
+            Student student = studentsById.get(studentId);
+            if (student == null) {
+                errors.add("Student ID " + studentId + " not found");
+                failedCount++;
+                continue;
+            }
 
-                // Check for duplicate
-                if (attendanceRepository.existsByStudentAndAttendanceDate(student, attendanceDate)) {
-                    log.warn("Attendance already marked for {} on {}", student.getFullName(), attendanceDate);
-                    errors.add(student.getFullName() + " - already marked for this date");
-                    failedCount++;
+            // Already marked: resubmitting the same status is a no-op, a different one is a correction
+            ExistingMark existing = existingMarks.get(studentId);
+            if (existing != null) {
+                if (existing.status() == status && existing.classSectionId().equals(classSectionId)) {
+                    unchangedCount++;
                     continue;
                 }
+                log.info("Correcting attendance for {} on {}: {} -> {}",
+                         student.getFullName(), attendanceDate, existing.status(), status);
+                previousStatuses.put(studentId, existing.status());
+                AttendanceRecordHistory correction = new AttendanceRecordHistory();
+                correction.setStudentId(studentId);
+                correction.setAttendanceDate(attendanceDate);
+                correction.setClassSectionId(existing.classSectionId());
+                correction.setPreviousStatus(existing.status());
+                correction.setNewStatus(status);
+                correction.setPreviousMarkedBy(existing.markedBy());
+                correction.setChangedBy(submission.getMarkedBy());
+                corrections.add(correction);
+            }
 
-                // Create attendance record
-                AttendanceRecord record = new AttendanceRecord();
-                record.setStudent(student);
-                record.setAttendanceDate(attendanceDate);
-                record.setStatus(status);
-                record.setClassSection(classSection);
-                record.setAcademicYear(classSection.getAcademicYear());
-                record.setMarkedBy(submission.getMarkedBy());
-
-                // Set arrival time for LATE status
-                if (status == AttendanceStatus.LATE && submission.getArrivalTimes() != null) {
-                    LocalTime arrivalTime = submission.getArrivalTimes().get(studentId);
-                    record.setArrivalTime(arrivalTime != null ? arrivalTime : LocalTime.now());
-                }
+            // Create attendance record
+            AttendanceRecord record = new AttendanceRecord();
+            record.setStudent(student);
+            record.setAttendanceDate(attendanceDate);
+            record.setStatus(status);
+            record.setClassSection(classSection);
+            record.setAcademicYear(classSection.getAcademicYear());
+            record.setMarkedBy(submission.getMarkedBy());
 
-                // Set notes if provided
-                if (submission.getNotes() != null && submission.getNotes().containsKey(studentId)) {
-                    record.setNotes(submission.getNotes().get(studentId));
-                }
+            // Set arrival time for LATE status
+            if (status == AttendanceStatus.LATE && submission.getArrivalTimes() != null) {
+                LocalTime arrivalTime = submission.getArrivalTimes().get(studentId);
+                record.setArrivalTime(arrivalTime != null ? arrivalTime : LocalTime.now());
+            }
+
+            // Set notes if provided
+            if (submission.getNotes() != null && submission.getNotes().containsKey(studentId)) {
+                record.setNotes(submission.getNotes().get(studentId));
+            }
 
-                attendanceRepository.save(record);
-                successCount++;
+            newRecords.add(record);
+        }
 
-                // Send WhatsApp notifications
-                sendWhatsAppNotifications(student, status, record.getArrivalTime(), classSection);
-                whatsappSent += 2; // Assuming sent to both parents
+        // Upsert the whole class in a single JDBC batch and log the corrections
+        attendanceBatchWriter.upsertAll(newRecords);
+        historyRepository.saveAll(corrections);
+        successCount = newRecords.size();
+        correctedCount = corrections.size();
 
-            } catch (Exception e) {
-                log.error("Error marking attendance for student {}: {}", studentId, e.getMessage());
-                errors.add("Student ID " + studentId + " - " + e.getMessage());
-                failedCount++;
+        // Queue WhatsApp notifications in the outbox; they are sent after this transaction commits.
+        // In digest mode only absences go out now and every mark is kept for the daily digest
+        List<OutboundMessage> notifications = new ArrayList<>();
+        for (AttendanceRecord record : newRecords) {
+            statusCounts.merge(record.getStatus(), 1, Integer::sum);
+            if (!hasParentContact(record.getStudent())) {
+                noContactCount++;
+            } else if (!digestService.holdsForDigest(record.getStatus())) {
+                addWhatsAppNotifications(notifications, record.getStudent(), record.getStatus(),
+                                         record.getArrivalTime(), classSection, record.getAttendanceDate());
             }
         }
+        outboxService.enqueueAll(notifications);
+        digestService.recordAll(newRecords);
+        whatsappQueued = notifications.size();
 
-        return new AttendanceSubmissionResult(successCount, failedCount, whatsappSent, whatsappFailed, errors);
+        // Keep the daily class rollups in step: corrections take the old status back out,
+        // from whichever section it was counted in
+        Map<Long, Map<AttendanceStatus, Integer>> reversals = new HashMap<>();
+        for (AttendanceRecordHistory correction : corrections) {
+            Map<AttendanceStatus, Integer> counts = correction.getClassSectionId().equals(classSectionId)
+                ? statusCounts
+                : reversals.computeIfAbsent(correction.getClassSectionId(), id -> new EnumMap<>(AttendanceStatus.class));
+            counts.merge(correction.getPreviousStatus(), -1, Integer::sum);
+        }
+        rollupService.applyCounts(classSection, attendanceDate, statusCounts, submission.getMarkedBy());
+        reversals.forEach((otherSectionId, counts) -> rollupService.applyReversal(
+            classSectionRepository.getReferenceById(otherSectionId), attendanceDate, counts));
+
+        // Set the day's bits in the compact analytics store
+        Map<Long, AttendanceBits> bits =
+            bitmapService.applyRecords(classSection.getAcademicYear(), classSection.getId(), newRecords);
+
+        // Advance each student's summary (last status, streak, counters), then write the derived
+        // attendance percentage back to every student of the sections whose marked days changed
+        summaryService.applyRecords(classSection.getAcademicYear(), newRecords, previousStatuses, bits);
+        Set<Long> percentSections = new HashSet<>(reversals.keySet());
+        percentSections.add(classSection.getId());
+        attendancePercentService.recalculateSections(percentSections);
+
+        eventPublisher.publishEvent(new AttendanceMarked(classSectionId, attendanceDate));
+
+        return new AttendanceSubmissionResult(successCount, failedCount, whatsappQueued, noContactCount, errors,
+                                              correctedCount, unchangedCount);
+    }
+
+    private static boolean hasParentContact(Student student) {
+        return (student.getFatherContact() != null && !student.getFatherContact().trim().isEmpty())
+            || (student.getMotherContact() != null && !student.getMotherContact().trim().isEmpty());
     }
 
-    private void sendWhatsAppNotifications(Student student, AttendanceStatus status, 
-                                          LocalTime arrivalTime, ClassSection classSection) {
-        String message = buildWhatsAppMessage(student, status, arrivalTime, classSection);
+    private void addWhatsAppNotifications(List<OutboundMessage> notifications, Student student,
+                                          AttendanceStatus status, LocalTime arrivalTime, ClassSection classSection,
+                                          LocalDate attendanceDate) {
+        String message = buildWhatsAppMessage(student, status, arrivalTime, classSection, attendanceDate);
         
-        // Send to father
+        // Notify father
         if (student.getFatherContact() != null && !student.getFatherContact().trim().isEmpty()) {
-            try {
-                whatsAppService.send(student.getFatherContact(), message);
-                log.info("Sent attendance notification to father: {}", student.getFatherContact());
-            } catch (Exception e) {
-                log.warn("Failed to send to father {}: {}", student.getFatherContact(), e.getMessage());
-            }
+            notifications.add(NotificationOutboxService.newMessage(
+                student.getFatherContact(), message, "ATTENDANCE", student.getId()));
         }
 
-        // Send to mother
+        // Notify mother
         if (student.getMotherContact() != null && !student.getMotherContact().trim().isEmpty()) {
-            try {
-                whatsAppService.send(student.getMotherContact(), message);
-                log.info("Sent attendance notification to mother: {}", student.getMotherContact());
-            } catch (Exception e) {
-                log.warn("Failed to send to mother {}: {}", student.getMotherContact(), e.getMessage());
-            }
+            notifications.add(NotificationOutboxService.newMessage(
+                student.getMotherContact(), message, "ATTENDANCE", student.getId()));
         }
     }
 
     private String buildWhatsAppMessage(Student student, AttendanceStatus status, 
-                                       LocalTime arrivalTime, ClassSection classSection) {
-        String dateStr = LocalDate.now().format(DateTimeFormatter.ofPattern("dd MMM yyyy"));
+                                       LocalTime arrivalTime, ClassSection classSection, LocalDate attendanceDate) {
         String classInfo = classSection.getClassName() + " " + classSection.getSectionName();
-        
-        return switch (status) {
-            case PRESENT -> String.format(
-                "✓ ATTENDANCE UPDATE\n\n" +
-                "%s (%s) is PRESENT today.\n\n" +
-                "Date: %s\n" +
-                "- GradePulse Team",
-                student.getFullName(), classInfo, dateStr
-            );
-            case ABSENT -> String.format(
-                "✗ ATTENDANCE ALERT\n\n" +
-                "%s (%s) is ABSENT today.\n\n" +
-                "Date: %s\n" +
-                "Please contact the school if this is an error.\n\n" +
-                "- GradePulse Team",
-                student.getFullName(), classInfo, dateStr
-            );
-            case LATE -> {
-                String timeStr = arrivalTime != null 
-                    ? arrivalTime.format(DateTimeFormatter.ofPattern("hh:mm a")) 
-                    : "N/A";
-                yield String.format(
-                    "⏰ ATTENDANCE UPDATE\n\n" +
-                    "%s (%s) arrived LATE today at %s.\n\n" +
-                    "Date: %s\n" +
-                    "- GradePulse Team",
-                    student.getFullName(), classInfo, timeStr, dateStr
-                );
-            }
-            case HALF_DAY -> String.format(
-                "½ ATTENDANCE UPDATE\n\n" +
-                "%s (%s) is marked HALF DAY today.\n\n" +
-                "Date: %s\n" +
-                "- GradePulse Team",
-                student.getFullName(), classInfo, dateStr
-            );
+        MessageTemplateKey template = switch (status) {
+            case PRESENT -> MessageTemplateKey.ATTENDANCE_PRESENT;
+            case ABSENT -> MessageTemplateKey.ATTENDANCE_ABSENT;
+            case LATE -> MessageTemplateKey.ATTENDANCE_LATE;
+            case HALF_DAY -> MessageTemplateKey.ATTENDANCE_HALF_DAY;
         };
+        return messageTemplates.render(template, student.getLanguagePreference(),
+                                       student.getFullName(), classInfo, attendanceDate, arrivalTime);
     }
 
     public List<StudentAttendanceDto> getStudentsForAttendance(Long classSectionId) {
@@ -204,53 +281,31 @@ public class AttendanceService {
         }
 
         List<StudentAttendanceDto> result = new ArrayList<>();
-        LocalDate today = LocalDate.now();
+        if (students.isEmpty()) {
+            return result;
+        }
+
+        // Attendance state for the whole section comes from the per-student summaries (one query)
+        List<Long> studentIds = students.stream().map(Student::getId).toList();
+        Map<Long, StudentAttendanceSummary> summaries =
+            summaryService.getSummaries(studentIds, classSection.getAcademicYear());
 
         for (Student student : students) {
             StudentAttendanceDto dto = new StudentAttendanceDto(student);
             
-            // Get last attendance
-            List<AttendanceRecord> recentRecords = attendanceRepository
-                .findRecentAttendanceByStudent(student, today.minusDays(30));
-            
-            if (!recentRecords.isEmpty()) {
-                AttendanceRecord lastRecord = recentRecords.get(0);
-                dto.setLastAttendanceStatus(lastRecord.getStatus().getDisplayName());
-                dto.setLastAttendanceDate(lastRecord.getAttendanceDate()
-                    .format(DateTimeFormatter.ofPattern("dd MMM yyyy")));
+            StudentAttendanceSummary summary = summaries.get(student.getId());
+            if (summary != null && summary.getLastStatus() != null) {
+                dto.setLastAttendanceStatus(summary.getLastStatus().getDisplayName());
+                dto.setLastAttendanceDate(summary.getLastAttendanceDate().format(DISPLAY_DATE));
+                dto.setConsecutiveAbsences(summary.getCurrentAbsenceStreak());
             }
 
-            // Calculate consecutive absences
-            int consecutiveAbsences = calculateConsecutiveAbsences(student);
-            dto.setConsecutiveAbsences(consecutiveAbsences);
-
             result.add(dto);
         }
 
         return result;
     }
 
-    private int calculateConsecutiveAbsences(Student student) {
-        List<AttendanceRecord> absences = attendanceRepository
-            .findConsecutiveAbsences(student, LocalDate.now().minusDays(30));
-        
-        int count = 0;
-        LocalDate expectedDate = LocalDate.now().minusDays(1);
-        
-        for (AttendanceRecord record : absences) {
-            if (record.getAttendanceDate().equals(expectedDate) || 
-                record.getAttendanceDate().equals(expectedDate.minusDays(1)) ||
-                record.getAttendanceDate().equals(expectedDate.minusDays(2))) {
-                count++;
-                expectedDate = record.getAttendanceDate().minusDays(1);
-            } else {
-                break;
-            }
-        }
-        
-        return count;
-    }
-
     public boolean isAttendanceMarkedForDate(Long classSectionId, LocalDate date) {
         if (classSectionId == null) {
             return false;
@@ -269,8 +324,15 @@ public class AttendanceService {
     public static class AttendanceSubmissionResult {
         private int successCount;
         private int failedCount;
-        private int whatsappSent;
-        private int whatsappFailed;
+        private int whatsappQueued;
+        private int noContactCount; // marked, but no father or mother contact to notify
         private List<String> errors;
+        private int correctedCount; // included in successCount
+        private int unchangedCount; // already marked with the same status; nothing written
     }
+
+    // Published by submitAttendance; listeners act once the transaction commits
+    public record AttendanceMarked(Long classSectionId, LocalDate date) {}
+
+    private record ExistingMark(AttendanceStatus status, Long classSectionId, String markedBy) {}
 }
@@ -0,0 +1,87 @@
+package com.gradepulse.service;
+
+import com.gradepulse.dto.AttendanceStatusBoard;
+import com.gradepulse.repository.AttendanceDailyRollupRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * School-wide "attendance marked today" board, built from the daily class rollup with one
+ * grouped query. Boards are cached until the next submission commits (or maxAge passes, to
+ * pick up rebuilds and other out-of-band writes), so a page polling every few seconds
+ * from many offices costs one query per change rather than one per poll.
+ */
+@Service
+@Slf4j
+public class AttendanceStatusBoardService {
+
+    private final AttendanceDailyRollupRepository rollupRepository;
+    private final Duration maxAge;
+
+    private final AtomicLong version = new AtomicLong(1);
+    private final Map<String, AttendanceStatusBoard> cache = new ConcurrentHashMap<>();
+
+    public AttendanceStatusBoardService(AttendanceDailyRollupRepository rollupRepository,
+                                        @Value("${gradepulse.attendance.board-max-age-seconds:60}") long maxAgeSeconds) {
+        this.rollupRepository = rollupRepository;
+        this.maxAge = Duration.ofSeconds(maxAgeSeconds);
+    }
+
+    @Transactional(readOnly = true)
+    public AttendanceStatusBoard getBoard(LocalDate date, String academicYear) {
+        String key = date + "|" + (academicYear != null ? academicYear : "");
+        long current = version.get();
+        AttendanceStatusBoard cached = cache.get(key);
+        if (cached != null && cached.getVersion() == current
+                && cached.getGeneratedAt().plus(maxAge).isAfter(LocalDateTime.now())) {
+            return cached;
+        }
+
+        List<AttendanceStatusBoard.Section> sections = new ArrayList<>();
+        for (Object[] row : rollupRepository.findStatusBoard(date, academicYear)) {
+            AttendanceStatusBoard.Section section = new AttendanceStatusBoard.Section();
+            section.setClassSectionId((Long) row[0]);
+            section.setAcademicYear((String) row[1]);
+            section.setBoard((String) row[2]);
+            section.setStream((String) row[3]);
+            section.setClassName((String) row[4]);
+            section.setSectionName((String) row[5]);
+            section.setPresentCount(row[6] != null ? (Integer) row[6] : 0);
+            section.setAbsentCount(row[7] != null ? (Integer) row[7] : 0);
+            section.setLateCount(row[8] != null ? (Integer) row[8] : 0);
+            section.setHalfDayCount(row[9] != null ? (Integer) row[9] : 0);
+            section.setMarkedBy((String) row[10]);
+            section.setMarkedAt((LocalDateTime) row[11]);
+            section.setMarked(section.getTotalCount() > 0);
+            sections.add(section);
+        }
+
+        AttendanceStatusBoard board = new AttendanceStatusBoard(date, LocalDateTime.now(), current, sections);
+        cache.put(key, board);
+        return board;
+    }
+
+    public long getVersion() {
+        return version.get();
+    }
+
+    // Drop every cached board once a submission is visible to readers
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAttendanceMarked(AttendanceService.AttendanceMarked event) {
+        version.incrementAndGet();
+        cache.clear();
+        log.debug("Status board invalidated by class section {} on {}", event.classSectionId(), event.date());
+    }
+}
@@ -0,0 +1,132 @@
+package com.gradepulse.service;
+
+import com.gradepulse.model.AttendanceBits;
+import com.gradepulse.model.AttendanceRecord;
+import com.gradepulse.model.AttendanceStatus;
+import com.gradepulse.model.Student;
+import com.gradepulse.model.StudentAttendanceSummary;
+import com.gradepulse.repository.StudentAttendanceSummaryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Maintains one attendance summary row per student per academic year.
+ * submitAttendance applies its new records here (one read, one batched write per class),
+ * and readers get last status, absence streak and counters without touching attendance_records.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AttendanceSummaryService {
+
+    private final StudentAttendanceSummaryRepository summaryRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Apply written records for one academic year. Records whose student appears in previousStatuses
+     * replaced an existing mark (a correction): the old status is taken back out of the counters and the
+     * streak is recomputed from the student's attendance bitmap. Returns the updated summaries keyed by student id.
+     * Publishes AbsenceStreaksChanged for students whose absence streak moved.
+     */
+    @Transactional
+    public Map<Long, StudentAttendanceSummary> applyRecords(String academicYear, List<AttendanceRecord> records,
+                                                            Map<Long, AttendanceStatus> previousStatuses,
+                                                            Map<Long, AttendanceBits> bitsByStudent) {
+        Map<Long, StudentAttendanceSummary> summaries = new HashMap<>();
+        if (records.isEmpty()) {
+            return summaries;
+        }
+
+        List<Long> studentIds = records.stream().map(r -> r.getStudent().getId()).toList();
+        Map<Long, Integer> streaksBefore = new HashMap<>();
+        for (StudentAttendanceSummary summary : summaryRepository.findByStudentIdsAndAcademicYear(studentIds, academicYear)) {
+            summaries.put(summary.getStudent().getId(), summary);
+            streaksBefore.put(summary.getStudent().getId(), summary.getCurrentAbsenceStreak());
+        }
+
+        for (AttendanceRecord record : records) {
+            Student student = record.getStudent();
+            StudentAttendanceSummary summary = summaries.computeIfAbsent(student.getId(), id -> {
+                StudentAttendanceSummary created = new StudentAttendanceSummary();
+                created.setStudent(student);
+                created.setAcademicYear(academicYear);
+                return created;
+            });
+            AttendanceStatus previous = previousStatuses.get(student.getId());
+            if (previous == null) {
+                summary.applyRecord(record.getStatus(), record.getAttendanceDate());
+            } else {
+                AttendanceBits bits = bitsByStudent.get(student.getId());
+                LocalDate lastDate = summary.getLastAttendanceDate() != null
+                    && summary.getLastAttendanceDate().isAfter(record.getAttendanceDate())
+                    ? summary.getLastAttendanceDate() : record.getAttendanceDate();
+                int day = AttendanceBits.dayIndex(academicYear, lastDate);
+                int streak = bits != null && day >= 0 ? bits.trailingAbsenceStreak(day) : -1;
+                summary.applyCorrection(previous, record.getStatus(), record.getAttendanceDate(), streak);
+            }
+        }
+
+        summaryRepository.saveAll(summaries.values());
+
+        List<StreakChange> changes = new ArrayList<>();
+        for (StudentAttendanceSummary summary : summaries.values()) {
+            int before = streaksBefore.getOrDefault(summary.getStudent().getId(), 0);
+            if (summary.getCurrentAbsenceStreak() != before) {
+                changes.add(new StreakChange(summary.getStudent(), before, summary.getCurrentAbsenceStreak(),
+                                             summary.getLastAttendanceDate()));
+            }
+        }
+        if (!changes.isEmpty()) {
+            eventPublisher.publishEvent(new AbsenceStreaksChanged(academicYear, changes));
+        }
+        return summaries;
+    }
+
+    // Published inside the writing transaction, so listeners can enqueue alerts atomically with the marks
+    public record AbsenceStreaksChanged(String academicYear, List<StreakChange> changes) {}
+
+    public record StreakChange(Student student, int previousStreak, int currentStreak, LocalDate asOf) {}
+
+    @Transactional(readOnly = true)
+    public Map<Long, StudentAttendanceSummary> getSummaries(Collection<Long> studentIds, String academicYear) {
+        Map<Long, StudentAttendanceSummary> summaries = new HashMap<>();
+        if (studentIds.isEmpty()) {
+            return summaries;
+        }
+        List<StudentAttendanceSummary> rows = academicYear != null
+            ? summaryRepository.findByStudentIdsAndAcademicYear(studentIds, academicYear)
+            : summaryRepository.findLatestByStudentIds(studentIds);
+        for (StudentAttendanceSummary summary : rows) {
+            summaries.put(summary.getStudent().getId(), summary);
+        }
+        return summaries;
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<StudentAttendanceSummary> getLatestSummary(Student student) {
+        return summaryRepository.findFirstByStudentOrderByAcademicYearDesc(student);
+    }
+
+    /**
+     * Rebuild job: recompute every summary from attendance_records with set-based statements.
+     */
+    @Transactional
+    public int rebuildAll() {
+        int deleted = summaryRepository.deleteUnarchivedRows();
+        int inserted = summaryRepository.insertCountsFromRecords();
+        summaryRepository.updateLastStatusAndStreaks();
+        log.info("Rebuilt student attendance summaries: removed {} rows, inserted {} rows", deleted, inserted);
+        return inserted;
+    }
+}
@@ -0,0 +1,188 @@
+package com.gradepulse.service;
+
+import com.gradepulse.dto.AttendanceSubmission;
+import com.gradepulse.dto.AttendanceSyncRequest;
+import com.gradepulse.dto.AttendanceSyncResult;
+import com.gradepulse.dto.AttendanceSyncResult.Outcome;
+import com.gradepulse.model.AttendanceSyncKey;
+import com.gradepulse.repository.AttendanceSyncKeyRepository;
+import com.gradepulse.repository.AttendanceSyncKeyWriter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.orm.jpa.JpaSystemException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Bulk attendance sync for the tablet app. Every class submission carries a client
+ * idempotency key; the key row is inserted in the same transaction as the class's
+ * attendance rows, so a replay (same key) returns the stored outcome and writes nothing.
+ *
+ * Known keys are looked up with one query per request. Each new class is applied in its
+ * own transaction through AttendanceService.submitAttendance (one batch insert per class),
+ * so one bad class doesn't roll back the others.
+ */
+@Service
+@Slf4j
+public class AttendanceSyncService {
+
+    private static final int MAX_KEY_LENGTH = 100;
+
+    private final AttendanceService attendanceService;
+    private final AttendanceSyncKeyRepository syncKeyRepository;
+    private final AttendanceSyncKeyWriter syncKeyWriter;
+    private final TransactionTemplate transactionTemplate;
+    private final int keyRetentionDays;
+
+    public AttendanceSyncService(AttendanceService attendanceService,
+                                 AttendanceSyncKeyRepository syncKeyRepository,
+                                 AttendanceSyncKeyWriter syncKeyWriter,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${gradepulse.attendance.sync-key-retention-days:30}") int keyRetentionDays) {
+        this.attendanceService = attendanceService;
+        this.syncKeyRepository = syncKeyRepository;
+        this.syncKeyWriter = syncKeyWriter;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.keyRetentionDays = keyRetentionDays;
+    }
+
+    public List<AttendanceSyncResult> sync(AttendanceSyncRequest request) {
+        List<AttendanceSyncRequest.Item> items = request.getSubmissions() != null ? request.getSubmissions() : List.of();
+
+        // One lookup for every key in the request
+        Map<String, AttendanceSyncResult> known = new HashMap<>();
+        List<String> keys = items.stream()
+            .map(AttendanceSyncRequest.Item::getIdempotencyKey)
+            .filter(Objects::nonNull)
+            .distinct()
+            .toList();
+        if (!keys.isEmpty()) {
+            for (AttendanceSyncKey key : syncKeyRepository.findByIdempotencyKeyIn(keys)) {
+                known.put(key.getIdempotencyKey(), replayed(key));
+            }
+        }
+
+        List<AttendanceSyncResult> results = new ArrayList<>(items.size());
+        for (AttendanceSyncRequest.Item item : items) {
+            String key = item.getIdempotencyKey();
+            String invalid = validate(item);
+            if (invalid != null) {
+                results.add(rejected(key, invalid));
+                continue;
+            }
+            AttendanceSyncResult previous = known.get(key);
+            if (previous != null) {
+                results.add(previous);
+                continue;
+            }
+
+            AttendanceSyncResult result = apply(item, request.getMarkedBy());
+            if (result.getOutcome() == Outcome.APPLIED) {
+                // A repeated key later in the same request is a replay of this one
+                known.put(key, new AttendanceSyncResult(key, Outcome.REPLAYED, result.getSuccessCount(),
+                                                        result.getFailedCount(), result.getWhatsappQueued(), List.of()));
+            }
+            results.add(result);
+        }
+
+        log.info("Attendance sync: {} submissions, {} applied", items.size(),
+                 results.stream().filter(r -> r.getOutcome() == Outcome.APPLIED).count());
+        return results;
+    }
+
+    private AttendanceSyncResult apply(AttendanceSyncRequest.Item item, String defaultMarkedBy) {
+        String key = item.getIdempotencyKey();
+        String markedBy = item.getMarkedBy() != null && !item.getMarkedBy().isEmpty()
+            ? item.getMarkedBy()
+            : defaultMarkedBy != null && !defaultMarkedBy.isEmpty() ? defaultMarkedBy : "Teacher";
+        LocalDate date = item.getAttendanceDate() != null ? item.getAttendanceDate() : LocalDate.now();
+
+        AttendanceSubmission submission = new AttendanceSubmission();
+        submission.setClassSectionId(item.getClassSectionId());
+        submission.setAttendanceDate(date);
+        submission.setStudentAttendance(item.getStudentAttendance());
+        submission.setArrivalTimes(item.getArrivalTimes());
+        submission.setNotes(item.getNotes());
+        submission.setMarkedBy(markedBy);
+
+        try {
+            return transactionTemplate.execute(status -> {
+                // Claim the key first with a plain INSERT: a concurrent request with the same key
+                // blocks on the primary key and then fails here, whichever one looked it up first
+                syncKeyWriter.claim(key, item.getClassSectionId(), date, markedBy);
+
+                AttendanceService.AttendanceSubmissionResult result = attendanceService.submitAttendance(submission);
+                syncKeyRepository.recordOutcome(key, result.getSuccessCount(), result.getFailedCount(),
+                                                result.getWhatsappQueued());
+                return new AttendanceSyncResult(key, Outcome.APPLIED, result.getSuccessCount(),
+                                                result.getFailedCount(), result.getWhatsappQueued(), result.getErrors());
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Lost the race to a concurrent replay of the same key
+            return syncKeyRepository.findById(key)
+                .map(this::replayed)
+                .orElseGet(() -> rejected(key, "Could not apply submission: " + e.getMostSpecificCause().getMessage()));
+        } catch (TransientDataAccessException | JpaSystemException e) {
+            // Typically a lock wait on the key that timed out while a concurrent replay was still
+            // being applied (H2 then closes the connection, so the rollback fails too): the other
+            // request decides, so report its outcome if it has one by now
+            return syncKeyRepository.findById(key)
+                .map(this::replayed)
+                .orElseGet(() -> rejected(key, "Could not apply submission, retry later: "
+                                               + e.getMostSpecificCause().getMessage()));
+        } catch (IllegalArgumentException e) {
+            return rejected(key, e.getMessage());
+        }
+    }
+
+    private String validate(AttendanceSyncRequest.Item item) {
+        String key = item.getIdempotencyKey();
+        if (key == null || key.isBlank()) {
+            return "Idempotency key is required";
+        }
+        if (key.length() > MAX_KEY_LENGTH) {
+            return "Idempotency key is longer than " + MAX_KEY_LENGTH + " characters";
+        }
+        if (item.getClassSectionId() == null) {
+            return "Class section ID cannot be null";
+        }
+        if (item.getStudentAttendance() == null || item.getStudentAttendance().isEmpty()) {
+            return "No attendance data provided";
+        }
+        if (item.getStudentAttendance().values().stream().anyMatch(Objects::isNull)) {
+            return "Every student needs an attendance status";
+        }
+        return null;
+    }
+
+    private AttendanceSyncResult replayed(AttendanceSyncKey key) {
+        return new AttendanceSyncResult(key.getIdempotencyKey(), Outcome.REPLAYED, key.getSuccessCount(),
+                                        key.getFailedCount(), key.getWhatsappQueued(), List.of());
+    }
+
+    private AttendanceSyncResult rejected(String key, String error) {
+        return new AttendanceSyncResult(key, Outcome.REJECTED, 0, 0, 0, List.of(error));
+    }
+
+    // Keys only need to outlive the app's offline retry window
+    @Scheduled(cron = "${gradepulse.attendance.sync-key-cleanup-cron:0 30 2 * * *}")
+    public void purgeExpiredKeys() {
+        Integer deleted = transactionTemplate.execute(status ->
+            syncKeyRepository.deleteCreatedBefore(LocalDateTime.now().minusDays(keyRetentionDays)));
+        if (deleted != null && deleted > 0) {
+            log.info("Purged {} expired attendance sync keys", deleted);
+        }
+    }
+}
@@ -6,6 +6,7 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -30,6 +31,7 @@ import java.util.regex.Pattern;
 public class ClassSectionMappingService {
     
     private final ClassSectionRepository classSectionRepository;
+    private final ApplicationEventPublisher eventPublisher;
     
     /**
      * Find or create ClassSection using separate fields (preferred method).
@@ -82,6 +84,7 @@ public class ClassSectionMappingService {
         
         ClassSection saved = classSectionRepository.save(newSection);
         log.info("✓ Created new ClassSection: {} (ID: {})", saved.getFullName(), saved.getId());
+        eventPublisher.publishEvent(new ClassSectionCreated(academicYear));
         
         return saved;
     }
@@ -137,6 +140,7 @@ public class ClassSectionMappingService {
         
         ClassSection saved = classSectionRepository.save(newSection);
         log.info("✓ Created new ClassSection: {} (ID: {})", saved.getFullName(), saved.getId());
+        eventPublisher.publishEvent(new ClassSectionCreated(academicYear));
         
         return saved;
     }
@@ -279,6 +283,9 @@ public class ClassSectionMappingService {
         };
     }
     
+    // Published when a section is created; ClassSectionTreeService drops that year's tree after commit
+    public record ClassSectionCreated(String academicYear) {}
+
     /**
      * DTO to hold parsed class components
      */
@@ -0,0 +1,102 @@
+package com.gradepulse.service;
+
+import com.gradepulse.dto.ClassSectionTree;
+import com.gradepulse.model.ClassSection;
+import com.gradepulse.repository.ClassSectionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory class-section hierarchy per academic year. Each year is loaded with one query
+ * on first use and kept until ClassSectionMappingService creates a section in that year.
+ *
+ * A version stamp guards against a load racing an invalidation: a tree whose load started
+ * before a section was created is returned to that caller but not kept, so the next request
+ * reloads instead of serving the stale tree until the following invalidation.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ClassSectionTreeService {
+
+    private final ClassSectionRepository classSectionRepository;
+
+    private final Map<String, CachedTree> trees = new ConcurrentHashMap<>();
+    private final AtomicLong version = new AtomicLong(); // bumped by every invalidation
+
+    public record CachedTree(ClassSectionTree tree, String etag) {}
+
+    public CachedTree getTree(String academicYear) {
+        CachedTree cached = trees.get(academicYear);
+        if (cached != null) {
+            return cached;
+        }
+        long stamp = version.get();
+        CachedTree loaded = load(academicYear);
+        cached = trees.putIfAbsent(academicYear, loaded);
+        if (cached != null) {
+            return cached;
+        }
+        if (version.get() != stamp) {
+            trees.remove(academicYear, loaded); // invalidated while loading
+        }
+        return loaded;
+    }
+
+    public List<String> getBoards(String academicYear) {
+        return new ArrayList<>(getTree(academicYear).tree().getBoards().keySet());
+    }
+
+    public List<String> getStreams(String academicYear, String board) {
+        return new ArrayList<>(getTree(academicYear).tree().getBoards().getOrDefault(board, Map.of()).keySet());
+    }
+
+    public List<String> getClassNames(String academicYear, String board, String stream) {
+        return new ArrayList<>(getTree(academicYear).tree().getBoards()
+            .getOrDefault(board, Map.of())
+            .getOrDefault(stream, Map.of())
+            .keySet());
+    }
+
+    public List<ClassSectionTree.Section> getSections(String academicYear, String board, String stream,
+                                                      String className) {
+        return getTree(academicYear).tree().getBoards()
+            .getOrDefault(board, Map.of())
+            .getOrDefault(stream, Map.of())
+            .getOrDefault(className, List.of());
+    }
+
+    private CachedTree load(String academicYear) {
+        Map<String, Map<String, Map<String, List<ClassSectionTree.Section>>>> boards = new TreeMap<>();
+        List<ClassSection> sections = classSectionRepository.findByAcademicYearAndIsActiveTrue(academicYear);
+        for (ClassSection cs : sections) {
+            boards.computeIfAbsent(cs.getBoard(), b -> new TreeMap<>())
+                .computeIfAbsent(cs.getStream(), s -> new TreeMap<>())
+                .computeIfAbsent(cs.getClassName(), c -> new ArrayList<>())
+                .add(new ClassSectionTree.Section(cs.getId(), cs.getSectionName()));
+        }
+        boards.values().forEach(streams -> streams.values().forEach(classes -> classes.values().forEach(
+            list -> list.sort(Comparator.comparing(ClassSectionTree.Section::getSectionName)))));
+
+        ClassSectionTree tree = new ClassSectionTree(academicYear, boards);
+        String etag = "\"tree-" + academicYear + "-" + Integer.toHexString(tree.hashCode()) + "\"";
+        log.debug("Loaded class-section tree for {}: {} sections", academicYear, sections.size());
+        return new CachedTree(tree, etag);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onClassSectionCreated(ClassSectionMappingService.ClassSectionCreated event) {
+        version.incrementAndGet();
+        trees.remove(event.academicYear());
+    }
+}
@@ -0,0 +1,135 @@
+package com.gradepulse.service;
+
+import com.gradepulse.model.MessageDeadLetter;
+import com.gradepulse.model.OutboundMessage;
+import com.gradepulse.model.OutboundMessageStatus;
+import com.gradepulse.model.SendFailureKind;
+import com.gradepulse.repository.MessageDeadLetterRepository;
+import com.gradepulse.repository.OutboundMessageRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Messages that will not be sent again on their own: failed permanently (invalid number,
+ * rejected) or out of retries. Each is marked FAILED in the outbox and recorded with its
+ * failure classification; re-driving puts the outbox row back in the queue with a fresh
+ * retry budget.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DeadLetterService {
+
+    private static final int REDRIVE_BATCH_SIZE = 500;
+
+    private final MessageDeadLetterRepository deadLetterRepository;
+    private final OutboundMessageRepository outboxRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Transactional
+    public void deadLetter(List<OutboundMessage> messages, SendFailureKind kind, String errorCode) {
+        List<MessageDeadLetter> entries = new ArrayList<>(messages.size());
+        for (OutboundMessage message : messages) {
+            message.setStatus(OutboundMessageStatus.FAILED);
+            message.setFailureKind(kind);
+
+            MessageDeadLetter entry = new MessageDeadLetter();
+            entry.setOutboxId(message.getId());
+            entry.setRecipient(message.getRecipient());
+            entry.setMessageType(message.getMessageType());
+            entry.setStudentId(message.getStudentId());
+            entry.setCampaignId(message.getCampaignId());
+            entry.setFailureKind(kind);
+            entry.setErrorCode(errorCode);
+            entry.setLastError(message.getLastError());
+            entry.setAttempts(message.getAttempts());
+            entries.add(entry);
+        }
+        outboxRepository.saveAll(messages);
+        deadLetterRepository.saveAll(entries);
+    }
+
+    public List<MessageDeadLetter> getOpen(int limit) {
+        return deadLetterRepository.findOpen(PageRequest.of(0, limit));
+    }
+
+    public Map<SendFailureKind, Long> countOpenByKind() {
+        Map<SendFailureKind, Long> counts = new EnumMap<>(SendFailureKind.class);
+        for (Object[] row : deadLetterRepository.countOpenByKind()) {
+            counts.put((SendFailureKind) row[0], ((Number) row[1]).longValue());
+        }
+        return counts;
+    }
+
+    /**
+     * Queue one dead-lettered message again. Returns false if the entry doesn't exist or was
+     * already re-driven.
+     */
+    @Transactional
+    public boolean redrive(Long deadLetterId, String redrivenBy) {
+        Optional<MessageDeadLetter> entry = deadLetterRepository.findById(deadLetterId)
+            .filter(d -> d.getRedrivenAt() == null);
+        entry.ifPresent(d -> requeue(List.of(d), redrivenBy));
+        return entry.isPresent();
+    }
+
+    /**
+     * Queue every open entry of the given kind (all kinds when null) again, e.g. once a
+     * provider outage is over or the credentials are fixed. Returns the number re-driven.
+     */
+    @Transactional
+    public int redriveAll(SendFailureKind kind, String redrivenBy) {
+        int total = 0;
+        List<MessageDeadLetter> batch;
+        do {
+            // Re-driven entries drop out of the open set, so the first page is always the next one
+            batch = deadLetterRepository.findOpenByKind(kind, PageRequest.of(0, REDRIVE_BATCH_SIZE));
+            requeue(batch, redrivenBy);
+            total += batch.size();
+        } while (batch.size() == REDRIVE_BATCH_SIZE);
+        if (total > 0) {
+            log.info("{} re-drove {} dead-lettered messages ({})", redrivenBy, total, kind != null ? kind : "all kinds");
+        }
+        return total;
+    }
+
+    private void requeue(List<MessageDeadLetter> entries, String redrivenBy) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, OutboundMessage> messages = outboxRepository
+            .findAllById(entries.stream().map(MessageDeadLetter::getOutboxId).toList()).stream()
+            .collect(Collectors.toMap(OutboundMessage::getId, Function.identity()));
+        for (MessageDeadLetter entry : entries) {
+            entry.setRedrivenAt(now);
+            entry.setRedrivenBy(redrivenBy);
+            OutboundMessage message = messages.get(entry.getOutboxId());
+            // Only rows still FAILED: a duplicate entry for an already re-queued row is just closed
+            if (message != null && message.getStatus() == OutboundMessageStatus.FAILED) {
+                message.setStatus(OutboundMessageStatus.PENDING);
+                message.setAttempts(0);
+                message.setThrottledAttempts(0);
+                message.setAvailableAt(null);
+                message.setLastError(null);
+                message.setFailureKind(null);
+            }
+        }
+        deadLetterRepository.saveAll(entries);
+        outboxRepository.saveAll(messages.values());
+        eventPublisher.publishEvent(new NotificationOutboxService.MessagesEnqueued(entries.size()));
+    }
+}
@@ -0,0 +1,165 @@
+package com.gradepulse.service;
+
+import com.gradepulse.dto.DeliveryStats;
+import com.gradepulse.model.DeliveryStatus;
+import com.gradepulse.repository.DeliveryStatusWriter;
+import com.gradepulse.repository.DeliveryStatusWriter.StatusEvent;
+import com.gradepulse.repository.OutboundMessageRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Ingests WhatsApp delivery status callbacks. The webhook only appends to an in-memory buffer;
+ * a scheduled flush writes everything buffered in batches of up to BATCH_SIZE, one transaction
+ * each (DeliveryStatusWriter), so a burst of thousands of callbacks costs a handful of commits.
+ *
+ * A callback can beat the dispatcher's own write of the SID it refers to. Events for SIDs not
+ * yet in the outbox are kept back for later flushes, for up to UNMATCHED_GRACE, before being
+ * written to the event log only.
+ */
+@Service
+@Slf4j
+public class DeliveryStatusService {
+
+    private static final int BATCH_SIZE = 1000;
+    private static final Duration UNMATCHED_GRACE = Duration.ofMinutes(2);
+
+    private final DeliveryStatusWriter statusWriter;
+    private final OutboundMessageRepository outboxRepository;
+    private final LinkedBlockingQueue<StatusEvent> buffer;
+    private final List<StatusEvent> unmatched = new ArrayList<>();
+    private final AtomicBoolean flushing = new AtomicBoolean(false);
+
+    public DeliveryStatusService(DeliveryStatusWriter statusWriter,
+                                 OutboundMessageRepository outboxRepository,
+                                 @Value("${gradepulse.whatsapp.status-buffer-capacity:100000}") int bufferCapacity) {
+        this.statusWriter = statusWriter;
+        this.outboxRepository = outboxRepository;
+        this.buffer = new LinkedBlockingQueue<>(bufferCapacity);
+    }
+
+    /**
+     * Buffer one callback. Returns false for a status we don't track. When the buffer is full
+     * the caller's thread flushes it, or waits briefly for a running flush to make room.
+     */
+    public boolean record(String providerSid, String callbackStatus, String errorCode) {
+        DeliveryStatus status = DeliveryStatus.fromCallback(callbackStatus);
+        if (providerSid == null || providerSid.isBlank() || status == null) {
+            return false;
+        }
+        StatusEvent event = new StatusEvent(providerSid.trim(), status,
+                                            errorCode != null && !errorCode.isBlank() ? errorCode.trim() : null,
+                                            LocalDateTime.now());
+        if (!buffer.offer(event)) {
+            flush();
+            try {
+                if (!buffer.offer(event, 5, TimeUnit.SECONDS)) {
+                    log.warn("Delivery status buffer full; dropped {} for {}", status, providerSid);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return true;
+    }
+
+    @Scheduled(fixedDelayString = "${gradepulse.whatsapp.status-flush-interval-ms:1000}")
+    public void flushBuffered() {
+        flush();
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    public int flush() {
+        if (!flushing.compareAndSet(false, true)) {
+            return 0;
+        }
+        int written = 0;
+        try {
+            List<StatusEvent> batch = new ArrayList<>(unmatched);
+            unmatched.clear();
+            buffer.drainTo(batch, BATCH_SIZE);
+            while (!batch.isEmpty()) {
+                written += writeBatch(batch);
+                batch = new ArrayList<>();
+                buffer.drainTo(batch, BATCH_SIZE);
+            }
+        } catch (RuntimeException e) {
+            log.error("Failed to write delivery status callbacks", e);
+        } finally {
+            flushing.set(false);
+        }
+        if (written > 0) {
+            log.debug("Wrote {} delivery status callbacks", written);
+        }
+        return written;
+    }
+
+    private int writeBatch(List<StatusEvent> batch) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        // Furthest status per SID; only that one touches the outbox row
+        Map<String, StatusEvent> furthest = new LinkedHashMap<>();
+        for (StatusEvent event : batch) {
+            furthest.merge(event.providerSid(), event,
+                           (a, b) -> b.status().getRank() >= a.status().getRank() ? b : a);
+        }
+        Set<String> known = outboxRepository.findKnownProviderSids(furthest.keySet());
+
+        List<StatusEvent> ready = new ArrayList<>();
+        LocalDateTime giveUpBefore = LocalDateTime.now().minus(UNMATCHED_GRACE);
+        for (StatusEvent event : batch) {
+            if (known.contains(event.providerSid()) || event.receivedAt().isBefore(giveUpBefore)) {
+                ready.add(event);
+            } else {
+                unmatched.add(event);
+            }
+        }
+        furthest.keySet().retainAll(known);
+        statusWriter.write(ready, furthest.values());
+        return ready.size();
+    }
+
+    public DeliveryStats getDailyStats(LocalDate date) {
+        return toStats(date.toString(), outboxRepository.countDeliveryStatusSentBetween(
+            date.atStartOfDay(), date.plusDays(1).atStartOfDay()));
+    }
+
+    public DeliveryStats getCampaignStats(String campaignId) {
+        return toStats(campaignId, outboxRepository.countDeliveryStatusForCampaign(campaignId));
+    }
+
+    private static DeliveryStats toStats(String scope, List<Object[]> rows) {
+        Map<String, Long> byStatus = new HashMap<>();
+        long sent = 0;
+        long providerMessages = 0;
+        for (Object[] row : rows) {
+            String status = row[0] != null ? ((DeliveryStatus) row[0]).name() : "NONE";
+            long count = ((Number) row[1]).longValue();
+            byStatus.merge(status, count, Long::sum);
+            sent += count;
+            providerMessages += ((Number) row[2]).longValue();
+        }
+        return new DeliveryStats(scope, sent, providerMessages, byStatus);
+    }
+}
@@ -0,0 +1,83 @@
+package com.gradepulse.service;
+
+import com.gradepulse.model.InboundMessage;
+import com.gradepulse.model.InboundMessageStatus;
+import com.gradepulse.model.MessageLanguage;
+import com.gradepulse.model.OutboundMessage;
+import com.gradepulse.model.Student;
+import com.gradepulse.repository.InboundMessageRepository;
+import com.gradepulse.repository.StudentRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Acts on one recorded inbound WhatsApp message: a language choice (1-4) updates the preference
+ * of every child the sender is a contact for (the language belongs to the parent, so siblings
+ * share it) and confirms it, anything else gets the language prompt. Replies are queued in the
+ * outbox. The message is claimed in the same transaction, so it is handled exactly once even
+ * if the hand-off and the retry poll both pick it up.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class InboundMessageProcessor {
+
+    private final InboundMessageRepository inboundRepository;
+    private final StudentRepository studentRepository;
+    private final NotificationOutboxService outboxService;
+    private final MessageTemplateRegistry messageTemplates;
+
+    @Transactional
+    public void process(String messageSid) {
+        if (inboundRepository.claim(messageSid, LocalDateTime.now()) == 0) {
+            return; // already handled
+        }
+        InboundMessage message = inboundRepository.findById(messageSid).orElseThrow();
+        String from = message.getSender();
+        String text = message.getBody() != null ? message.getBody().trim() : "";
+
+        List<Student> children =
+            studentRepository.findByFatherContactOrMotherContactOrGuardianContactOrderById(from, from, from);
+        if (children.isEmpty()) {
+            message.setStatus(InboundMessageStatus.IGNORED);
+            log.debug("Inbound message {} from unknown contact {}", messageSid, from);
+            return;
+        }
+
+        Student first = children.get(0);
+        List<OutboundMessage> replies = new ArrayList<>();
+        MessageLanguage language = MessageLanguage.fromMenuChoice(text);
+        if (language == null) {
+            replies.add(NotificationOutboxService.newMessage(from,
+                messageTemplates.render(MessageTemplateKey.LANGUAGE_PROMPT, first.getLanguagePreference()),
+                "REPLY", first.getId()));
+        } else {
+            // Confirmed once, in the language just chosen
+            replies.add(NotificationOutboxService.newMessage(from,
+                messageTemplates.render(MessageTemplateKey.LANGUAGE_SET, language), "REPLY", first.getId()));
+
+            for (Student student : children) {
+                student.setLanguagePreference(language.name());
+
+                // Notify other parent
+                String notice = messageTemplates.render(MessageTemplateKey.LANGUAGE_NOTICE, language, student.getFullName());
+                if (student.getFatherContact() != null && !from.equals(student.getFatherContact())) {
+                    replies.add(NotificationOutboxService.newMessage(student.getFatherContact(), notice, "LANGUAGE", student.getId()));
+                }
+                if (student.getMotherContact() != null && !from.equals(student.getMotherContact())) {
+                    replies.add(NotificationOutboxService.newMessage(student.getMotherContact(), notice, "LANGUAGE", student.getId()));
+                }
+            }
+            if (children.size() > 1) {
+                log.info("Language {} set for {} children of {}", language, children.size(), from);
+            }
+        }
+        outboxService.enqueueAll(replies);
+    }
+}
@@ -0,0 +1,116 @@
+package com.gradepulse.service;
+
+import com.gradepulse.model.InboundMessageStatus;
+import com.gradepulse.repository.InboundMessageRepository;
+import com.gradepulse.repository.InboundMessageWriter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Inbound WhatsApp messages: the webhook only records them (accept), deduplicated by Twilio's
+ * MessageSid, and returns; InboundMessageProcessor handles each one on an async worker. A
+ * message whose hand-off was lost (restart) or whose processing failed is picked up again by
+ * the poll, up to gradepulse.whatsapp.inbound-max-attempts.
+ */
+@Service
+@Slf4j
+public class InboundMessageService {
+
+    private static final Duration RETRY_AFTER = Duration.ofSeconds(30);
+    private static final int RETRY_BATCH_SIZE = 100;
+
+    private final InboundMessageWriter inboundWriter;
+    private final InboundMessageRepository inboundRepository;
+    private final InboundMessageProcessor processor;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxAttempts;
+    private final int retentionDays;
+
+    public InboundMessageService(InboundMessageWriter inboundWriter,
+                                 InboundMessageRepository inboundRepository,
+                                 InboundMessageProcessor processor,
+                                 ApplicationEventPublisher eventPublisher,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${gradepulse.whatsapp.inbound-max-attempts:3}") int maxAttempts,
+                                 @Value("${gradepulse.whatsapp.inbound-retention-days:30}") int retentionDays) {
+        this.inboundWriter = inboundWriter;
+        this.inboundRepository = inboundRepository;
+        this.processor = processor;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxAttempts = maxAttempts;
+        this.retentionDays = retentionDays;
+    }
+
+    /**
+     * Record an inbound message for processing. Returns false for a redelivery of a message
+     * that was already recorded; it is not processed again.
+     */
+    public boolean accept(String messageSid, String from, String body) {
+        if (!inboundWriter.insertIfAbsent(messageSid, from, body, LocalDateTime.now())) {
+            log.debug("Ignoring redelivered inbound message {}", messageSid);
+            return false;
+        }
+        eventPublisher.publishEvent(new InboundMessageReceived(messageSid));
+        return true;
+    }
+
+    @Async
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onInboundMessage(InboundMessageReceived event) {
+        process(event.messageSid());
+    }
+
+    @Scheduled(fixedDelayString = "${gradepulse.whatsapp.inbound-retry-interval-ms:60000}", initialDelay = 15000)
+    public void processWaiting() {
+        List<String> waiting = inboundRepository.findWaitingSince(
+            LocalDateTime.now().minus(RETRY_AFTER), PageRequest.of(0, RETRY_BATCH_SIZE));
+        if (!waiting.isEmpty()) {
+            log.info("Retrying {} inbound WhatsApp messages", waiting.size());
+            waiting.forEach(this::process);
+        }
+    }
+
+    private void process(String messageSid) {
+        try {
+            processor.process(messageSid);
+        } catch (Exception e) {
+            String error = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            log.warn("Failed to process inbound message {}: {}", messageSid, error);
+            // The processing transaction rolled back, so the message is still RECEIVED
+            transactionTemplate.executeWithoutResult(status -> inboundRepository.findById(messageSid).ifPresent(m -> {
+                m.setAttempts(m.getAttempts() + 1);
+                m.setLastError(error.length() > 500 ? error.substring(0, 500) : error);
+                if (m.getAttempts() >= maxAttempts) {
+                    m.setStatus(InboundMessageStatus.FAILED);
+                }
+            }));
+        }
+    }
+
+    // Only needs to outlive Twilio's redelivery window; kept longer for troubleshooting
+    @Scheduled(cron = "${gradepulse.whatsapp.inbound-cleanup-cron:0 45 2 * * *}")
+    public void purgeHandled() {
+        Integer deleted = transactionTemplate.execute(status ->
+            inboundRepository.deleteHandledBefore(LocalDateTime.now().minusDays(retentionDays)));
+        if (deleted != null && deleted > 0) {
+            log.info("Purged {} handled inbound WhatsApp messages", deleted);
+        }
+    }
+
+    public record InboundMessageReceived(String messageSid) {}
+}
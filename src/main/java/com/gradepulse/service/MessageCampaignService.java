@@ -0,0 +1,148 @@
+package com.gradepulse.service;
+
+import com.gradepulse.dto.CampaignProgress;
+import com.gradepulse.dto.CampaignRecipient;
+import com.gradepulse.model.CampaignSegment;
+import com.gradepulse.model.MessageCampaign;
+import com.gradepulse.model.OutboundMessage;
+import com.gradepulse.model.OutboundMessageStatus;
+import com.gradepulse.repository.MessageCampaignRepository;
+import com.gradepulse.repository.OutboundMessageRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Queues a bulk send as one campaign and reports its progress. The messages go through the
+ * outbox like any other, so the dispatcher's concurrency, rate limits and per-parent coalescing
+ * all apply; a campaign only tags them so they can be counted together.
+ *
+ * The campaign's outbox rows are its per-recipient state. They are persistent, so a campaign
+ * that runs into the daily quota (ours or the provider's) is carried over and resumes by
+ * itself in the next window, across restarts. A parent who already has the same alert queued
+ * for a student is left out, so starting the same campaign twice doesn't message anyone twice.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MessageCampaignService {
+
+    private final MessageCampaignRepository campaignRepository;
+    private final OutboundMessageRepository outboxRepository;
+    private final NotificationOutboxService outboxService;
+
+    private static final int LOOKUP_CHUNK_SIZE = 1000;
+    private static final int MAX_RECIPIENTS_PAGE_SIZE = 1000;
+
+    @Transactional
+    public MessageCampaign startCampaign(String name, String messageType, CampaignSegment segment, String alertType,
+                                         int studentCount, List<OutboundMessage> messages, String createdBy) {
+        // One message per (student, parent), and none for a parent who still has this alert queued
+        Set<String> queued = pendingRecipients(messageType, messages);
+        List<OutboundMessage> toSend = new ArrayList<>(messages.size());
+        for (OutboundMessage message : messages) {
+            if (queued.add(recipientKey(message.getStudentId(), OutboundMessage.normalizeContact(message.getRecipient())))) {
+                toSend.add(message);
+            }
+        }
+
+        MessageCampaign campaign = new MessageCampaign();
+        campaign.setId(UUID.randomUUID().toString());
+        campaign.setName(name);
+        campaign.setMessageType(messageType);
+        campaign.setTargetSegment(segment);
+        campaign.setTargetMinPercent(segment.getMinPercent());
+        campaign.setTargetMaxPercent(segment.getMaxPercent());
+        campaign.setAlertType(alertType);
+        campaign.setStudentCount(studentCount);
+        campaign.setMessageCount(toSend.size());
+        campaign.setSkippedCount(messages.size() - toSend.size());
+        campaign.setCreatedBy(createdBy);
+        MessageCampaign saved = campaignRepository.save(campaign);
+
+        for (OutboundMessage message : toSend) {
+            message.setCampaignId(saved.getId());
+        }
+        outboxService.enqueueAll(toSend);
+        log.info("Started campaign {} '{}': {} messages for {} students ({} already queued)",
+                 saved.getId(), name, toSend.size(), studentCount, saved.getSkippedCount());
+        return saved;
+    }
+
+    // "studentId|recipientKey" of every message of this type still waiting for these students
+    private Set<String> pendingRecipients(String messageType, List<OutboundMessage> messages) {
+        List<Long> studentIds = messages.stream()
+            .map(OutboundMessage::getStudentId)
+            .filter(Objects::nonNull)
+            .distinct()
+            .toList();
+        Set<String> keys = new HashSet<>();
+        for (int from = 0; from < studentIds.size(); from += LOOKUP_CHUNK_SIZE) {
+            List<Long> chunk = studentIds.subList(from, Math.min(from + LOOKUP_CHUNK_SIZE, studentIds.size()));
+            for (Object[] row : outboxRepository.findPendingRecipients(messageType, chunk)) {
+                keys.add(recipientKey((Long) row[0], (String) row[1]));
+            }
+        }
+        return keys;
+    }
+
+    private static String recipientKey(Long studentId, String contactKey) {
+        return studentId + "|" + contactKey;
+    }
+
+    public List<CampaignProgress> getRecentProgress() {
+        return campaignRepository.findTop5ByOrderByCreatedAtDesc().stream()
+            .map(this::progressOf)
+            .toList();
+    }
+
+    // One page of recipients after the given message id (0 for the first page); nextAfterId is
+    // null on the last page
+    public RecipientPage getRecipients(String campaignId, long afterId, int limit) {
+        int size = Math.min(Math.max(limit, 1), MAX_RECIPIENTS_PAGE_SIZE);
+        List<CampaignRecipient> rows = outboxRepository.findRecipientsForCampaign(
+            campaignId, afterId, PageRequest.of(0, size + 1));
+        if (rows.size() <= size) {
+            return new RecipientPage(rows, null);
+        }
+        List<CampaignRecipient> page = rows.subList(0, size);
+        return new RecipientPage(page, page.get(size - 1).getMessageId());
+    }
+
+    public record RecipientPage(List<CampaignRecipient> recipients, Long nextAfterId) {}
+
+    public Optional<CampaignProgress> getProgress(String campaignId) {
+        return campaignRepository.findById(campaignId).map(this::progressOf);
+    }
+
+    private CampaignProgress progressOf(MessageCampaign campaign) {
+        long pending = 0, sent = 0, failed = 0;
+        for (Object[] row : outboxRepository.countByStatusForCampaign(campaign.getId())) {
+            long count = ((Number) row[1]).longValue();
+            switch ((OutboundMessageStatus) row[0]) {
+                case PENDING -> pending = count;
+                case SENT -> sent = count;
+                case FAILED -> failed = count;
+            }
+        }
+        LocalDateTime resumesAt = null;
+        if (pending > 0) {
+            LocalDateTime next = outboxRepository.findNextAvailableAtForCampaign(campaign.getId());
+            resumesAt = next != null && next.isAfter(LocalDateTime.now()) ? next : null;
+        }
+        return new CampaignProgress(campaign.getId(), campaign.getName(), campaign.getTargetSegment(),
+                                    campaign.getCreatedAt(), campaign.getMessageCount(), pending, sent, failed,
+                                    campaign.getSkippedCount(), resumesAt);
+    }
+}
@@ -0,0 +1,150 @@
+package com.gradepulse.service;
+
+import com.gradepulse.model.MessageLanguage;
+import com.gradepulse.model.OutboundMessage;
+import com.gradepulse.repository.OutboundMessageRepository;
+import com.gradepulse.repository.StudentRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Combines queued messages for the same parent into one WhatsApp message.
+ *
+ * New messages are held for a short window after they are queued. When one of them comes due,
+ * everything else pending for the same normalized number (OutboundMessage.normalizeContact) in
+ * that window goes out with it: a parent of three children gets one attendance message in the
+ * morning instead of three. Identical bodies (e.g. the same alert queued for a father and mother
+ * sharing a phone) are sent once. Replies to a parent's own message are never held or combined.
+ * A combined message is headed (COALESCED_HEADER) in the language of the first child it's about.
+ */
+@Service
+@Slf4j
+public class MessageCoalescer {
+
+    // Twilio rejects WhatsApp bodies longer than this; longer groups are split
+    static final int MAX_BODY_LENGTH = 1600;
+
+    private static final Set<String> SEND_IMMEDIATELY = Set.of("REPLY");
+    private static final String SEPARATOR = "\n\n- - -\n\n";
+
+    private final OutboundMessageRepository outboxRepository;
+    private final StudentRepository studentRepository;
+    private final MessageTemplateRegistry messageTemplates;
+    private final Duration window;
+
+    public MessageCoalescer(OutboundMessageRepository outboxRepository,
+                            StudentRepository studentRepository,
+                            MessageTemplateRegistry messageTemplates,
+                            @Value("${gradepulse.whatsapp.coalesce-window-seconds:120}") long windowSeconds) {
+        this.outboxRepository = outboxRepository;
+        this.studentRepository = studentRepository;
+        this.messageTemplates = messageTemplates;
+        this.window = Duration.ofSeconds(Math.max(windowSeconds, 0));
+    }
+
+    // When a message queued now may first be sent; null means immediately
+    public LocalDateTime holdUntil(OutboundMessage message) {
+        return isCoalescible(message) ? LocalDateTime.now().plus(window) : null;
+    }
+
+    /**
+     * The sends that deliver the given due message: one when it can be combined with the rest of
+     * its parent's pending messages, more only if the combined text would exceed MAX_BODY_LENGTH.
+     * Messages already handed to a send (inFlight) are left out. Empty if the message is no
+     * longer pending.
+     */
+    public List<Delivery> coalesce(OutboundMessage due, LocalDateTime now, Set<Long> inFlight) {
+        if (!isCoalescible(due) || due.getRecipientKey() == null) {
+            return List.of(new Delivery(due.getBody(), List.of(due)));
+        }
+        List<OutboundMessage> group = new ArrayList<>();
+        for (OutboundMessage message : outboxRepository.findPendingForRecipient(due.getRecipientKey(), now.plus(window))) {
+            if (isCoalescible(message) && !inFlight.contains(message.getId())) {
+                group.add(message);
+            }
+        }
+        if (group.stream().noneMatch(m -> m.getId().equals(due.getId()))) {
+            return List.of(); // no longer pending: already went out with an earlier group
+        }
+        if (group.size() > 1) {
+            log.debug("Coalescing {} messages for {}", group.size(), due.getRecipientKey());
+        }
+        return render(group);
+    }
+
+    private List<Delivery> render(List<OutboundMessage> group) {
+        // Same text for the same parent is only worth sending once
+        Map<String, List<OutboundMessage>> byBody = new LinkedHashMap<>();
+        for (OutboundMessage message : group) {
+            byBody.computeIfAbsent(message.getBody(), b -> new ArrayList<>()).add(message);
+        }
+
+        if (byBody.size() == 1) {
+            return List.of(new Delivery(group.get(0).getBody(), group));
+        }
+        MessageLanguage language = languageOf(group);
+
+        List<Delivery> deliveries = new ArrayList<>();
+        List<String> bodies = new ArrayList<>();
+        List<OutboundMessage> carried = new ArrayList<>();
+        int length = 0;
+        for (Map.Entry<String, List<OutboundMessage>> entry : byBody.entrySet()) {
+            int added = entry.getKey().length() + (bodies.isEmpty() ? 0 : SEPARATOR.length());
+            if (!bodies.isEmpty() && header(language, bodies.size() + 1).length() + length + added > MAX_BODY_LENGTH) {
+                deliveries.add(new Delivery(combine(language, bodies), carried));
+                bodies = new ArrayList<>();
+                carried = new ArrayList<>();
+                length = 0;
+                added = entry.getKey().length();
+            }
+            bodies.add(entry.getKey());
+            carried.addAll(entry.getValue());
+            length += added;
+        }
+        deliveries.add(new Delivery(combine(language, bodies), carried));
+        return deliveries;
+    }
+
+    private String combine(MessageLanguage language, List<String> bodies) {
+        return bodies.size() == 1 ? bodies.get(0) : header(language, bodies.size()) + String.join(SEPARATOR, bodies);
+    }
+
+    private String header(MessageLanguage language, int count) {
+        return messageTemplates.render(MessageTemplateKey.COALESCED_HEADER, language, count) + "\n\n";
+    }
+
+    // The parent's language, as stored on the first child the group is about
+    private MessageLanguage languageOf(List<OutboundMessage> group) {
+        return group.stream()
+            .map(OutboundMessage::getStudentId)
+            .filter(Objects::nonNull)
+            .findFirst()
+            .flatMap(studentRepository::findLanguagePreference)
+            .map(MessageLanguage::of)
+            .orElse(MessageLanguage.ENGLISH);
+    }
+
+    private boolean isCoalescible(OutboundMessage message) {
+        return !window.isZero() && !SEND_IMMEDIATELY.contains(message.getMessageType());
+    }
+
+    /**
+     * One WhatsApp send: the text to deliver and the queued messages it carries. The first
+     * message is the carrier; the others are recorded as coalesced into it.
+     */
+    public record Delivery(String body, List<OutboundMessage> messages) {
+        public OutboundMessage carrier() {
+            return messages.get(0);
+        }
+    }
+}
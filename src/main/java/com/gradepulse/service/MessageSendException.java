@@ -0,0 +1,31 @@
+package com.gradepulse.service;
+
+import com.gradepulse.model.SendFailureKind;
+import lombok.Getter;
+
+/**
+ * Thrown by a MessageTransport when the provider did not accept a message, with the failure
+ * classified so OutboxDispatcher can decide between retrying and dead-lettering.
+ */
+@Getter
+public class MessageSendException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final SendFailureKind kind;
+    private final String errorCode; // provider error code, if any
+
+    public MessageSendException(SendFailureKind kind, String errorCode, String message, Throwable cause) {
+        super(message, cause);
+        this.kind = kind;
+        this.errorCode = errorCode;
+    }
+
+    public static SendFailureKind kindOf(Throwable error) {
+        return error instanceof MessageSendException e ? e.getKind() : SendFailureKind.UNKNOWN;
+    }
+
+    public static String errorCodeOf(Throwable error) {
+        return error instanceof MessageSendException e ? e.getErrorCode() : null;
+    }
+}
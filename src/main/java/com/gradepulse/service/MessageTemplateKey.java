@@ -0,0 +1,50 @@
+package com.gradepulse.service;
+
+/**
+ * Every WhatsApp message the application sends, with the placeholders its template may use.
+ * Arguments are passed to MessageTemplateRegistry.render in the order listed here.
+ */
+public enum MessageTemplateKey {
+    ATTENDANCE_PRESENT("attendance.present", "student", "class", "date"),
+    ATTENDANCE_ABSENT("attendance.absent", "student", "class", "date"),
+    ATTENDANCE_LATE("attendance.late", "student", "class", "date", "time"),
+    ATTENDANCE_HALF_DAY("attendance.half-day", "student", "class", "date"),
+    DIGEST_HEADER("digest.header", "date"),
+    DIGEST_PRESENT("digest.present", "student", "class", "time"),
+    DIGEST_ABSENT("digest.absent", "student", "class", "time"),
+    DIGEST_LATE("digest.late", "student", "class", "time"),
+    DIGEST_HALF_DAY("digest.half-day", "student", "class", "time"),
+    DIGEST_FOOTER("digest.footer"),
+    COALESCED_HEADER("coalesced.header", "count"),
+    ABSENCE_STREAK("absence.streak", "student", "days", "date"),
+    ALERT_CRITICAL("alert.critical", "student", "class", "attendance"),
+    ALERT_WARNING("alert.warning", "student", "class", "attendance"),
+    ALERT_REMINDER("alert.reminder", "student", "class", "attendance"),
+    ALERT_UPDATE("alert.update", "student", "class", "attendance"),
+    WELCOME("welcome"),
+    LANGUAGE_PROMPT("language.prompt"),
+    LANGUAGE_SET("language.set"),
+    LANGUAGE_NOTICE("language.notice", "student");
+
+    private final String key;
+    private final String[] parameters;
+
+    MessageTemplateKey(String key, String... parameters) {
+        this.key = key;
+        this.parameters = parameters;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    // Position of a placeholder in the argument list, or -1 if this message doesn't have it
+    int indexOf(String parameter) {
+        for (int i = 0; i < parameters.length; i++) {
+            if (parameters[i].equals(parameter)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,166 @@
+package com.gradepulse.service;
+
+import com.gradepulse.model.MessageLanguage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * WhatsApp message templates, one file per language under classpath:messages/
+ * (whatsapp_en.properties, whatsapp_hi.properties, ...). Placeholders are written {name}.
+ *
+ * Every template is parsed once at startup into literal segments and argument slots, and a
+ * placeholder the message doesn't declare (MessageTemplateKey) fails startup rather than a
+ * send. Rendering is then a single pass into a pre-sized StringBuilder, with dates and times
+ * written through the language's formatters, built once per MessageLanguage and shared by all
+ * threads. A template missing from a language falls back to English.
+ */
+@Component
+@Slf4j
+public class MessageTemplateRegistry {
+
+    private static final String NO_VALUE = "N/A";
+
+    // [key ordinal][language ordinal]
+    private final CompiledTemplate[][] templates =
+        new CompiledTemplate[MessageTemplateKey.values().length][MessageLanguage.values().length];
+
+    public MessageTemplateRegistry() {
+        for (MessageLanguage language : MessageLanguage.values()) {
+            Properties source = load(language);
+            for (MessageTemplateKey key : MessageTemplateKey.values()) {
+                String text = source.getProperty(key.getKey());
+                if (text != null) {
+                    templates[key.ordinal()][language.ordinal()] = CompiledTemplate.compile(key, language, text);
+                } else if (language == MessageLanguage.ENGLISH) {
+                    throw new IllegalStateException("Missing English message template " + key.getKey());
+                } else {
+                    log.debug("No {} template for {}; English is used", language, key.getKey());
+                    templates[key.ordinal()][language.ordinal()] = templates[key.ordinal()][MessageLanguage.ENGLISH.ordinal()];
+                }
+            }
+        }
+        log.info("Compiled {} message templates in {} languages",
+                 MessageTemplateKey.values().length, MessageLanguage.values().length);
+    }
+
+    public String render(MessageTemplateKey key, MessageLanguage language, Object... args) {
+        return templates[key.ordinal()][language.ordinal()].render(language, args);
+    }
+
+    // Renders in the language of a stored preference (Student.languagePreference)
+    public String render(MessageTemplateKey key, String languagePreference, Object... args) {
+        return render(key, MessageLanguage.of(languagePreference), args);
+    }
+
+    private static Properties load(MessageLanguage language) {
+        String path = "messages/whatsapp_" + language.getCode() + ".properties";
+        Properties properties = new Properties();
+        InputStream in = MessageTemplateRegistry.class.getClassLoader().getResourceAsStream(path);
+        if (in == null) {
+            if (language == MessageLanguage.ENGLISH) {
+                throw new IllegalStateException("Missing " + path);
+            }
+            return properties;
+        }
+        try (InputStreamReader reader = new InputStreamReader(in, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not read " + path, e);
+        }
+        return properties;
+    }
+
+    /**
+     * A parsed template: literals[0], arg, literals[1], arg, ... literals[n].
+     */
+    private static final class CompiledTemplate {
+
+        private final String[] literals;
+        private final int[] slots;
+        private final int capacity;
+
+        private CompiledTemplate(String[] literals, int[] slots, int capacity) {
+            this.literals = literals;
+            this.slots = slots;
+            this.capacity = capacity;
+        }
+
+        static CompiledTemplate compile(MessageTemplateKey key, MessageLanguage language, String text) {
+            List<String> literals = new ArrayList<>();
+            List<Integer> slots = new ArrayList<>();
+            int literalLength = 0;
+            int start = 0;
+            int open;
+            while ((open = text.indexOf('{', start)) >= 0) {
+                int close = text.indexOf('}', open);
+                if (close < 0) {
+                    throw new IllegalStateException("Unclosed placeholder in " + language + " template " + key.getKey());
+                }
+                String name = text.substring(open + 1, close).trim();
+                int slot = key.indexOf(name);
+                if (slot < 0) {
+                    throw new IllegalStateException("Unknown placeholder {" + name + "} in " + language
+                                                    + " template " + key.getKey());
+                }
+                literals.add(text.substring(start, open));
+                literalLength += open - start;
+                slots.add(slot);
+                start = close + 1;
+            }
+            literals.add(text.substring(start));
+            literalLength += text.length() - start;
+
+            int[] slotArray = slots.stream().mapToInt(Integer::intValue).toArray();
+            // Room for typical values (names, class, formatted date) so rendering doesn't regrow
+            return new CompiledTemplate(literals.toArray(String[]::new), slotArray, literalLength + 24 * slotArray.length);
+        }
+
+        String render(MessageLanguage language, Object[] args) {
+            StringBuilder out = new StringBuilder(capacity);
+            out.append(literals[0]);
+            for (int i = 0; i < slots.length; i++) {
+                appendValue(out, slots[i] < args.length ? args[slots[i]] : null, language);
+                out.append(literals[i + 1]);
+            }
+            return out.toString();
+        }
+
+        private static void appendValue(StringBuilder out, Object value, MessageLanguage language) {
+            if (value == null) {
+                out.append(NO_VALUE);
+            } else if (value instanceof CharSequence text) {
+                out.append(text);
+            } else if (value instanceof LocalDate date) {
+                out.append(language.formatDate(date));
+            } else if (value instanceof LocalTime time) {
+                language.getTimeFormat().formatTo(time, out);
+            } else if (value instanceof Double || value instanceof Float) {
+                appendOneDecimal(out, ((Number) value).doubleValue());
+            } else if (value instanceof Number number) {
+                out.append(number.longValue());
+            } else {
+                out.append(value);
+            }
+        }
+
+        // Same output as "%.1f" without going through Formatter
+        private static void appendOneDecimal(StringBuilder out, double value) {
+            long tenths = Math.round(value * 10);
+            if (tenths < 0) {
+                out.append('-');
+                tenths = -tenths;
+            }
+            out.append(tenths / 10).append('.').append(tenths % 10);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.gradepulse.service;
+
+import java.util.Map;
+
+/**
+ * Delivers one WhatsApp message to the provider. Selected with gradepulse.whatsapp.transport:
+ * "twilio" (default, TwilioMessageTransport) or "recording" (RecordingMessageTransport, no network).
+ *
+ * Only WhatsAppService calls this; everything else queues through NotificationOutboxService.
+ */
+public interface MessageTransport {
+
+    /**
+     * Send the message and return the provider's message id. Throws if the provider did not
+     * accept it, preferably a MessageSendException saying whether trying again can help.
+     */
+    String send(String to, String body);
+
+    /**
+     * False while the transport has no credentials to send with. The outbox then leaves
+     * messages queued instead of trying (and failing) each one.
+     */
+    default boolean isConfigured() {
+        return true;
+    }
+
+    /**
+     * Whether a webhook call (inbound message, delivery status) really comes from the provider.
+     * url is the URL the provider called; params are its form parameters.
+     */
+    default boolean verifyCallback(String url, Map<String, String> params, String signature) {
+        return true;
+    }
+}
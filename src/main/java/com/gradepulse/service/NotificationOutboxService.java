@@ -0,0 +1,65 @@
+package com.gradepulse.service;
+
+import com.gradepulse.model.MessagePriority;
+import com.gradepulse.model.OutboundMessage;
+import com.gradepulse.model.OutboundMessageStatus;
+import com.gradepulse.repository.OutboundMessageRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Writes outbound WhatsApp messages to the outbox inside the caller's transaction.
+ * Nothing is sent here: OutboxDispatcher picks the rows up once the transaction commits,
+ * so a rolled-back submission never notifies anyone and a committed one is never lost.
+ *
+ * This is the only way to send a WhatsApp message: the queue's priority comes from the
+ * message type (MessagePriority.forType) and quotas are applied when it is drained. Most
+ * messages are held for MessageCoalescer's window so a parent's messages can be combined.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class NotificationOutboxService {
+
+    private final OutboundMessageRepository outboxRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MessageCoalescer coalescer;
+
+    @Transactional
+    public List<OutboundMessage> enqueueAll(List<OutboundMessage> messages) {
+        if (messages.isEmpty()) {
+            return messages;
+        }
+        for (OutboundMessage message : messages) {
+            message.setStatus(OutboundMessageStatus.PENDING);
+            message.setPriority(MessagePriority.forType(message.getMessageType()).ordinal());
+            message.setAvailableAt(coalescer.holdUntil(message));
+        }
+        List<OutboundMessage> saved = outboxRepository.saveAll(messages);
+        eventPublisher.publishEvent(new MessagesEnqueued(saved.size()));
+        log.debug("Queued {} outbound messages", saved.size());
+        return saved;
+    }
+
+    @Transactional
+    public OutboundMessage enqueue(String recipient, String body, String messageType, Long studentId) {
+        return enqueueAll(List.of(newMessage(recipient, body, messageType, studentId))).get(0);
+    }
+
+    public static OutboundMessage newMessage(String recipient, String body, String messageType, Long studentId) {
+        OutboundMessage message = new OutboundMessage();
+        message.setRecipient(recipient.trim());
+        message.setBody(body);
+        message.setMessageType(messageType);
+        message.setStudentId(studentId);
+        return message;
+    }
+
+    // Published in the enqueuing transaction; the dispatcher reacts after commit
+    public record MessagesEnqueued(int count) {}
+}
@@ -0,0 +1,330 @@
+package com.gradepulse.service;
+
+import com.gradepulse.model.DeliveryStatus;
+import com.gradepulse.model.OutboundMessage;
+import com.gradepulse.model.OutboundMessageStatus;
+import com.gradepulse.model.SendFailureKind;
+import com.gradepulse.repository.OutboundMessageRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Drains the message outbox outside of any request or business transaction.
+ * Triggered right after a transaction that enqueued messages commits, and on a
+ * fixed schedule so messages left PENDING by a restart are still delivered.
+ *
+ * This is the only caller of WhatsAppService. Messages go out highest priority first, each
+ * under a WhatsAppRateLimiter permit; when the daily quota runs out the rest are carried over
+ * to the next window rather than failed. Messages for the same parent are combined by
+ * MessageCoalescer, and one combined send takes one permit.
+ *
+ * Permits are taken in send order on the draining thread; the sends themselves run on virtual
+ * threads, at most gradepulse.whatsapp.max-concurrent-sends at a time, so a bulk campaign takes
+ * as long as the rate limit allows rather than one HTTP round trip per message.
+ *
+ * Failed sends are classified by the transport (MessageSendException). Transient failures are
+ * retried with jittered exponential backoff (RetryBackoff) until max-attempts; permanent ones,
+ * and messages out of retries, are dead-lettered. Throttling doesn't count as an attempt, and
+ * the provider's daily limit (QUOTA_EXCEEDED) closes today's quota, so the rest of the queue -
+ * typically a campaign - is carried over to the next window and resumes without resending.
+ * While the transport has no credentials the outbox is paused: nothing is tried, so no message
+ * uses up its attempts before the configuration is fixed. After each drain a one-off wake-up is
+ * scheduled for the next message that becomes due (a retry or the end of a coalescing hold),
+ * so retries don't wait for the poll and nothing ever sleeps on a request thread.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxDispatcher {
+
+    private static final int BATCH_SIZE = 200;
+
+    private final OutboundMessageRepository outboxRepository;
+    private final WhatsAppService whatsAppService;
+    private final WhatsAppRateLimiter rateLimiter;
+    private final MessageCoalescer coalescer;
+    private final RetryBackoff retryBackoff;
+    private final DeadLetterService deadLetterService;
+    private final TaskScheduler taskScheduler;
+
+    // Sends block on the provider's HTTP round trip, so each one gets its own virtual thread
+    private final ExecutorService sendExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final AtomicBoolean draining = new AtomicBoolean(false);
+    private final AtomicBoolean rerunRequested = new AtomicBoolean(false);
+    private final AtomicBoolean pausedLogged = new AtomicBoolean(false);
+    private final AtomicReference<LocalDateTime> scheduledWakeup = new AtomicReference<>();
+
+    @Value("${gradepulse.outbox.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${gradepulse.whatsapp.max-concurrent-sends:8}")
+    private int maxConcurrentSends;
+
+    @Async
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onMessagesEnqueued(NotificationOutboxService.MessagesEnqueued event) {
+        drain();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sendExecutor.shutdown();
+    }
+
+    // The drain waits on the rate limiter between sends; run it on its own virtual thread so it
+    // never holds the scheduler thread the other jobs (status flush, digests, inbound retries) share
+    @Scheduled(fixedDelayString = "${gradepulse.outbox.poll-interval-ms:30000}", initialDelay = 10000)
+    public void drainPending() {
+        Thread.startVirtualThread(this::drain);
+    }
+
+    /**
+     * Send every PENDING message once. Only one drain runs at a time; a trigger that
+     * arrives mid-drain makes the running drain go round again instead of being dropped.
+     */
+    public int drain() {
+        if (!whatsAppService.isConfigured()) {
+            if (pausedLogged.compareAndSet(false, true)) {
+                log.warn("WhatsApp transport is not configured; outbox paused with {} messages pending",
+                         outboxRepository.countByStatus(OutboundMessageStatus.PENDING));
+            }
+            return 0;
+        }
+        if (!draining.compareAndSet(false, true)) {
+            rerunRequested.set(true);
+            return 0;
+        }
+        int processed = 0;
+        try {
+            do {
+                rerunRequested.set(false);
+                processed += drainOnce();
+            } while (rerunRequested.get());
+        } finally {
+            draining.set(false);
+        }
+        if (processed > 0) {
+            log.info("Outbox drain processed {} messages", processed);
+        }
+        scheduleWakeup();
+        return processed;
+    }
+
+    // Drain again when the next held or backed-off message becomes due, unless a wake-up
+    // at or before that time is already scheduled
+    private void scheduleWakeup() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime next = outboxRepository.findNextAvailableAt(now);
+        if (next == null) {
+            return;
+        }
+        LocalDateTime pending = scheduledWakeup.get();
+        if (pending != null && pending.isAfter(now) && !pending.isAfter(next)) {
+            return;
+        }
+        if (scheduledWakeup.compareAndSet(pending, next)) {
+            taskScheduler.schedule(() -> Thread.startVirtualThread(this::drain),
+                                   next.atZone(ZoneId.systemDefault()).toInstant());
+        }
+    }
+
+    private int drainOnce() {
+        int processed = 0;
+        List<OutboundMessage> batch;
+        do {
+            LocalDateTime now = LocalDateTime.now();
+            batch = outboxRepository.findDue(now, PageRequest.of(0, BATCH_SIZE));
+            Set<Long> handled = new HashSet<>();
+            Semaphore slots = new Semaphore(maxConcurrentSends);
+            List<Future<?>> inFlight = new ArrayList<>();
+            boolean quotaReached = false;
+            try {
+                dispatch:
+                for (OutboundMessage message : batch) {
+                    if (handled.contains(message.getId())) {
+                        continue;
+                    }
+                    for (MessageCoalescer.Delivery delivery : coalescer.coalesce(message, now, handled)) {
+                        if (!takePermit() || !takeSlot(slots)) {
+                            quotaReached = true;
+                            break dispatch;
+                        }
+                        delivery.messages().forEach(m -> handled.add(m.getId()));
+                        inFlight.add(sendExecutor.submit(() -> {
+                            try {
+                                deliver(delivery);
+                            } finally {
+                                slots.release();
+                            }
+                        }));
+                        processed += delivery.messages().size();
+                    }
+                }
+            } finally {
+                // Rows still in flight are PENDING in the database; finish them before fetching again
+                awaitAll(inFlight);
+            }
+            if (quotaReached) {
+                carryOver();
+                return processed;
+            }
+        } while (batch.size() == BATCH_SIZE);
+        return processed;
+    }
+
+    private boolean takeSlot(Semaphore slots) {
+        try {
+            slots.acquire();
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void awaitAll(List<Future<?>> futures) {
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                log.error("Outbox send task failed", e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private boolean takePermit() {
+        try {
+            return rateLimiter.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    // Today's quota is used up: whatever is still due waits for the next window, in the same order
+    private void carryOver() {
+        if (Thread.currentThread().isInterrupted()) {
+            return;
+        }
+        LocalDateTime nextWindow = rateLimiter.nextWindow();
+        int deferred = outboxRepository.deferPendingUntil(nextWindow);
+        log.warn("Daily WhatsApp quota reached; {} pending messages carried over to {}", deferred, nextWindow);
+    }
+
+    private void deliver(MessageCoalescer.Delivery delivery) {
+        OutboundMessage carrier = delivery.carrier();
+        List<OutboundMessage> messages = delivery.messages();
+        for (OutboundMessage message : messages) {
+            message.setAttempts(message.getAttempts() + 1);
+        }
+        try {
+            String providerSid = whatsAppService.send(carrier.getRecipient(), delivery.body());
+            LocalDateTime sentAt = LocalDateTime.now();
+            for (OutboundMessage message : messages) {
+                message.setStatus(OutboundMessageStatus.SENT);
+                message.setSentAt(sentAt);
+                message.setLastError(null);
+                message.setFailureKind(null);
+                message.setThrottledAttempts(0);
+                message.setProviderSid(providerSid);
+                message.setDeliveryStatus(DeliveryStatus.QUEUED);
+                message.setDeliveryUpdatedAt(sentAt);
+                if (message != carrier) {
+                    message.setCoalescedInto(carrier.getId());
+                }
+            }
+            if (messages.size() > 1) {
+                log.info("Sent {} messages to {} as one", messages.size(), carrier.getRecipient());
+            } else {
+                log.info("Sent {} message to {}", carrier.getMessageType(), carrier.getRecipient());
+            }
+        } catch (Exception e) {
+            fail(delivery, e);
+            return;
+        }
+        outboxRepository.saveAll(messages);
+    }
+
+    private void fail(MessageCoalescer.Delivery delivery, Exception e) {
+        SendFailureKind kind = MessageSendException.kindOf(e);
+        String errorCode = MessageSendException.errorCodeOf(e);
+        String error = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+        LocalDateTime now = LocalDateTime.now();
+
+        LocalDateTime quotaResumesAt = null;
+        if (kind == SendFailureKind.QUOTA_EXCEEDED) {
+            rateLimiter.exhaustToday();
+            quotaResumesAt = rateLimiter.nextWindow();
+        }
+
+        // Coalesced messages may have different attempt counts, so each decides for itself
+        List<OutboundMessage> retry = new ArrayList<>();
+        List<OutboundMessage> dead = new ArrayList<>();
+        for (OutboundMessage message : delivery.messages()) {
+            message.setLastError(error.length() > 500 ? error.substring(0, 500) : error);
+            message.setFailureKind(kind);
+            // Throttling (and rejected credentials) backs off on its own streak instead of the attempt count
+            int streak;
+            if (kind.countsAsAttempt()) {
+                message.setThrottledAttempts(0);
+                streak = message.getAttempts();
+            } else {
+                message.setAttempts(message.getAttempts() - 1);
+                message.setThrottledAttempts(message.getThrottledAttempts() + 1);
+                streak = message.getThrottledAttempts();
+            }
+            if (kind.isTransient() && message.getAttempts() < maxAttempts) {
+                message.setAvailableAt(quotaResumesAt != null
+                    ? quotaResumesAt
+                    : now.plus(retryBackoff.delayAfter(streak, kind)));
+                retry.add(message);
+            } else {
+                dead.add(message);
+            }
+        }
+        if (!retry.isEmpty()) {
+            outboxRepository.saveAll(retry);
+        }
+        if (!dead.isEmpty()) {
+            deadLetterService.deadLetter(dead, kind, errorCode);
+        }
+
+        OutboundMessage carrier = delivery.carrier();
+        if (dead.isEmpty()) {
+            log.warn("Failed to send {} message(s) to {} ({}, attempt {}), retrying at {}: {}",
+                     retry.size(), carrier.getRecipient(), kind, carrier.getAttempts(),
+                     carrier.getAvailableAt(), error);
+        } else {
+            log.warn("Failed to send {} message(s) to {} ({}, attempt {}), {} dead-lettered: {}",
+                     delivery.messages().size(), carrier.getRecipient(), kind, carrier.getAttempts(),
+                     dead.size(), error);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.gradepulse.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Accepts every message without any network call and keeps the most recent ones in memory.
+ * For tests, demos and benchmarking the queue itself (gradepulse.whatsapp.transport=recording).
+ */
+@Component
+@ConditionalOnProperty(name = "gradepulse.whatsapp.transport", havingValue = "recording")
+@Slf4j
+public class RecordingMessageTransport implements MessageTransport {
+
+    private final int capacity;
+    private final Deque<SentMessage> recent = new ArrayDeque<>();
+    private final AtomicLong sentCount = new AtomicLong();
+
+    public RecordingMessageTransport(@Value("${gradepulse.whatsapp.recording.capacity:1000}") int capacity) {
+        this.capacity = Math.max(capacity, 0);
+        log.info("WhatsApp transport is recording only; no messages leave this process");
+    }
+
+    @Override
+    public String send(String to, String body) {
+        String sid = "RC" + UUID.randomUUID().toString().replace("-", "");
+        sentCount.incrementAndGet();
+        if (capacity > 0) {
+            synchronized (recent) {
+                if (recent.size() == capacity) {
+                    recent.removeFirst();
+                }
+                recent.addLast(new SentMessage(sid, to, body, LocalDateTime.now()));
+            }
+        }
+        log.debug("Recorded WhatsApp message {} to {}", sid, to);
+        return sid;
+    }
+
+    public long getSentCount() {
+        return sentCount.get();
+    }
+
+    // Oldest first
+    public List<SentMessage> getRecent() {
+        synchronized (recent) {
+            return List.copyOf(recent);
+        }
+    }
+
+    public void clear() {
+        synchronized (recent) {
+            recent.clear();
+        }
+        sentCount.set(0);
+    }
+
+    public record SentMessage(String sid, String to, String body, LocalDateTime sentAt) {}
+}
@@ -0,0 +1,40 @@
+package com.gradepulse.service;
+
+import com.gradepulse.model.SendFailureKind;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Retry delays for failed sends: exponential in the attempt number (base, 2x base, 4x base, ...)
+ * up to a cap, with "equal jitter" - half the delay fixed, half random - so messages that failed
+ * together (a provider outage, a burst of 429s) don't all come back in the same second.
+ * Rate-limited sends start from a longer base, since the provider has asked us to slow down.
+ */
+@Component
+public class RetryBackoff {
+
+    private static final int RATE_LIMIT_FACTOR = 4;
+
+    private final Duration baseDelay;
+    private final Duration maxDelay;
+
+    public RetryBackoff(@Value("${gradepulse.outbox.retry-base-delay-seconds:30}") long baseDelaySeconds,
+                        @Value("${gradepulse.outbox.retry-max-delay-seconds:3600}") long maxDelaySeconds) {
+        this.baseDelay = Duration.ofSeconds(Math.max(1, baseDelaySeconds));
+        this.maxDelay = Duration.ofSeconds(Math.max(baseDelay.toSeconds(), maxDelaySeconds));
+    }
+
+    /**
+     * Delay before the next try of a message that has failed {@code attempts} times.
+     */
+    public Duration delayAfter(int attempts, SendFailureKind kind) {
+        long base = baseDelay.toMillis() * (kind == SendFailureKind.RATE_LIMITED ? RATE_LIMIT_FACTOR : 1);
+        int doublings = Math.min(Math.max(attempts - 1, 0), 20);
+        long delay = Math.min(base << doublings, maxDelay.toMillis());
+        long half = delay / 2;
+        return Duration.ofMillis(half + ThreadLocalRandom.current().nextLong(delay - half + 1));
+    }
+}
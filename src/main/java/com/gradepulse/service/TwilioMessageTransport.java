@@ -0,0 +1,183 @@
+package com.gradepulse.service;
+
+import com.gradepulse.model.SendFailureKind;
+import com.twilio.exception.ApiConnectionException;
+import com.twilio.exception.ApiException;
+import com.twilio.http.NetworkHttpClient;
+import com.twilio.http.Request;
+import com.twilio.http.Response;
+import com.twilio.http.TwilioRestClient;
+import com.twilio.rest.api.v2010.account.Message;
+import com.twilio.rest.api.v2010.account.MessageCreator;
+import com.twilio.security.RequestValidator;
+import com.twilio.type.PhoneNumber;
+import io.github.cdimascio.dotenv.Dotenv;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.URL;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Sends through the Twilio Messages API. Credentials come from .env (or the environment):
+ * TWILIO_SID, TWILIO_TOKEN, TWILIO_WHATSAPP_NUMBER. Missing credentials no longer stop the
+ * application from starting; sends fail instead, and the outbox retries them.
+ *
+ * gradepulse.whatsapp.twilio.api-base-url points the client somewhere other than
+ * api.twilio.com, e.g. at TwilioStubServer for load tests. When
+ * gradepulse.whatsapp.status-callback-url is set, Twilio reports delivery status there.
+ *
+ * Failures are thrown as MessageSendException, classified from Twilio's HTTP status and
+ * error code (https://www.twilio.com/docs/api/errors).
+ */
+@Component
+@ConditionalOnProperty(name = "gradepulse.whatsapp.transport", havingValue = "twilio", matchIfMissing = true)
+@Slf4j
+public class TwilioMessageTransport implements MessageTransport {
+
+    // Twilio error codes meaning the number itself is the problem
+    private static final Set<Integer> INVALID_RECIPIENT_CODES = Set.of(
+        21211, // invalid 'To' number
+        21614, // not a mobile number
+        63003  // no WhatsApp account for this number
+    );
+    private static final Set<Integer> RATE_LIMIT_CODES = Set.of(
+        20429, // too many requests
+        63018  // WhatsApp throughput limit for the sender
+    );
+    private static final int AUTHENTICATION_FAILED = 20003;
+    private static final int DAILY_LIMIT_EXCEEDED = 63038; // account's daily message limit
+
+    private final String whatsappNumber;
+    private final String statusCallbackUrl;
+    private final TwilioRestClient client;
+    private final RequestValidator callbackValidator;
+
+    public TwilioMessageTransport(@Value("${gradepulse.whatsapp.twilio.api-base-url:}") String apiBaseUrl,
+                                  @Value("${gradepulse.whatsapp.status-callback-url:}") String statusCallbackUrl) {
+        Dotenv dotenv = Dotenv.configure()
+                             .directory("./")  // Look in project root
+                             .ignoreIfMissing()
+                             .load();
+
+        String accountSid = dotenv.get("TWILIO_SID");
+        String authToken = dotenv.get("TWILIO_TOKEN");
+        this.whatsappNumber = dotenv.get("TWILIO_WHATSAPP_NUMBER");
+        this.statusCallbackUrl = statusCallbackUrl;
+
+        if (accountSid == null || authToken == null || whatsappNumber == null) {
+            log.warn("Missing Twilio config in .env file; WhatsApp messages stay queued until it is set and the app restarted");
+            this.client = null;
+            this.callbackValidator = null;
+            return;
+        }
+        this.callbackValidator = new RequestValidator(authToken);
+
+        TwilioRestClient.Builder builder = new TwilioRestClient.Builder(accountSid, authToken);
+        if (!apiBaseUrl.isBlank()) {
+            builder.httpClient(new RedirectingHttpClient(URI.create(apiBaseUrl)));
+            log.info("Twilio API requests are sent to {}", apiBaseUrl);
+        }
+        this.client = builder.build();
+    }
+
+    // Credentials are read once, at startup
+    @Override
+    public boolean isConfigured() {
+        return client != null;
+    }
+
+    @Override
+    public String send(String to, String body) {
+        if (client == null) {
+            throw new MessageSendException(SendFailureKind.NOT_CONFIGURED, null,
+                                           "Twilio credentials are not configured", null);
+        }
+        MessageCreator creator = Message.creator(
+            new PhoneNumber("whatsapp:" + to),
+            new PhoneNumber(whatsappNumber),
+            body
+        );
+        if (!statusCallbackUrl.isBlank()) {
+            creator.setStatusCallback(URI.create(statusCallbackUrl));
+        }
+        try {
+            return creator.create(client).getSid();
+        } catch (ApiConnectionException e) {
+            throw new MessageSendException(SendFailureKind.NETWORK, null, e.getMessage(), e);
+        } catch (ApiException e) {
+            throw new MessageSendException(classify(e), e.getCode() != null ? e.getCode().toString() : null,
+                                           e.getMessage(), e);
+        }
+    }
+
+    static SendFailureKind classify(ApiException e) {
+        Integer code = e.getCode();
+        Integer status = e.getStatusCode();
+        if (code != null && code == DAILY_LIMIT_EXCEEDED) {
+            return SendFailureKind.QUOTA_EXCEEDED;
+        }
+        if ((status != null && status == 429) || (code != null && RATE_LIMIT_CODES.contains(code))) {
+            return SendFailureKind.RATE_LIMITED;
+        }
+        if (code != null && INVALID_RECIPIENT_CODES.contains(code)) {
+            return SendFailureKind.INVALID_RECIPIENT;
+        }
+        if (code != null && code == AUTHENTICATION_FAILED) {
+            return SendFailureKind.NOT_CONFIGURED;
+        }
+        if (status == null) {
+            return SendFailureKind.UNKNOWN;
+        }
+        return status >= 500 ? SendFailureKind.PROVIDER_ERROR : SendFailureKind.REJECTED;
+    }
+
+    // Twilio signs webhooks (X-Twilio-Signature) with the auth token, over the URL it called
+    @Override
+    public boolean verifyCallback(String url, Map<String, String> params, String signature) {
+        if (callbackValidator == null || signature == null) {
+            return false;
+        }
+        return callbackValidator.validate(url, params, signature);
+    }
+
+    // Sends each request to another host, keeping Twilio's path, parameters and auth
+    private static final class RedirectingHttpClient extends NetworkHttpClient {
+
+        private final URI baseUrl;
+
+        RedirectingHttpClient(URI baseUrl) {
+            this.baseUrl = baseUrl;
+        }
+
+        @Override
+        public Response makeRequest(Request request) {
+            URL target;
+            try {
+                target = baseUrl.resolve(request.constructURL().getFile()).toURL();
+            } catch (MalformedURLException e) {
+                throw new IllegalStateException("Invalid Twilio API base URL: " + baseUrl, e);
+            }
+            Request redirected = new Request(request.getMethod(), request.getUrl()) {
+                @Override
+                public URL constructURL() {
+                    return target;
+                }
+            };
+            if (request.requiresAuthentication()) {
+                redirected.setAuth(request.getUsername(), request.getPassword());
+            }
+            redirected.setContentType(request.getContentType());
+            redirected.setBody(request.getBody());
+            redirected.setUserAgentExtensions(request.getUserAgentExtensions());
+            request.getHeaderParams().forEach((name, values) -> values.forEach(v -> redirected.addHeaderParam(name, v)));
+            request.getPostParams().forEach((name, values) -> values.forEach(v -> redirected.addPostParam(name, v)));
+            return super.makeRequest(redirected);
+        }
+    }
+}
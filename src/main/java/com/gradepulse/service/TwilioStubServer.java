@@ -0,0 +1,309 @@
+package com.gradepulse.service;
+
+import com.google.gson.Gson;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local stand-in for Twilio's Messages API, for load testing the notification path offline.
+ * Answers POST /2010-04-01/Accounts/{sid}/Messages.json like Twilio does, after a configurable
+ * latency, and fails a configurable share of requests with 400 (invalid number) or 429
+ * (too many requests). With daily-limit set, every message past that many accepted ones is
+ * refused with Twilio's daily-limit error (63038), as a trial or new WhatsApp sender would be.
+ * GET /stats returns the counters.
+ *
+ * When a message is sent with a StatusCallback, the stub later posts sent, delivered and
+ * (for a share of messages) read callbacks to it, signed with the caller's auth token the way
+ * Twilio signs them.
+ *
+ * Enable with gradepulse.whatsapp.stub-server.enabled=true and point TwilioMessageTransport at it
+ * with gradepulse.whatsapp.twilio.api-base-url=http://localhost:{port}.
+ */
+@Component
+@ConditionalOnProperty(name = "gradepulse.whatsapp.stub-server.enabled", havingValue = "true")
+@Slf4j
+public class TwilioStubServer {
+
+    private static final DateTimeFormatter RFC_2822 = DateTimeFormatter.RFC_1123_DATE_TIME;
+
+    private final int port;
+    private final long latencyMs;
+    private final long latencyJitterMs;
+    private final double errorRate;
+    private final double throttleRate;
+    private final long callbackDelayMs;
+    private final double readRate;
+    private final long dailyLimit;
+    private final Gson gson = new Gson();
+    private final HttpClient callbackClient = HttpClient.newBuilder()
+        .executor(Executors.newVirtualThreadPerTaskExecutor())
+        .build();
+
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong throttled = new AtomicLong();
+    private final AtomicLong overQuota = new AtomicLong();
+    private final AtomicLong callbacks = new AtomicLong();
+    private final AtomicLong callbackFailures = new AtomicLong();
+
+    private HttpServer server;
+
+    public TwilioStubServer(@Value("${gradepulse.whatsapp.stub-server.port:18099}") int port,
+                            @Value("${gradepulse.whatsapp.stub-server.latency-ms:50}") long latencyMs,
+                            @Value("${gradepulse.whatsapp.stub-server.latency-jitter-ms:0}") long latencyJitterMs,
+                            @Value("${gradepulse.whatsapp.stub-server.error-rate:0.0}") double errorRate,
+                            @Value("${gradepulse.whatsapp.stub-server.throttle-rate:0.0}") double throttleRate,
+                            @Value("${gradepulse.whatsapp.stub-server.callback-delay-ms:500}") long callbackDelayMs,
+                            @Value("${gradepulse.whatsapp.stub-server.read-rate:0.5}") double readRate,
+                            @Value("${gradepulse.whatsapp.stub-server.daily-limit:0}") long dailyLimit) {
+        this.port = port;
+        this.latencyMs = latencyMs;
+        this.latencyJitterMs = latencyJitterMs;
+        this.errorRate = errorRate;
+        this.throttleRate = throttleRate;
+        this.callbackDelayMs = callbackDelayMs;
+        this.readRate = readRate;
+        this.dailyLimit = dailyLimit;
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", port), 0);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/2010-04-01/Accounts/", this::handleMessage);
+        server.createContext("/stats", this::handleStats);
+        server.start();
+        log.info("Twilio stub server listening on http://localhost:{} (latency {}+{} ms, errors {}, 429s {}, daily limit {})",
+                 port, latencyMs, latencyJitterMs, errorRate, throttleRate, dailyLimit > 0 ? dailyLimit : "none");
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (server != null) {
+            server.stop(0);
+        }
+    }
+
+    private void handleMessage(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        if (!"POST".equals(exchange.getRequestMethod()) || !path.endsWith("/Messages.json")) {
+            respond(exchange, 404, error(20404, "The requested resource " + path + " was not found"));
+            return;
+        }
+        String accountSid = path.substring("/2010-04-01/Accounts/".length(), path.length() - "/Messages.json".length());
+        Map<String, String> form = parseForm(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+
+        pause();
+        double roll = ThreadLocalRandom.current().nextDouble();
+        if (roll < throttleRate) {
+            throttled.incrementAndGet();
+            respond(exchange, 429, error(20429, "Too Many Requests"));
+            return;
+        }
+        if (roll < throttleRate + errorRate) {
+            rejected.incrementAndGet();
+            respond(exchange, 400, error(21211, "The 'To' number " + form.get("To") + " is not a valid phone number."));
+            return;
+        }
+        long acceptedSoFar = accepted.incrementAndGet();
+        if (dailyLimit > 0 && acceptedSoFar > dailyLimit) {
+            accepted.decrementAndGet();
+            overQuota.incrementAndGet();
+            respond(exchange, 429, error(63038, "Account exceeded the " + dailyLimit + " daily messages limit"));
+            return;
+        }
+
+        String sid = "SM" + UUID.randomUUID().toString().replace("-", "");
+        String now = ZonedDateTime.now(ZoneOffset.UTC).format(RFC_2822);
+        Map<String, Object> message = new LinkedHashMap<>();
+        message.put("sid", sid);
+        message.put("account_sid", accountSid);
+        message.put("to", form.get("To"));
+        message.put("from", form.get("From"));
+        message.put("body", form.get("Body"));
+        message.put("status", "queued");
+        message.put("direction", "outbound-api");
+        message.put("num_segments", "1");
+        message.put("num_media", "0");
+        message.put("api_version", "2010-04-01");
+        message.put("date_created", now);
+        message.put("date_updated", now);
+        message.put("uri", "/2010-04-01/Accounts/" + accountSid + "/Messages/" + sid + ".json");
+        respond(exchange, 201, message);
+
+        String callbackUrl = form.get("StatusCallback");
+        String authToken = authToken(exchange);
+        if (callbackUrl != null && !callbackUrl.isBlank() && authToken != null) {
+            Thread.startVirtualThread(() -> sendCallbacks(callbackUrl, authToken, accountSid, sid, form));
+        }
+    }
+
+    // sent -> delivered -> read (sometimes), one callback_delay apart
+    private void sendCallbacks(String callbackUrl, String authToken, String accountSid, String sid, Map<String, String> form) {
+        List<String> statuses = ThreadLocalRandom.current().nextDouble() < readRate
+            ? List.of("sent", "delivered", "read")
+            : List.of("sent", "delivered");
+        for (String status : statuses) {
+            try {
+                Thread.sleep(callbackDelayMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            Map<String, String> params = new TreeMap<>();
+            params.put("AccountSid", accountSid);
+            params.put("MessageSid", sid);
+            params.put("SmsSid", sid);
+            params.put("MessageStatus", status);
+            params.put("SmsStatus", status);
+            params.put("To", form.get("To"));
+            params.put("From", form.get("From"));
+            params.put("ApiVersion", "2010-04-01");
+            postCallback(callbackUrl, authToken, params);
+        }
+    }
+
+    private void postCallback(String callbackUrl, String authToken, Map<String, String> params) {
+        StringBuilder body = new StringBuilder();
+        params.forEach((name, value) -> {
+            if (value == null) {
+                return;
+            }
+            if (!body.isEmpty()) {
+                body.append('&');
+            }
+            body.append(URLEncoder.encode(name, StandardCharsets.UTF_8)).append('=')
+                .append(URLEncoder.encode(value, StandardCharsets.UTF_8));
+        });
+        HttpRequest request = HttpRequest.newBuilder(URI.create(callbackUrl))
+            .header("Content-Type", "application/x-www-form-urlencoded")
+            .header("X-Twilio-Signature", sign(authToken, callbackUrl, params))
+            .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+            .build();
+        try {
+            HttpResponse<Void> response = callbackClient.send(request, HttpResponse.BodyHandlers.discarding());
+            if (response.statusCode() >= 300) {
+                callbackFailures.incrementAndGet();
+                log.warn("Status callback to {} answered {}", callbackUrl, response.statusCode());
+            } else {
+                callbacks.incrementAndGet();
+            }
+        } catch (IOException e) {
+            callbackFailures.incrementAndGet();
+            log.warn("Status callback to {} failed: {}", callbackUrl, e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Twilio's scheme: Base64(HMAC-SHA1(authToken, url + each param name and value, sorted by name))
+    private static String sign(String authToken, String url, Map<String, String> sortedParams) {
+        StringBuilder data = new StringBuilder(url);
+        sortedParams.forEach((name, value) -> {
+            if (value != null) {
+                data.append(name).append(value);
+            }
+        });
+        try {
+            Mac mac = Mac.getInstance("HmacSHA1");
+            mac.init(new SecretKeySpec(authToken.getBytes(StandardCharsets.UTF_8), "HmacSHA1"));
+            return Base64.getEncoder().encodeToString(mac.doFinal(data.toString().getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA1 unavailable", e);
+        }
+    }
+
+    // The transport authenticates with Basic accountSid:authToken
+    private static String authToken(HttpExchange exchange) {
+        String header = exchange.getRequestHeaders().getFirst("Authorization");
+        if (header == null || !header.startsWith("Basic ")) {
+            return null;
+        }
+        String credentials = new String(Base64.getDecoder().decode(header.substring(6).trim()), StandardCharsets.UTF_8);
+        int colon = credentials.indexOf(':');
+        return colon >= 0 ? credentials.substring(colon + 1) : null;
+    }
+
+    private void handleStats(HttpExchange exchange) throws IOException {
+        respond(exchange, 200, Map.of("accepted", accepted.get(),
+                                      "rejected", rejected.get(),
+                                      "throttled", throttled.get(),
+                                      "overQuota", overQuota.get(),
+                                      "callbacks", callbacks.get(),
+                                      "callbackFailures", callbackFailures.get()));
+    }
+
+    private void pause() {
+        long delay = latencyMs + (latencyJitterMs > 0 ? ThreadLocalRandom.current().nextLong(latencyJitterMs + 1) : 0);
+        if (delay > 0) {
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static Map<String, Object> error(int code, String message) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("code", code);
+        body.put("message", message);
+        body.put("more_info", "https://www.twilio.com/docs/errors/" + code);
+        body.put("status", code == 20429 || code == 63038 ? 429 : code == 20404 ? 404 : 400);
+        return body;
+    }
+
+    private static Map<String, String> parseForm(String body) {
+        Map<String, String> form = new HashMap<>();
+        for (String pair : body.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0) {
+                form.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+                         URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return form;
+    }
+
+    private void respond(HttpExchange exchange, int status, Object body) throws IOException {
+        byte[] bytes = gson.toJson(body).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
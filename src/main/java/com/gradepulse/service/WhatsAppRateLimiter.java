@@ -0,0 +1,124 @@
+package com.gradepulse.service;
+
+import com.gradepulse.repository.OutboundMessageRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Send quotas for the WhatsApp queue: a token bucket for the per-second rate (bursts up to one
+ * second's worth) and a counter for the per-day cap. The day counter is seeded from the sends
+ * already made today (a coalesced send counts once), so a restart doesn't hand out a fresh
+ * day's quota.
+ *
+ * When the provider reports its own daily limit first, exhaustToday() closes the rest of the
+ * day so the queue is carried over instead of being sent into certain rejection.
+ *
+ * Only OutboxDispatcher takes permits; nothing else talks to Twilio.
+ */
+@Component
+@Slf4j
+public class WhatsAppRateLimiter {
+
+    private final OutboundMessageRepository outboxRepository;
+    private final Clock clock;
+    private final int maxPerSecond;
+    private final int maxPerDay;
+
+    private double tokens;
+    private long lastRefillNanos;
+    private LocalDate quotaDay;
+    private long sentOnQuotaDay;
+    private LocalDate exhaustedDay;
+
+    @Autowired
+    public WhatsAppRateLimiter(OutboundMessageRepository outboxRepository,
+                               @Value("${gradepulse.whatsapp.max-per-second:1}") int maxPerSecond,
+                               @Value("${gradepulse.whatsapp.max-per-day:50}") int maxPerDay) {
+        this(outboxRepository, maxPerSecond, maxPerDay, Clock.systemDefaultZone());
+    }
+
+    // The clock decides the quota day; tests pass a fixed one to roll the day over
+    WhatsAppRateLimiter(OutboundMessageRepository outboxRepository, int maxPerSecond, int maxPerDay, Clock clock) {
+        if (maxPerSecond < 1) {
+            throw new IllegalArgumentException("gradepulse.whatsapp.max-per-second must be at least 1");
+        }
+        this.outboxRepository = outboxRepository;
+        this.clock = clock;
+        this.maxPerSecond = maxPerSecond;
+        this.maxPerDay = maxPerDay;
+        this.tokens = maxPerSecond;
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    /**
+     * Take one send permit, waiting for the per-second bucket to refill if needed.
+     * Returns false, without waiting, once today's quota is used up.
+     */
+    public boolean acquire() throws InterruptedException {
+        while (true) {
+            long waitMillis;
+            synchronized (this) {
+                rollDay();
+                if (exhaustedToday() || (maxPerDay > 0 && sentOnQuotaDay >= maxPerDay)) {
+                    return false;
+                }
+                refill();
+                if (tokens >= 1) {
+                    tokens -= 1;
+                    sentOnQuotaDay++;
+                    return true;
+                }
+                waitMillis = (long) Math.ceil((1 - tokens) * 1000.0 / maxPerSecond);
+            }
+            Thread.sleep(Math.max(waitMillis, 1));
+        }
+    }
+
+    // Start of the next daily window, where messages over today's quota are carried
+    public LocalDateTime nextWindow() {
+        return LocalDate.now(clock).plusDays(1).atStartOfDay();
+    }
+
+    public synchronized long remainingToday() {
+        rollDay();
+        if (exhaustedToday()) {
+            return 0;
+        }
+        return maxPerDay > 0 ? Math.max(maxPerDay - sentOnQuotaDay, 0) : Long.MAX_VALUE;
+    }
+
+    // The provider refused more messages today, whatever our own counter says
+    public synchronized void exhaustToday() {
+        rollDay();
+        if (!quotaDay.equals(exhaustedDay)) {
+            exhaustedDay = quotaDay;
+            log.warn("Provider daily message limit reached after {} messages on {}", sentOnQuotaDay, quotaDay);
+        }
+    }
+
+    private boolean exhaustedToday() {
+        return quotaDay.equals(exhaustedDay);
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        tokens = Math.min(maxPerSecond, tokens + (now - lastRefillNanos) * maxPerSecond / 1_000_000_000.0);
+        lastRefillNanos = now;
+    }
+
+    private void rollDay() {
+        LocalDate today = LocalDate.now(clock);
+        if (!today.equals(quotaDay)) {
+            quotaDay = today;
+            sentOnQuotaDay = outboxRepository.countSendsSince(today.atStartOfDay());
+            log.info("WhatsApp quota for {}: {} of {} already used", today, sentOnQuotaDay,
+                     maxPerDay > 0 ? maxPerDay : "unlimited");
+        }
+    }
+}
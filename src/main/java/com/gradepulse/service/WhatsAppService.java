@@ -1,40 +1,30 @@
 package com.gradepulse.service;
 
-import com.twilio.Twilio;
-import com.twilio.rest.api.v2010.account.Message;
-import com.twilio.type.PhoneNumber;
+import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
-import io.github.cdimascio.dotenv.Dotenv;
 
+import java.util.Map;
+
+/**
+ * The single point where WhatsApp messages leave the application, through the configured
+ * MessageTransport. Called by OutboxDispatcher only; everything else queues messages.
+ */
 @Service
+@RequiredArgsConstructor
 public class WhatsAppService {
 
-    private final String accountSid;
-    private final String authToken;
-    private final String whatsappNumber;
-
-    public WhatsAppService() {
-        Dotenv dotenv = Dotenv.configure()
-                             .directory("./")  // Look in project root
-                             .ignoreIfMissing()
-                             .load();
+    private final MessageTransport transport;
 
-        this.accountSid = dotenv.get("TWILIO_SID");
-        this.authToken = dotenv.get("TWILIO_TOKEN");
-        this.whatsappNumber = dotenv.get("TWILIO_WHATSAPP_NUMBER");
-
-        if (accountSid == null || authToken == null || whatsappNumber == null) {
-            throw new IllegalStateException("Missing Twilio config in .env file!");
-        }
+    // Returns the provider's message id
+    public String send(String to, String message) {
+        return transport.send(to, message);
+    }
 
-        Twilio.init(accountSid, authToken);
+    public boolean isConfigured() {
+        return transport.isConfigured();
     }
 
-    public void send(String to, String message) {
-        Message.creator(
-            new PhoneNumber("whatsapp:" + to),
-            new PhoneNumber(whatsappNumber),
-            message
-        ).create();
+    public boolean verifyCallback(String url, Map<String, String> params, String signature) {
+        return transport.verifyCallback(url, params, signature);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,30 @@
+-- V16: Upload activity tracking
+-- Purpose: Record every confirmed student upload and keep per-day counters
+-- so the dashboard reads a handful of bucket rows instead of scanning the log
+
+-- Upload event log (one row per confirmed upload)
+CREATE TABLE upload_events (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    uploaded_by VARCHAR(100),
+    uploaded_at TIMESTAMP NOT NULL,
+    academic_year VARCHAR(20),
+    rows_inserted INT NOT NULL DEFAULT 0,
+    rows_updated INT NOT NULL DEFAULT 0,
+    rows_failed INT NOT NULL DEFAULT 0,
+    duration_ms BIGINT NOT NULL DEFAULT 0
+);
+
+CREATE INDEX idx_upload_events_uploaded_at ON upload_events(uploaded_at);
+
+-- Pre-aggregated per-day buckets (maintained alongside upload_events)
+CREATE TABLE upload_daily_counts (
+    bucket_date DATE PRIMARY KEY,
+    upload_count BIGINT NOT NULL DEFAULT 0,
+    rows_inserted BIGINT NOT NULL DEFAULT 0,
+    rows_updated BIGINT NOT NULL DEFAULT 0,
+    rows_failed BIGINT NOT NULL DEFAULT 0,
+    total_duration_ms BIGINT NOT NULL DEFAULT 0
+);
+
+COMMENT ON TABLE upload_events IS 'V16: Audit log of confirmed uploads (who, when, rows, duration)';
+COMMENT ON TABLE upload_daily_counts IS 'V16: Per-day upload counters read by the dashboard';
@@ -0,0 +1,36 @@
+-- V17: Daily class attendance rollup
+-- Purpose: One row per class section per day with status counts, so trends,
+-- the dashboard and principal reports don't have to scan attendance_records
+
+CREATE TABLE attendance_daily_rollup (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    class_section_id BIGINT NOT NULL,
+    rollup_date DATE NOT NULL,
+    academic_year VARCHAR(20) NOT NULL,
+    present_count INT NOT NULL DEFAULT 0,
+    absent_count INT NOT NULL DEFAULT 0,
+    late_count INT NOT NULL DEFAULT 0,
+    half_day_count INT NOT NULL DEFAULT 0,
+    marked_by VARCHAR(100),
+    marked_at TIMESTAMP,
+    FOREIGN KEY (class_section_id) REFERENCES class_sections(id) ON DELETE CASCADE,
+    CONSTRAINT unique_daily_rollup UNIQUE (class_section_id, rollup_date)
+);
+
+CREATE INDEX idx_daily_rollup_date ON attendance_daily_rollup(rollup_date);
+CREATE INDEX idx_daily_rollup_year ON attendance_daily_rollup(academic_year, rollup_date);
+
+-- Backfill from existing attendance records
+INSERT INTO attendance_daily_rollup (class_section_id, rollup_date, academic_year,
+                                     present_count, absent_count, late_count, half_day_count,
+                                     marked_by, marked_at)
+SELECT class_section_id, attendance_date, MAX(academic_year),
+       SUM(CASE WHEN status = 'PRESENT' THEN 1 ELSE 0 END),
+       SUM(CASE WHEN status = 'ABSENT' THEN 1 ELSE 0 END),
+       SUM(CASE WHEN status = 'LATE' THEN 1 ELSE 0 END),
+       SUM(CASE WHEN status = 'HALF_DAY' THEN 1 ELSE 0 END),
+       MAX(marked_by), MAX(marked_at)
+FROM attendance_records
+GROUP BY class_section_id, attendance_date;
+
+COMMENT ON TABLE attendance_daily_rollup IS 'V17: Per class section per day attendance counts, maintained by AttendanceService.submitAttendance';
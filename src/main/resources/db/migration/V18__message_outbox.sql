@@ -0,0 +1,22 @@
+-- V18: Transactional outbox for outbound WhatsApp messages
+-- Purpose: Attendance submission writes notification intents in its own
+-- transaction; a dispatcher drains them after commit, so Twilio latency never
+-- holds a DB connection and pending messages survive a restart
+
+CREATE TABLE message_outbox (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    recipient VARCHAR(30) NOT NULL,
+    body TEXT NOT NULL,
+    message_type VARCHAR(30) NOT NULL,
+    student_id BIGINT,
+    status VARCHAR(20) NOT NULL,
+    attempts INT NOT NULL DEFAULT 0,
+    last_error VARCHAR(500),
+    created_at TIMESTAMP NOT NULL,
+    sent_at TIMESTAMP,
+    FOREIGN KEY (student_id) REFERENCES students(id) ON DELETE SET NULL
+);
+
+CREATE INDEX idx_outbox_status ON message_outbox(status, id);
+
+COMMENT ON TABLE message_outbox IS 'V18: Outbound WhatsApp messages written in the business transaction and drained by OutboxDispatcher';
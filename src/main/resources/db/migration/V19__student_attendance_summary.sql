@@ -0,0 +1,48 @@
+-- V19: Per-student attendance summary
+-- Purpose: Last status, current absence streak and per-status counters per
+-- student per academic year, maintained incrementally by submitAttendance so
+-- roster, alerts and student pages read attendance state in O(1) per student
+
+CREATE TABLE student_attendance_summary (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    student_id BIGINT NOT NULL,
+    academic_year VARCHAR(20) NOT NULL,
+    last_attendance_date DATE,
+    last_status VARCHAR(20),
+    current_absence_streak INT NOT NULL DEFAULT 0,
+    present_count INT NOT NULL DEFAULT 0,
+    absent_count INT NOT NULL DEFAULT 0,
+    late_count INT NOT NULL DEFAULT 0,
+    half_day_count INT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP,
+    FOREIGN KEY (student_id) REFERENCES students(id) ON DELETE CASCADE,
+    CONSTRAINT unique_student_summary UNIQUE (student_id, academic_year)
+);
+
+-- Backfill counters and last attendance date
+INSERT INTO student_attendance_summary (student_id, academic_year, last_attendance_date,
+                                        present_count, absent_count, late_count, half_day_count,
+                                        current_absence_streak, updated_at)
+SELECT student_id, academic_year, MAX(attendance_date),
+       SUM(CASE WHEN status = 'PRESENT' THEN 1 ELSE 0 END),
+       SUM(CASE WHEN status = 'ABSENT' THEN 1 ELSE 0 END),
+       SUM(CASE WHEN status = 'LATE' THEN 1 ELSE 0 END),
+       SUM(CASE WHEN status = 'HALF_DAY' THEN 1 ELSE 0 END),
+       0, CURRENT_TIMESTAMP
+FROM attendance_records
+GROUP BY student_id, academic_year;
+
+-- Backfill last status and trailing absence streak
+UPDATE student_attendance_summary s SET
+    last_status = (SELECT ar.status FROM attendance_records ar
+                   WHERE ar.student_id = s.student_id AND ar.attendance_date = s.last_attendance_date),
+    current_absence_streak = (SELECT COUNT(*) FROM attendance_records ar
+                              WHERE ar.student_id = s.student_id AND ar.academic_year = s.academic_year
+                                AND ar.status = 'ABSENT'
+                                AND ar.attendance_date > COALESCE(
+                                    (SELECT MAX(nb.attendance_date) FROM attendance_records nb
+                                     WHERE nb.student_id = s.student_id AND nb.academic_year = s.academic_year
+                                       AND nb.status <> 'ABSENT'),
+                                    DATE '1900-01-01'));
+
+COMMENT ON TABLE student_attendance_summary IS 'V19: Per student per academic year attendance state, maintained by submitAttendance';
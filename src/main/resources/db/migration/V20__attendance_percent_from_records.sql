@@ -0,0 +1,16 @@
+-- V20: Derive students.attendance_percent from recorded attendance
+-- Purpose: The percentage used by alerts and the dashboard now comes from
+-- student_attendance_summary (latest academic year) instead of the Excel upload
+
+-- Index for the alert range queries (attendance_percent < x, BETWEEN x AND y)
+CREATE INDEX idx_students_attendance_percent ON students(attendance_percent);
+
+-- Write back the computed percentage for students with recorded attendance
+UPDATE students s SET attendance_percent = (
+    SELECT ROUND((sm.present_count + sm.late_count + sm.half_day_count * 0.5) * 100.0
+                 / (sm.present_count + sm.absent_count + sm.late_count + sm.half_day_count), 1)
+    FROM student_attendance_summary sm
+    WHERE sm.student_id = s.id
+      AND sm.academic_year = (SELECT MAX(sm2.academic_year) FROM student_attendance_summary sm2
+                              WHERE sm2.student_id = s.id))
+WHERE EXISTS (SELECT 1 FROM student_attendance_summary sm3 WHERE sm3.student_id = s.id);
@@ -0,0 +1,20 @@
+-- V21: Compact per-student attendance bitmaps
+-- Purpose: One row per student per academic year holding every marked day
+-- in 3 bit-planes (marked + 2-bit status), 168 bytes per student-year.
+-- Kept in sync by submitAttendance and loaded into an in-memory index for
+-- school-wide absence analytics. Rebuild via POST /attendance/admin/bitmap/rebuild
+
+CREATE TABLE attendance_bitmaps (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    student_id BIGINT NOT NULL,
+    academic_year VARCHAR(20) NOT NULL,
+    class_section_id BIGINT,
+    bits VARBINARY(168) NOT NULL,
+    updated_at TIMESTAMP,
+    FOREIGN KEY (student_id) REFERENCES students(id) ON DELETE CASCADE,
+    CONSTRAINT unique_attendance_bitmap UNIQUE (student_id, academic_year)
+);
+
+CREATE INDEX idx_attendance_bitmaps_year ON attendance_bitmaps(academic_year);
+
+COMMENT ON TABLE attendance_bitmaps IS 'V21: Per student per academic year attendance bitmap (see AttendanceBits)';
@@ -0,0 +1,6 @@
+-- V22: Covering index for the class attendance calendar
+-- Purpose: The calendar projection (class section + date range -> student, date, status)
+-- is answered from the index alone, without touching the attendance_records rows
+
+CREATE INDEX idx_attendance_class_date_status
+    ON attendance_records(class_section_id, attendance_date, student_id, status);
@@ -0,0 +1,19 @@
+-- V23: Idempotency keys for the bulk attendance sync API
+-- Purpose: Each class submission from the tablet app carries a client-generated key.
+-- The key is stored with the outcome in the same transaction as the attendance rows,
+-- so a replayed request returns the stored outcome instead of re-applying it
+
+CREATE TABLE attendance_sync_keys (
+    idempotency_key VARCHAR(100) PRIMARY KEY,
+    class_section_id BIGINT NOT NULL,
+    attendance_date DATE NOT NULL,
+    success_count INT NOT NULL DEFAULT 0,
+    failed_count INT NOT NULL DEFAULT 0,
+    whatsapp_queued INT NOT NULL DEFAULT 0,
+    marked_by VARCHAR(100),
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_attendance_sync_keys_created ON attendance_sync_keys(created_at);
+
+COMMENT ON TABLE attendance_sync_keys IS 'V23: Applied bulk-sync submissions, keyed by client idempotency key';
@@ -0,0 +1,22 @@
+-- V24: Attendance corrections
+-- Purpose: submitAttendance now upserts on unique_attendance (student_id, attendance_date)
+-- instead of rejecting already-marked students. Every status change made that way
+-- is recorded here with the previous value.
+-- (H2: MERGE INTO ... KEY; MySQL: INSERT ... ON DUPLICATE KEY UPDATE)
+
+CREATE TABLE attendance_record_history (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    student_id BIGINT NOT NULL,
+    attendance_date DATE NOT NULL,
+    class_section_id BIGINT,
+    previous_status VARCHAR(20) NOT NULL,
+    new_status VARCHAR(20) NOT NULL,
+    previous_marked_by VARCHAR(100),
+    changed_by VARCHAR(100),
+    changed_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (student_id) REFERENCES students(id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_attendance_history_student_date ON attendance_record_history(student_id, attendance_date);
+
+COMMENT ON TABLE attendance_record_history IS 'V24: Status changes made by attendance corrections';
@@ -0,0 +1,30 @@
+-- V25: Archive of closed academic years
+-- Purpose: attendance_records keeps only open academic years. Archiving a closed year
+-- moves its rows here as one compressed blob per student (see AttendanceArchiveService),
+-- so hot-path indexes on attendance_records cover only current data, while the year's
+-- history stays readable per student. Rollups, summaries and bitmaps for the year are kept.
+-- (Native MySQL partitioning is not used: partitioned InnoDB tables cannot have the
+-- foreign keys attendance_records relies on.)
+
+CREATE TABLE attendance_archived_years (
+    academic_year VARCHAR(20) PRIMARY KEY,
+    record_count BIGINT NOT NULL,
+    student_count INT NOT NULL,
+    compressed_bytes BIGINT NOT NULL,
+    archived_by VARCHAR(100),
+    archived_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE attendance_archive (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    student_id BIGINT NOT NULL,
+    academic_year VARCHAR(20) NOT NULL,
+    record_count INT NOT NULL,
+    payload BLOB NOT NULL,
+    archived_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (student_id) REFERENCES students(id) ON DELETE CASCADE,
+    CONSTRAINT unique_attendance_archive UNIQUE (student_id, academic_year)
+);
+
+COMMENT ON TABLE attendance_archived_years IS 'V25: Academic years moved out of attendance_records';
+COMMENT ON TABLE attendance_archive IS 'V25: Compressed attendance records of archived years, one row per student per year';
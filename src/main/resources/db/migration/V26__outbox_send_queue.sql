@@ -0,0 +1,14 @@
+-- V26: Priority and scheduling for the WhatsApp send queue
+-- Purpose: every outbound message now goes through message_outbox. The dispatcher
+-- drains it in priority order under per-second and per-day quotas (see
+-- WhatsAppRateLimiter); messages over quota are pushed to the next window via
+-- available_at instead of being dropped or failing against Twilio
+
+ALTER TABLE message_outbox ADD COLUMN priority INT NOT NULL DEFAULT 1;
+ALTER TABLE message_outbox ADD COLUMN available_at TIMESTAMP;
+
+CREATE INDEX idx_outbox_queue ON message_outbox(status, priority, id);
+CREATE INDEX idx_outbox_sent_at ON message_outbox(sent_at);
+
+COMMENT ON COLUMN message_outbox.priority IS 'V26: MessagePriority ordinal, lower is sent first';
+COMMENT ON COLUMN message_outbox.available_at IS 'V26: Not sent before this time (quota carry-over, retry delay); NULL means now';
@@ -0,0 +1,16 @@
+-- V27: Per-parent coalescing of queued WhatsApp messages
+-- Purpose: a parent with several children at the school used to get one message per
+-- child per event. Messages are now held for a short window and everything pending for
+-- the same phone number is sent as one combined message (see MessageCoalescer).
+-- recipient_key is the normalized number used for grouping; coalesced_into points at
+-- the message whose send carried this one.
+
+ALTER TABLE message_outbox ADD COLUMN recipient_key VARCHAR(30);
+ALTER TABLE message_outbox ADD COLUMN coalesced_into BIGINT;
+
+UPDATE message_outbox SET recipient_key = RIGHT(REGEXP_REPLACE(recipient, '[^0-9]', ''), 10);
+
+CREATE INDEX idx_outbox_recipient_key ON message_outbox(recipient_key, status);
+
+COMMENT ON COLUMN message_outbox.recipient_key IS 'V27: Recipient number reduced to its last 10 digits, used to group messages per parent';
+COMMENT ON COLUMN message_outbox.coalesced_into IS 'V27: Id of the message this one was combined into when sent; NULL if sent on its own';
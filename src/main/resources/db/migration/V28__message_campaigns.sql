@@ -0,0 +1,21 @@
+-- V28: Bulk message campaigns
+-- Purpose: a bulk send (e.g. attendance alerts to every selected student's parents) is
+-- queued as one campaign. Its messages carry campaign_id, so progress is a grouped
+-- count over message_outbox while the dispatcher sends them concurrently.
+
+CREATE TABLE message_campaigns (
+    id VARCHAR(36) PRIMARY KEY,
+    name VARCHAR(100) NOT NULL,
+    message_type VARCHAR(30) NOT NULL,
+    student_count INT NOT NULL,
+    message_count INT NOT NULL,
+    created_by VARCHAR(100),
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+ALTER TABLE message_outbox ADD COLUMN campaign_id VARCHAR(36);
+
+CREATE INDEX idx_outbox_campaign ON message_outbox(campaign_id, status);
+
+COMMENT ON TABLE message_campaigns IS 'V28: Bulk sends queued together; progress is read from message_outbox.campaign_id';
+COMMENT ON COLUMN message_outbox.campaign_id IS 'V28: Campaign this message was queued in; NULL for individual notifications';
@@ -0,0 +1,27 @@
+-- V29: WhatsApp delivery status
+-- Purpose: the provider's message id (SID) is stored on every sent outbox row, and Twilio's
+-- status callbacks (sent, delivered, read, failed, undelivered) are recorded against it.
+-- Callbacks are buffered and written in batches by DeliveryStatusService. Every callback is
+-- kept in message_status_events; message_outbox holds the furthest status reached.
+-- Rows combined into one send (coalesced_into) share the carrier's SID.
+
+ALTER TABLE message_outbox ADD COLUMN provider_sid VARCHAR(64);
+ALTER TABLE message_outbox ADD COLUMN delivery_status VARCHAR(20);
+ALTER TABLE message_outbox ADD COLUMN delivery_error_code VARCHAR(10);
+ALTER TABLE message_outbox ADD COLUMN delivery_updated_at TIMESTAMP;
+
+CREATE INDEX idx_outbox_provider_sid ON message_outbox(provider_sid);
+
+CREATE TABLE message_status_events (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    provider_sid VARCHAR(64) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    error_code VARCHAR(10),
+    received_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_status_events_sid ON message_status_events(provider_sid, received_at);
+
+COMMENT ON COLUMN message_outbox.provider_sid IS 'V29: Provider message id returned when the message was accepted';
+COMMENT ON COLUMN message_outbox.delivery_status IS 'V29: Furthest DeliveryStatus reported for provider_sid';
+COMMENT ON TABLE message_status_events IS 'V29: Every delivery status callback received, in arrival order';
@@ -0,0 +1,30 @@
+-- V30: Dead letters for outbound messages
+-- Purpose: a message that failed permanently (invalid number, rejected) or ran out of retries
+-- is recorded here with the classified reason instead of only being logged. Re-driving an
+-- entry puts its outbox row back in the queue; the entry is kept with redriven_at set.
+
+CREATE TABLE message_dead_letters (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    outbox_id BIGINT NOT NULL,
+    recipient VARCHAR(30) NOT NULL,
+    message_type VARCHAR(30) NOT NULL,
+    student_id BIGINT,
+    campaign_id VARCHAR(36),
+    failure_kind VARCHAR(20) NOT NULL,
+    error_code VARCHAR(10),
+    last_error VARCHAR(500),
+    attempts INT NOT NULL,
+    dead_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    redriven_at TIMESTAMP,
+    redriven_by VARCHAR(100),
+    CONSTRAINT fk_dead_letter_outbox FOREIGN KEY (outbox_id) REFERENCES message_outbox(id)
+);
+
+CREATE INDEX idx_dead_letters_open ON message_dead_letters(redriven_at, dead_at);
+CREATE INDEX idx_dead_letters_outbox ON message_dead_letters(outbox_id);
+
+ALTER TABLE message_outbox ADD COLUMN failure_kind VARCHAR(20);
+
+COMMENT ON TABLE message_dead_letters IS 'V30: Outbound messages that failed permanently or exhausted their retries';
+COMMENT ON COLUMN message_dead_letters.failure_kind IS 'V30: INVALID_RECIPIENT, REJECTED, RATE_LIMITED, NETWORK, PROVIDER_ERROR, NOT_CONFIGURED or UNKNOWN';
+COMMENT ON COLUMN message_outbox.failure_kind IS 'V30: Classification of the last failed send attempt';
@@ -0,0 +1,24 @@
+-- V31: Daily attendance digest
+-- Purpose: in digest mode a submission records one event per parent contact instead of
+-- queuing a WhatsApp message per student. due_at is the digest time of the student's school
+-- on the attendance date; a scheduled job combines each parent's due events into one message.
+
+CREATE TABLE attendance_digest_events (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    recipient VARCHAR(30) NOT NULL,
+    recipient_key VARCHAR(30) NOT NULL,
+    student_id BIGINT NOT NULL,
+    class_section_id BIGINT,
+    attendance_date DATE NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    arrival_time TIME,
+    due_at TIMESTAMP NOT NULL,
+    digested_at TIMESTAMP,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_digest_due ON attendance_digest_events(digested_at, due_at, recipient_key);
+
+COMMENT ON TABLE attendance_digest_events IS 'V31: Attendance marks waiting for the parent''s daily digest';
+COMMENT ON COLUMN attendance_digest_events.recipient_key IS 'V31: Normalized contact (OutboundMessage.normalizeContact); one digest per key and date';
+COMMENT ON COLUMN attendance_digest_events.digested_at IS 'V31: When the event went into a digest; NULL while waiting';
@@ -0,0 +1,20 @@
+-- V32: Inbound WhatsApp messages
+-- Purpose: the webhook records each inbound message and acknowledges Twilio at once; a
+-- background worker processes it. The MessageSid primary key makes Twilio's redeliveries
+-- (after a timeout or a 5xx) no-ops instead of duplicate replies.
+
+CREATE TABLE inbound_messages (
+    message_sid VARCHAR(64) PRIMARY KEY,
+    sender VARCHAR(30) NOT NULL,
+    body TEXT,
+    status VARCHAR(20) NOT NULL,
+    attempts INT DEFAULT 0 NOT NULL,
+    last_error VARCHAR(500),
+    received_at TIMESTAMP NOT NULL,
+    processed_at TIMESTAMP
+);
+
+CREATE INDEX idx_inbound_status ON inbound_messages(status, received_at);
+
+COMMENT ON TABLE inbound_messages IS 'V32: Inbound WhatsApp messages, deduplicated by Twilio MessageSid';
+COMMENT ON COLUMN inbound_messages.status IS 'V32: RECEIVED (waiting for the worker), PROCESSED, IGNORED (unknown sender) or FAILED';
@@ -0,0 +1,16 @@
+-- V33: Alert campaign targets
+-- Purpose: a campaign records which students it was for (a segment such as "below 75%" or a
+-- hand-picked selection) and how many were skipped, so an interrupted campaign can be followed
+-- and resumed from its outbox rows instead of the admin remembering who was messaged.
+
+ALTER TABLE message_campaigns ADD COLUMN target_segment VARCHAR(20);
+ALTER TABLE message_campaigns ADD COLUMN target_min_percent DOUBLE;
+ALTER TABLE message_campaigns ADD COLUMN target_max_percent DOUBLE;
+ALTER TABLE message_campaigns ADD COLUMN alert_type VARCHAR(20);
+ALTER TABLE message_campaigns ADD COLUMN skipped_count INT DEFAULT 0;
+
+CREATE INDEX idx_campaigns_created ON message_campaigns(created_at);
+CREATE INDEX idx_outbox_student_type ON message_outbox(student_id, message_type, status);
+
+COMMENT ON COLUMN message_campaigns.target_segment IS 'V33: LOW, MEDIUM or SELECTED; NULL for campaigns before V33';
+COMMENT ON COLUMN message_campaigns.skipped_count IS 'V33: Messages left out as duplicates: the same parent listed twice for a student, or already having this alert queued';
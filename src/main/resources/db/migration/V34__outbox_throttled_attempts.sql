@@ -0,0 +1,7 @@
+-- V34: Throttle streak per outbound message
+-- Purpose: throttled sends (429, provider daily limit) don't use up a message's attempts, but
+-- their retries should still back off exponentially; the consecutive throttled sends drive that
+
+ALTER TABLE message_outbox ADD COLUMN throttled_attempts INT NOT NULL DEFAULT 0;
+
+COMMENT ON COLUMN message_outbox.throttled_attempts IS 'V34: Throttled sends in a row (not counted in attempts); reset by any other outcome';
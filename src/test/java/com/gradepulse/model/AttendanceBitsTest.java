@@ -0,0 +1,115 @@
+package com.gradepulse.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AttendanceBitsTest {
+
+    private static final String YEAR = "2023-2024"; // includes 29 Feb 2024
+
+    @Test
+    void dayIndexCoversTheAcademicYearAndRejectsDatesOutsideTheBitmap() {
+        assertThat(AttendanceBits.dayIndex(YEAR, LocalDate.of(2023, 4, 1))).isZero();
+        assertThat(AttendanceBits.dayIndex(YEAR, LocalDate.of(2023, 3, 31))).isEqualTo(-1);
+        assertThat(AttendanceBits.dayIndex(YEAR, LocalDate.of(2024, 3, 31))).isEqualTo(365);
+        assertThat(AttendanceBits.dayIndex(YEAR, AttendanceBits.dateOf(YEAR, AttendanceBits.CAPACITY_DAYS - 1)))
+            .isEqualTo(AttendanceBits.CAPACITY_DAYS - 1);
+        assertThat(AttendanceBits.dayIndex(YEAR, AttendanceBits.dateOf(YEAR, AttendanceBits.CAPACITY_DAYS))).isEqualTo(-1);
+        assertThat(AttendanceBits.dateOf(YEAR, 0)).isEqualTo(LocalDate.of(2023, 4, 1));
+    }
+
+    @Test
+    void setAndGetEveryStatusAtWordAndYearBoundaries() {
+        int[] days = { 0, 1, 62, 63, 64, 127, 128, 365, AttendanceBits.CAPACITY_DAYS - 2, AttendanceBits.CAPACITY_DAYS - 1 };
+        for (AttendanceStatus status : AttendanceStatus.values()) {
+            AttendanceBits bits = new AttendanceBits();
+            for (int day : days) {
+                bits.set(day, status);
+            }
+            for (int day : days) {
+                assertThat(bits.get(day)).as("day %d", day).isEqualTo(status);
+            }
+            // Neighbours stay unmarked
+            assertThat(bits.get(2)).isNull();
+            assertThat(bits.get(65)).isNull();
+            assertThat(bits.count(status, 0, AttendanceBits.CAPACITY_DAYS - 1)).isEqualTo(days.length);
+            assertThat(bits.countMarked(0, AttendanceBits.CAPACITY_DAYS - 1)).isEqualTo(days.length);
+        }
+    }
+
+    @Test
+    void overwritingAndClearingADayResetsItsStatusBits() {
+        AttendanceBits bits = new AttendanceBits();
+        bits.set(63, AttendanceStatus.HALF_DAY);
+        bits.set(63, AttendanceStatus.PRESENT);
+        assertThat(bits.get(63)).isEqualTo(AttendanceStatus.PRESENT);
+        assertThat(bits.count(AttendanceStatus.HALF_DAY, 0, 100)).isZero();
+
+        bits.clear(63);
+        assertThat(bits.get(63)).isNull();
+        assertThat(bits.countMarked(0, 100)).isZero();
+    }
+
+    @Test
+    void countIsInclusiveAndClampedToTheBitmap() {
+        AttendanceBits bits = new AttendanceBits();
+        for (int day = 60; day <= 70; day++) {
+            bits.set(day, AttendanceStatus.ABSENT);
+        }
+        assertThat(bits.count(AttendanceStatus.ABSENT, 63, 64)).isEqualTo(2);
+        assertThat(bits.count(AttendanceStatus.ABSENT, 64, 64)).isEqualTo(1);
+        assertThat(bits.count(AttendanceStatus.ABSENT, -10, 1000)).isEqualTo(11);
+        assertThat(bits.count(AttendanceStatus.ABSENT, 70, 60)).isZero();
+        assertThat(bits.count(AttendanceStatus.PRESENT, 0, 1000)).isZero();
+    }
+
+    @Test
+    void absenceStreakSkipsUnmarkedDaysAndStopsAtAttendance() {
+        AttendanceBits bits = new AttendanceBits();
+        bits.set(60, AttendanceStatus.PRESENT);
+        bits.set(62, AttendanceStatus.ABSENT);
+        bits.set(63, AttendanceStatus.ABSENT);
+        // 64, 65: weekend
+        bits.set(66, AttendanceStatus.ABSENT);
+        assertThat(bits.trailingAbsenceStreak(66)).isEqualTo(3);
+        assertThat(bits.trailingAbsenceStreak(62)).isEqualTo(1);
+        assertThat(bits.trailingAbsenceStreak(61)).isZero();
+
+        bits.set(67, AttendanceStatus.LATE);
+        assertThat(bits.trailingAbsenceStreak(67)).isZero();
+    }
+
+    @Test
+    void windowStartFindsTheLastMarkedDaysAcrossWords() {
+        AttendanceBits bits = new AttendanceBits();
+        int[] schoolDays = { 10, 62, 63, 64, 130 };
+        for (int day : schoolDays) {
+            bits.set(day, AttendanceStatus.PRESENT);
+        }
+        assertThat(bits.windowStart(130, 1)).isEqualTo(130);
+        assertThat(bits.windowStart(130, 2)).isEqualTo(64);
+        assertThat(bits.windowStart(130, 3)).isEqualTo(63);
+        assertThat(bits.windowStart(130, 5)).isEqualTo(10);
+        assertThat(bits.windowStart(130, 6)).isZero();
+    }
+
+    @Test
+    void bytesRoundTrip() {
+        AttendanceBits bits = new AttendanceBits();
+        bits.set(0, AttendanceStatus.LATE);
+        bits.set(64, AttendanceStatus.ABSENT);
+        bits.set(AttendanceBits.CAPACITY_DAYS - 1, AttendanceStatus.HALF_DAY);
+
+        byte[] bytes = bits.toBytes();
+        assertThat(bytes).hasSize(AttendanceBits.BYTE_LENGTH);
+
+        AttendanceBits restored = AttendanceBits.fromBytes(bytes);
+        for (int day = 0; day < AttendanceBits.CAPACITY_DAYS; day++) {
+            assertThat(restored.get(day)).as("day %d", day).isEqualTo(bits.get(day));
+        }
+        assertThat(AttendanceBits.fromBytes(new byte[3]).countMarked(0, AttendanceBits.CAPACITY_DAYS - 1)).isZero();
+    }
+}
@@ -0,0 +1,95 @@
+package com.gradepulse.service;
+
+import com.gradepulse.model.OutboundMessage;
+import com.gradepulse.model.Student;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class AbsenceAlertServiceTest {
+
+    private static final LocalDate AS_OF = LocalDate.of(2024, 7, 3);
+
+    private final NotificationOutboxService outboxService = mock(NotificationOutboxService.class);
+    private final AbsenceAlertService service =
+        new AbsenceAlertService(outboxService, new MessageTemplateRegistry(), 3, true);
+
+    @Test
+    void streakReachingTheThresholdAlertsEachParentOnce() {
+        Student asha = student(1L, "Asha");
+
+        publish(change(asha, 2, 3));
+
+        assertThat(enqueued()).hasSize(2).allSatisfy(alert -> {
+            assertThat(alert.getMessageType()).isEqualTo(AbsenceAlertService.MESSAGE_TYPE);
+            assertThat(alert.getStudentId()).isEqualTo(1L);
+            assertThat(alert.getBody()).contains("Asha");
+        }).extracting(OutboundMessage::getRecipient).containsExactly("+919800000001", "+919800000002");
+    }
+
+    @Test
+    void streakAlreadyPastTheThresholdDoesNotAlertAgain() {
+        publish(change(student(1L, "Asha"), 3, 4));
+
+        assertThat(enqueued()).isEmpty();
+    }
+
+    @Test
+    void streakBelowTheThresholdOrBrokenDoesNotAlert() {
+        publish(change(student(1L, "Asha"), 1, 2), change(student(2L, "Ravi"), 3, 0));
+
+        assertThat(enqueued()).isEmpty();
+    }
+
+    @Test
+    void onlyStudentsCrossingTheThresholdAreAlerted() {
+        publish(change(student(1L, "Asha"), 2, 3), change(student(2L, "Ravi"), 4, 5),
+                change(student(3L, "Meera"), 0, 1));
+
+        assertThat(enqueued()).extracting(OutboundMessage::getStudentId).containsOnly(1L);
+    }
+
+    @Test
+    void disabledAlertsEnqueueNothing() {
+        AbsenceAlertService disabled = new AbsenceAlertService(outboxService, new MessageTemplateRegistry(), 3, false);
+
+        disabled.onAbsenceStreaksChanged(new AttendanceSummaryService.AbsenceStreaksChanged(
+            "2024-2025", List.of(change(student(1L, "Asha"), 2, 3))));
+
+        verify(outboxService, never()).enqueueAll(any());
+    }
+
+    private void publish(AttendanceSummaryService.StreakChange... changes) {
+        service.onAbsenceStreaksChanged(new AttendanceSummaryService.AbsenceStreaksChanged("2024-2025", List.of(changes)));
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<OutboundMessage> enqueued() {
+        ArgumentCaptor<List<OutboundMessage>> captor = ArgumentCaptor.forClass(List.class);
+        verify(outboxService).enqueueAll(captor.capture());
+        return new ArrayList<>(captor.getValue());
+    }
+
+    private static AttendanceSummaryService.StreakChange change(Student student, int previous, int current) {
+        return new AttendanceSummaryService.StreakChange(student, previous, current, AS_OF);
+    }
+
+    private static Student student(Long id, String name) {
+        Student student = new Student();
+        student.setId(id);
+        student.setFullName(name);
+        student.setFatherContact("+919800000001");
+        student.setMotherContact("+919800000002");
+        student.setGuardianContact(" ");
+        return student;
+    }
+}
@@ -0,0 +1,76 @@
+package com.gradepulse.service;
+
+import com.gradepulse.dto.ArchivedAttendance;
+import com.gradepulse.model.AttendanceStatus;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AttendanceArchiveServiceTest {
+
+    @Test
+    void encodeDecodeRoundTripsEveryField() {
+        List<ArchivedAttendance> records = List.of(
+            new ArchivedAttendance(LocalDate.of(2023, 4, 3), AttendanceStatus.PRESENT, LocalTime.of(8, 55, 12),
+                29L, "teacher@school.test", LocalDateTime.of(2023, 4, 3, 9, 1, 30), "On time"),
+            new ArchivedAttendance(LocalDate.of(2024, 2, 29), AttendanceStatus.HALF_DAY, null,
+                null, null, null, null),
+            new ArchivedAttendance(LocalDate.of(2024, 3, 28), AttendanceStatus.LATE, LocalTime.MIDNIGHT,
+                0L, "", LocalDateTime.of(2024, 3, 28, 23, 59, 59), "Bus délayé — 遅刻"));
+
+        List<ArchivedAttendance> decoded = AttendanceArchiveService.decode(AttendanceArchiveService.encode(records));
+
+        assertThat(decoded).containsExactlyElementsOf(records);
+    }
+
+    @Test
+    void encodesAFullYearCompactly() {
+        List<ArchivedAttendance> records = new ArrayList<>();
+        LocalDate date = LocalDate.of(2023, 4, 1);
+        for (int day = 0; day < 240; day++) {
+            AttendanceStatus status = day % 17 == 0 ? AttendanceStatus.ABSENT : AttendanceStatus.PRESENT;
+            records.add(new ArchivedAttendance(date.plusDays(day), status, null, 29L,
+                "teacher@school.test", date.plusDays(day).atTime(9, 0), null));
+        }
+
+        byte[] payload = AttendanceArchiveService.encode(records);
+
+        assertThat(AttendanceArchiveService.decode(payload)).containsExactlyElementsOf(records);
+        assertThat(payload.length).isLessThan(records.size() * 8);
+    }
+
+    @Test
+    void emptyListRoundTrips() {
+        assertThat(AttendanceArchiveService.decode(AttendanceArchiveService.encode(List.of()))).isEmpty();
+    }
+
+    @Test
+    void rejectsAnUnknownFormatVersion() {
+        byte[] tampered = gzip(new byte[] { 0, 0, 0, 99, 0, 0, 0, 0 });
+
+        assertThatThrownBy(() -> AttendanceArchiveService.decode(tampered))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("99");
+    }
+
+    private static byte[] gzip(byte[] raw) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(raw);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+}
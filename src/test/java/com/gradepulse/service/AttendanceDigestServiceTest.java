@@ -0,0 +1,48 @@
+package com.gradepulse.service;
+
+import com.gradepulse.repository.AttendanceDigestEventRepository;
+import com.gradepulse.repository.ClassSectionRepository;
+import com.gradepulse.repository.StudentRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class AttendanceDigestServiceTest {
+
+    private static final LocalDate MONDAY = LocalDate.of(2025, 1, 13);
+
+    private final AttendanceDigestService service = new AttendanceDigestService(
+        mock(AttendanceDigestEventRepository.class), mock(StudentRepository.class),
+        mock(ClassSectionRepository.class), mock(NotificationOutboxService.class),
+        mock(MessageTemplateRegistry.class), mock(PlatformTransactionManager.class),
+        true, true, LocalTime.of(17, 0), "Ryan International=16:30");
+
+    @Test
+    void marksBeforeTheDigestTimeWaitForThatDaysDigest() {
+        assertThat(service.dueAt("Cambridge High", MONDAY, MONDAY.atTime(9, 15)))
+            .isEqualTo(MONDAY.atTime(17, 0));
+        assertThat(service.dueAt(" ryan international ", MONDAY, MONDAY.atTime(9, 15)))
+            .isEqualTo(MONDAY.atTime(16, 30));
+    }
+
+    @Test
+    void marksAfterTheDigestTimeRollIntoTheNextDigest() {
+        assertThat(service.dueAt("Cambridge High", MONDAY, MONDAY.atTime(17, 0)))
+            .isEqualTo(MONDAY.plusDays(1).atTime(17, 0));
+        assertThat(service.dueAt(null, MONDAY, MONDAY.atTime(19, 45)))
+            .isEqualTo(MONDAY.plusDays(1).atTime(17, 0));
+    }
+
+    @Test
+    void backfilledDatesGoOutWithTodaysDigest() {
+        LocalDateTime now = MONDAY.plusDays(3).atTime(10, 0);
+
+        assertThat(service.dueAt("Ryan International", MONDAY, now)).isEqualTo(now.toLocalDate().atTime(16, 30));
+    }
+}
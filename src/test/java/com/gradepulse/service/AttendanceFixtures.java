@@ -0,0 +1,72 @@
+package com.gradepulse.service;
+
+import com.gradepulse.model.ClassSection;
+import com.gradepulse.model.Student;
+import com.gradepulse.repository.ClassSectionRepository;
+import com.gradepulse.repository.StudentRepository;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fresh sections and students for the write-path tests, which share one in-memory database:
+ * every call gets its own section, so tests never see each other's marks.
+ */
+class AttendanceFixtures {
+
+    static final String ACADEMIC_YEAR = "2024-2025";
+
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    private final ClassSectionRepository classSectionRepository;
+    private final StudentRepository studentRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    AttendanceFixtures(ClassSectionRepository classSectionRepository, StudentRepository studentRepository,
+                       JdbcTemplate jdbcTemplate) {
+        this.classSectionRepository = classSectionRepository;
+        this.studentRepository = studentRepository;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    ClassSection section() {
+        ClassSection section = new ClassSection();
+        section.setAcademicYear(ACADEMIC_YEAR);
+        section.setBoard("CBSE");
+        section.setStream("General");
+        section.setClassName("7");
+        section.setSectionName("T" + SEQUENCE.incrementAndGet());
+        return classSectionRepository.save(section);
+    }
+
+    List<Student> students(ClassSection section, int count) {
+        List<Student> students = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int n = SEQUENCE.incrementAndGet();
+            Student student = new Student();
+            student.setStudentId("WP" + n);
+            student.setFullName("Student " + n);
+            student.setFatherContact("+9198" + String.format("%08d", n));
+            student.setClassSection(section);
+            students.add(student);
+        }
+        return studentRepository.saveAll(students);
+    }
+
+    // [present, absent, late, halfDay] from attendance_daily_rollup
+    int[] rollup(ClassSection section, LocalDate date) {
+        return jdbcTemplate.query(
+            "SELECT present_count, absent_count, late_count, half_day_count FROM attendance_daily_rollup " +
+            "WHERE class_section_id = ? AND rollup_date = ?",
+            (rs, row) -> new int[] { rs.getInt(1), rs.getInt(2), rs.getInt(3), rs.getInt(4) },
+            section.getId(), date).stream().findFirst().orElse(new int[4]);
+    }
+
+    int count(String sql, Object... args) {
+        Integer count = jdbcTemplate.queryForObject(sql, Integer.class, args);
+        return count != null ? count : 0;
+    }
+}
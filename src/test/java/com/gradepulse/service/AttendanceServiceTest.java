@@ -0,0 +1,171 @@
+package com.gradepulse.service;
+
+import com.gradepulse.dto.AttendanceSubmission;
+import com.gradepulse.model.AttendanceStatus;
+import com.gradepulse.model.ClassSection;
+import com.gradepulse.model.Student;
+import com.gradepulse.model.StudentAttendanceSummary;
+import com.gradepulse.repository.ClassSectionRepository;
+import com.gradepulse.repository.StudentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:writepath;DB_CLOSE_DELAY=-1",
+    "gradepulse.whatsapp.transport=recording"
+})
+class AttendanceServiceTest {
+
+    private static final LocalDate MONDAY = LocalDate.of(2024, 7, 1);
+
+    @Autowired
+    private AttendanceService attendanceService;
+    @Autowired
+    private AttendanceSummaryService summaryService;
+    @Autowired
+    private ClassSectionRepository classSectionRepository;
+    @Autowired
+    private StudentRepository studentRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private AttendanceFixtures fixtures;
+
+    @BeforeEach
+    void setUp() {
+        fixtures = new AttendanceFixtures(classSectionRepository, studentRepository, jdbcTemplate);
+    }
+
+    @Test
+    void wholeClassIsWrittenInOneSubmission() {
+        ClassSection section = fixtures.section();
+        List<Student> students = fixtures.students(section, 40);
+        Map<Long, AttendanceStatus> marks = new LinkedHashMap<>();
+        for (Student student : students) {
+            marks.put(student.getId(), marks.size() % 10 == 0 ? AttendanceStatus.ABSENT : AttendanceStatus.PRESENT);
+        }
+
+        AttendanceService.AttendanceSubmissionResult result = attendanceService.submitAttendance(submission(section, marks));
+
+        assertThat(result.getSuccessCount()).isEqualTo(40);
+        assertThat(result.getFailedCount()).isZero();
+        assertThat(records(section, MONDAY)).isEqualTo(40);
+        assertThat(fixtures.rollup(section, MONDAY)).containsExactly(36, 4, 0, 0);
+    }
+
+    @Test
+    void unknownStudentsFailWithoutStoppingTheRest() {
+        ClassSection section = fixtures.section();
+        List<Student> students = fixtures.students(section, 2);
+        Map<Long, AttendanceStatus> marks = new LinkedHashMap<>();
+        marks.put(students.get(0).getId(), AttendanceStatus.PRESENT);
+        marks.put(-1L, AttendanceStatus.PRESENT);
+        marks.put(students.get(1).getId(), AttendanceStatus.LATE);
+
+        AttendanceService.AttendanceSubmissionResult result = attendanceService.submitAttendance(submission(section, marks));
+
+        assertThat(result.getSuccessCount()).isEqualTo(2);
+        assertThat(result.getFailedCount()).isEqualTo(1);
+        assertThat(result.getErrors()).containsExactly("Student ID -1 not found");
+        assertThat(records(section, MONDAY)).isEqualTo(2);
+    }
+
+    @Test
+    void resubmittingTheSameMarksWritesNothing() {
+        ClassSection section = fixtures.section();
+        List<Student> students = fixtures.students(section, 3);
+        Map<Long, AttendanceStatus> marks = Map.of(
+            students.get(0).getId(), AttendanceStatus.PRESENT,
+            students.get(1).getId(), AttendanceStatus.ABSENT,
+            students.get(2).getId(), AttendanceStatus.HALF_DAY);
+        attendanceService.submitAttendance(submission(section, marks));
+
+        AttendanceService.AttendanceSubmissionResult again = attendanceService.submitAttendance(submission(section, marks));
+
+        assertThat(again.getUnchangedCount()).isEqualTo(3);
+        assertThat(again.getSuccessCount()).isZero();
+        assertThat(records(section, MONDAY)).isEqualTo(3);
+        assertThat(fixtures.rollup(section, MONDAY)).containsExactly(1, 1, 0, 1);
+    }
+
+    @Test
+    void correctionMovesTheRollupAndSummaryCountsAndKeepsHistory() {
+        ClassSection section = fixtures.section();
+        List<Student> students = fixtures.students(section, 2);
+        Long asha = students.get(0).getId();
+        Long ravi = students.get(1).getId();
+        attendanceService.submitAttendance(submission(section, Map.of(asha, AttendanceStatus.PRESENT,
+                                                                       ravi, AttendanceStatus.PRESENT)));
+
+        AttendanceSubmission correction = submission(section, Map.of(asha, AttendanceStatus.ABSENT,
+                                                                     ravi, AttendanceStatus.PRESENT));
+        correction.setMarkedBy("Mr. Iyer");
+        AttendanceService.AttendanceSubmissionResult result = attendanceService.submitAttendance(correction);
+
+        assertThat(result.getCorrectedCount()).isEqualTo(1);
+        assertThat(result.getUnchangedCount()).isEqualTo(1);
+        assertThat(records(section, MONDAY)).isEqualTo(2);
+        assertThat(fixtures.rollup(section, MONDAY)).containsExactly(1, 1, 0, 0);
+        StudentAttendanceSummary summary = summaryService.getSummaries(List.of(asha), AttendanceFixtures.ACADEMIC_YEAR).get(asha);
+        assertThat(summary.getPresentCount()).isZero();
+        assertThat(summary.getAbsentCount()).isEqualTo(1);
+        assertThat(summary.getLastStatus()).isEqualTo(AttendanceStatus.ABSENT);
+        assertThat(summary.getCurrentAbsenceStreak()).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForList(
+            "SELECT student_id, previous_status, new_status, previous_marked_by, changed_by " +
+            "FROM attendance_record_history WHERE student_id IN (?, ?)", asha, ravi))
+            .singleElement().satisfies(row -> assertThat(row.values())
+                .containsExactly(asha, "PRESENT", "ABSENT", "Ms. Rao", "Mr. Iyer"));
+    }
+
+    @Test
+    void correctionCompletingAnAbsenceStreakAlertsOnce() {
+        ClassSection section = fixtures.section();
+        Long asha = fixtures.students(section, 1).get(0).getId();
+        attendanceService.submitAttendance(submission(section, MONDAY, Map.of(asha, AttendanceStatus.ABSENT)));
+        attendanceService.submitAttendance(submission(section, MONDAY.plusDays(1), Map.of(asha, AttendanceStatus.ABSENT)));
+        attendanceService.submitAttendance(submission(section, MONDAY.plusDays(2), Map.of(asha, AttendanceStatus.PRESENT)));
+        assertThat(streakAlerts(asha)).isZero();
+
+        attendanceService.submitAttendance(submission(section, MONDAY.plusDays(2), Map.of(asha, AttendanceStatus.ABSENT)));
+        attendanceService.submitAttendance(submission(section, MONDAY.plusDays(2), Map.of(asha, AttendanceStatus.ABSENT)));
+        attendanceService.submitAttendance(submission(section, MONDAY.plusDays(3), Map.of(asha, AttendanceStatus.ABSENT)));
+
+        assertThat(streakAlerts(asha)).isEqualTo(1);
+        assertThat(fixtures.rollup(section, MONDAY.plusDays(2))).containsExactly(0, 1, 0, 0);
+        assertThat(summaryService.getSummaries(List.of(asha), AttendanceFixtures.ACADEMIC_YEAR).get(asha))
+            .satisfies(summary -> {
+                assertThat(summary.getAbsentCount()).isEqualTo(4);
+                assertThat(summary.getPresentCount()).isZero();
+                assertThat(summary.getCurrentAbsenceStreak()).isEqualTo(4);
+            });
+    }
+
+    private int streakAlerts(Long studentId) {
+        return fixtures.count("SELECT COUNT(*) FROM message_outbox WHERE student_id = ? AND message_type = ?",
+                              studentId, AbsenceAlertService.MESSAGE_TYPE);
+    }
+
+    private int records(ClassSection section, LocalDate date) {
+        return fixtures.count("SELECT COUNT(*) FROM attendance_records WHERE class_section_id = ? AND attendance_date = ?",
+                              section.getId(), date);
+    }
+
+    private static AttendanceSubmission submission(ClassSection section, Map<Long, AttendanceStatus> marks) {
+        return submission(section, MONDAY, marks);
+    }
+
+    private static AttendanceSubmission submission(ClassSection section, LocalDate date, Map<Long, AttendanceStatus> marks) {
+        return new AttendanceSubmission(section.getId(), date, marks, null, null, "Ms. Rao");
+    }
+}
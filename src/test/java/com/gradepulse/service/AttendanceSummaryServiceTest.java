@@ -0,0 +1,136 @@
+package com.gradepulse.service;
+
+import com.gradepulse.dto.AttendanceSubmission;
+import com.gradepulse.model.AttendanceStatus;
+import com.gradepulse.model.ClassSection;
+import com.gradepulse.model.Student;
+import com.gradepulse.model.StudentAttendanceSummary;
+import com.gradepulse.repository.ClassSectionRepository;
+import com.gradepulse.repository.StudentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:writepath;DB_CLOSE_DELAY=-1",
+    "gradepulse.whatsapp.transport=recording"
+})
+class AttendanceSummaryServiceTest {
+
+    private static final LocalDate MONDAY = LocalDate.of(2024, 7, 1);
+
+    @Autowired
+    private AttendanceService attendanceService;
+    @Autowired
+    private AttendanceSummaryService summaryService;
+    @Autowired
+    private ClassSectionRepository classSectionRepository;
+    @Autowired
+    private StudentRepository studentRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private AttendanceFixtures fixtures;
+
+    @BeforeEach
+    void setUp() {
+        fixtures = new AttendanceFixtures(classSectionRepository, studentRepository, jdbcTemplate);
+    }
+
+    @Test
+    void countsAndStreaksFollowEachDaysMarks() {
+        ClassSection section = fixtures.section();
+        List<Student> students = fixtures.students(section, 2);
+        Long asha = students.get(0).getId();
+        Long ravi = students.get(1).getId();
+
+        submit(section, MONDAY, Map.of(asha, AttendanceStatus.PRESENT, ravi, AttendanceStatus.LATE));
+        submit(section, MONDAY.plusDays(1), Map.of(asha, AttendanceStatus.ABSENT, ravi, AttendanceStatus.ABSENT));
+        submit(section, MONDAY.plusDays(2), Map.of(asha, AttendanceStatus.ABSENT, ravi, AttendanceStatus.ABSENT));
+        submit(section, MONDAY.plusDays(3), Map.of(asha, AttendanceStatus.PRESENT, ravi, AttendanceStatus.HALF_DAY));
+
+        Map<Long, StudentAttendanceSummary> summaries = summaries(asha, ravi);
+        assertThat(summaries.get(asha)).satisfies(summary -> {
+            assertThat(counts(summary)).containsExactly(2, 2, 0, 0);
+            assertThat(summary.getCurrentAbsenceStreak()).isZero();
+            assertThat(summary.getLastStatus()).isEqualTo(AttendanceStatus.PRESENT);
+            assertThat(summary.getLastAttendanceDate()).isEqualTo(MONDAY.plusDays(3));
+        });
+        assertThat(summaries.get(ravi)).satisfies(summary -> {
+            assertThat(counts(summary)).containsExactly(0, 2, 1, 1);
+            assertThat(summary.getCurrentAbsenceStreak()).isZero();
+            assertThat(summary.getLastStatus()).isEqualTo(AttendanceStatus.HALF_DAY);
+        });
+    }
+
+    @Test
+    void consecutiveAbsencesRaiseTheStreakUntilAPresentMark() {
+        ClassSection section = fixtures.section();
+        Long asha = fixtures.students(section, 1).get(0).getId();
+
+        for (int day = 0; day < 3; day++) {
+            submit(section, MONDAY.plusDays(day), Map.of(asha, AttendanceStatus.ABSENT));
+            assertThat(summaries(asha).get(asha).getCurrentAbsenceStreak()).isEqualTo(day + 1);
+        }
+        submit(section, MONDAY.plusDays(3), Map.of(asha, AttendanceStatus.LATE));
+
+        assertThat(summaries(asha).get(asha).getCurrentAbsenceStreak()).isZero();
+    }
+
+    @Test
+    void backfilledDayCountsButKeepsTheLatestStatus() {
+        ClassSection section = fixtures.section();
+        Long asha = fixtures.students(section, 1).get(0).getId();
+
+        submit(section, MONDAY.plusDays(3), Map.of(asha, AttendanceStatus.ABSENT));
+        submit(section, MONDAY, Map.of(asha, AttendanceStatus.PRESENT));
+
+        StudentAttendanceSummary summary = summaries(asha).get(asha);
+        assertThat(counts(summary)).containsExactly(1, 1, 0, 0);
+        assertThat(summary.getLastStatus()).isEqualTo(AttendanceStatus.ABSENT);
+        assertThat(summary.getLastAttendanceDate()).isEqualTo(MONDAY.plusDays(3));
+        assertThat(summary.getCurrentAbsenceStreak()).isEqualTo(1);
+    }
+
+    @Test
+    void rebuildFromRecordsMatchesTheIncrementalSummary() {
+        ClassSection section = fixtures.section();
+        List<Student> students = fixtures.students(section, 2);
+        Long asha = students.get(0).getId();
+        Long ravi = students.get(1).getId();
+        submit(section, MONDAY, Map.of(asha, AttendanceStatus.PRESENT, ravi, AttendanceStatus.ABSENT));
+        submit(section, MONDAY.plusDays(1), Map.of(asha, AttendanceStatus.HALF_DAY, ravi, AttendanceStatus.ABSENT));
+        Map<Long, StudentAttendanceSummary> incremental = summaries(asha, ravi);
+
+        summaryService.rebuildAll();
+
+        Map<Long, StudentAttendanceSummary> rebuilt = summaries(asha, ravi);
+        for (Long id : List.of(asha, ravi)) {
+            assertThat(counts(rebuilt.get(id))).containsExactly(counts(incremental.get(id)));
+            assertThat(rebuilt.get(id).getCurrentAbsenceStreak()).isEqualTo(incremental.get(id).getCurrentAbsenceStreak());
+            assertThat(rebuilt.get(id).getLastStatus()).isEqualTo(incremental.get(id).getLastStatus());
+        }
+        assertThat(rebuilt.get(ravi).getCurrentAbsenceStreak()).isEqualTo(2);
+    }
+
+    private void submit(ClassSection section, LocalDate date, Map<Long, AttendanceStatus> marks) {
+        attendanceService.submitAttendance(new AttendanceSubmission(section.getId(), date, marks, null, null, "Ms. Rao"));
+    }
+
+    private Map<Long, StudentAttendanceSummary> summaries(Long... studentIds) {
+        return summaryService.getSummaries(List.of(studentIds), AttendanceFixtures.ACADEMIC_YEAR);
+    }
+
+    private static int[] counts(StudentAttendanceSummary summary) {
+        return new int[] { summary.getPresentCount(), summary.getAbsentCount(), summary.getLateCount(),
+                           summary.getHalfDayCount() };
+    }
+}
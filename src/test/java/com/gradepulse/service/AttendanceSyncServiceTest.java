@@ -0,0 +1,125 @@
+package com.gradepulse.service;
+
+import com.gradepulse.dto.AttendanceSyncRequest;
+import com.gradepulse.dto.AttendanceSyncResult;
+import com.gradepulse.dto.AttendanceSyncResult.Outcome;
+import com.gradepulse.model.AttendanceStatus;
+import com.gradepulse.model.ClassSection;
+import com.gradepulse.model.Student;
+import com.gradepulse.repository.ClassSectionRepository;
+import com.gradepulse.repository.StudentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:writepath;DB_CLOSE_DELAY=-1",
+    "gradepulse.whatsapp.transport=recording"
+})
+class AttendanceSyncServiceTest {
+
+    private static final LocalDate MONDAY = LocalDate.of(2024, 7, 1);
+
+    @Autowired
+    private AttendanceSyncService syncService;
+    @Autowired
+    private ClassSectionRepository classSectionRepository;
+    @Autowired
+    private StudentRepository studentRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private AttendanceFixtures fixtures;
+
+    @BeforeEach
+    void setUp() {
+        fixtures = new AttendanceFixtures(classSectionRepository, studentRepository, jdbcTemplate);
+    }
+
+    @Test
+    void replayedKeyReturnsTheStoredOutcomeAndWritesNothing() {
+        ClassSection section = fixtures.section();
+        List<Student> students = fixtures.students(section, 2);
+        String key = UUID.randomUUID().toString();
+        Map<Long, AttendanceStatus> marks = Map.of(students.get(0).getId(), AttendanceStatus.PRESENT,
+                                                   students.get(1).getId(), AttendanceStatus.ABSENT);
+
+        AttendanceSyncResult first = sync(item(key, section, marks)).get(0);
+        int[] rollup = fixtures.rollup(section, MONDAY);
+        int outbox = outbox(students);
+        int history = history(students);
+
+        // Same key, different marks: the key was applied, so the resend is not
+        AttendanceSyncResult replay = sync(item(key, section, Map.of(students.get(0).getId(), AttendanceStatus.ABSENT,
+                                                                      students.get(1).getId(), AttendanceStatus.ABSENT))).get(0);
+
+        assertThat(first.getOutcome()).isEqualTo(Outcome.APPLIED);
+        assertThat(first.getSuccessCount()).isEqualTo(2);
+        assertThat(replay.getOutcome()).isEqualTo(Outcome.REPLAYED);
+        assertThat(replay.getSuccessCount()).isEqualTo(first.getSuccessCount());
+        assertThat(replay.getWhatsappQueued()).isEqualTo(first.getWhatsappQueued());
+        assertThat(fixtures.rollup(section, MONDAY)).containsExactly(rollup).containsExactly(1, 1, 0, 0);
+        assertThat(outbox).isPositive();
+        assertThat(outbox(students)).isEqualTo(outbox);
+        assertThat(history(students)).isEqualTo(history).isZero();
+        assertThat(fixtures.count("SELECT COUNT(*) FROM attendance_records WHERE class_section_id = ?", section.getId()))
+            .isEqualTo(2);
+        assertThat(fixtures.count("SELECT COUNT(*) FROM attendance_sync_keys WHERE idempotency_key = ?", key))
+            .isEqualTo(1);
+    }
+
+    @Test
+    void repeatedKeyInOneRequestIsAppliedOnce() {
+        ClassSection section = fixtures.section();
+        List<Student> students = fixtures.students(section, 1);
+        String key = UUID.randomUUID().toString();
+        AttendanceSyncRequest.Item item = item(key, section, Map.of(students.get(0).getId(), AttendanceStatus.ABSENT));
+
+        List<AttendanceSyncResult> results = sync(item, item);
+
+        assertThat(results).extracting(AttendanceSyncResult::getOutcome).containsExactly(Outcome.APPLIED, Outcome.REPLAYED);
+        assertThat(fixtures.rollup(section, MONDAY)).containsExactly(0, 1, 0, 0);
+    }
+
+    @Test
+    void invalidSubmissionsAreRejectedWithoutUsingTheKey() {
+        ClassSection section = fixtures.section();
+        List<Student> students = fixtures.students(section, 1);
+        String key = UUID.randomUUID().toString();
+
+        List<AttendanceSyncResult> results = sync(item(null, section, Map.of(students.get(0).getId(), AttendanceStatus.PRESENT)),
+                                                  item(key, section, Map.of()));
+        AttendanceSyncResult fixed = sync(item(key, section, Map.of(students.get(0).getId(), AttendanceStatus.PRESENT))).get(0);
+
+        assertThat(results).extracting(AttendanceSyncResult::getOutcome).containsOnly(Outcome.REJECTED);
+        assertThat(fixed.getOutcome()).isEqualTo(Outcome.APPLIED);
+        assertThat(fixtures.rollup(section, MONDAY)).containsExactly(1, 0, 0, 0);
+    }
+
+    private List<AttendanceSyncResult> sync(AttendanceSyncRequest.Item... items) {
+        return syncService.sync(new AttendanceSyncRequest("Ms. Rao", List.of(items)));
+    }
+
+    private int outbox(List<Student> students) {
+        return fixtures.count("SELECT COUNT(*) FROM message_outbox WHERE student_id IN (?, ?)",
+                              students.get(0).getId(), students.get(students.size() - 1).getId());
+    }
+
+    private int history(List<Student> students) {
+        return fixtures.count("SELECT COUNT(*) FROM attendance_record_history WHERE student_id IN (?, ?)",
+                              students.get(0).getId(), students.get(students.size() - 1).getId());
+    }
+
+    private static AttendanceSyncRequest.Item item(String key, ClassSection section, Map<Long, AttendanceStatus> marks) {
+        return new AttendanceSyncRequest.Item(key, section.getId(), MONDAY, marks, null, null, null);
+    }
+}
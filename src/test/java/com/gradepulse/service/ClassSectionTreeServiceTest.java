@@ -0,0 +1,73 @@
+package com.gradepulse.service;
+
+import com.gradepulse.dto.ClassSectionTree;
+import com.gradepulse.model.ClassSection;
+import com.gradepulse.repository.ClassSectionRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ClassSectionTreeServiceTest {
+
+    private static final String YEAR = "2024-2025";
+
+    private final ClassSectionRepository repository = mock(ClassSectionRepository.class);
+    private final ClassSectionTreeService service = new ClassSectionTreeService(repository);
+    private final List<ClassSection> sections = new ArrayList<>(List.of(section(1L, "B"), section(2L, "A")));
+
+    @Test
+    void servesSortedSectionsFromOneLoad() {
+        when(repository.findByAcademicYearAndIsActiveTrue(YEAR)).thenAnswer(inv -> List.copyOf(sections));
+
+        assertThat(service.getSections(YEAR, "CBSE", "Science", "11"))
+            .extracting(ClassSectionTree.Section::getSectionName).containsExactly("A", "B");
+        assertThat(service.getSections(YEAR, "CBSE", "Science", "12")).isEmpty();
+        assertThat(service.getBoards(YEAR)).containsExactly("CBSE");
+
+        verify(repository, times(1)).findByAcademicYearAndIsActiveTrue(YEAR);
+    }
+
+    @Test
+    void reloadsAfterASectionIsCreated() {
+        when(repository.findByAcademicYearAndIsActiveTrue(YEAR)).thenAnswer(inv -> List.copyOf(sections));
+        service.getTree(YEAR);
+
+        sections.add(section(3L, "C"));
+        service.onClassSectionCreated(new ClassSectionMappingService.ClassSectionCreated(YEAR));
+
+        assertThat(service.getSections(YEAR, "CBSE", "Science", "11")).hasSize(3);
+    }
+
+    @Test
+    void aLoadThatRacedAnInvalidationIsNotKept() {
+        when(repository.findByAcademicYearAndIsActiveTrue(YEAR)).thenAnswer(inv -> {
+            List<ClassSection> snapshot = List.copyOf(sections);
+            // A section is created (and the cache invalidated) while this load is running
+            sections.add(section(3L, "C"));
+            service.onClassSectionCreated(new ClassSectionMappingService.ClassSectionCreated(YEAR));
+            return snapshot;
+        }).thenAnswer(inv -> List.copyOf(sections));
+
+        assertThat(service.getSections(YEAR, "CBSE", "Science", "11")).hasSize(2);
+        assertThat(service.getSections(YEAR, "CBSE", "Science", "11")).hasSize(3);
+        verify(repository, times(2)).findByAcademicYearAndIsActiveTrue(YEAR);
+    }
+
+    private static ClassSection section(Long id, String name) {
+        ClassSection section = new ClassSection();
+        section.setId(id);
+        section.setAcademicYear(YEAR);
+        section.setBoard("CBSE");
+        section.setStream("Science");
+        section.setClassName("11");
+        section.setSectionName(name);
+        return section;
+    }
+}
@@ -0,0 +1,100 @@
+package com.gradepulse.service;
+
+import com.gradepulse.model.InboundMessage;
+import com.gradepulse.model.InboundMessageStatus;
+import com.gradepulse.model.OutboundMessage;
+import com.gradepulse.model.Student;
+import com.gradepulse.repository.InboundMessageRepository;
+import com.gradepulse.repository.StudentRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class InboundMessageProcessorTest {
+
+    private static final String MOTHER = "+919800000002";
+    private static final String FATHER = "+919800000001";
+
+    private final InboundMessageRepository inboundRepository = mock(InboundMessageRepository.class);
+    private final StudentRepository studentRepository = mock(StudentRepository.class);
+    private final NotificationOutboxService outboxService = mock(NotificationOutboxService.class);
+    private final InboundMessageProcessor processor = new InboundMessageProcessor(
+        inboundRepository, studentRepository, outboxService, new MessageTemplateRegistry());
+
+    @Test
+    void languageChoiceAppliesToEveryChildOfTheParent() {
+        Student asha = student(1L, "Asha");
+        Student ravi = student(2L, "Ravi");
+        receive("2", List.of(asha, ravi));
+
+        processor.process("SM1");
+
+        assertThat(asha.getLanguagePreference()).isEqualTo("HINDI");
+        assertThat(ravi.getLanguagePreference()).isEqualTo("HINDI");
+        List<OutboundMessage> replies = enqueued();
+        assertThat(replies).filteredOn(m -> m.getRecipient().equals(MOTHER)).singleElement()
+            .extracting(OutboundMessage::getMessageType).isEqualTo("REPLY");
+        assertThat(replies).filteredOn(m -> m.getRecipient().equals(FATHER))
+            .extracting(OutboundMessage::getStudentId).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void otherTextGetsOnePrompt() {
+        receive("hello", List.of(student(1L, "Asha"), student(2L, "Ravi")));
+
+        processor.process("SM1");
+
+        assertThat(enqueued()).singleElement().satisfies(reply -> {
+            assertThat(reply.getRecipient()).isEqualTo(MOTHER);
+            assertThat(reply.getMessageType()).isEqualTo("REPLY");
+        });
+    }
+
+    @Test
+    void unknownSenderIsIgnored() {
+        InboundMessage message = receive("1", List.of());
+
+        processor.process("SM1");
+
+        assertThat(message.getStatus()).isEqualTo(InboundMessageStatus.IGNORED);
+        verify(outboxService, never()).enqueueAll(any());
+    }
+
+    private InboundMessage receive(String body, List<Student> children) {
+        InboundMessage message = new InboundMessage();
+        message.setMessageSid("SM1");
+        message.setSender(MOTHER);
+        message.setBody(body);
+        when(inboundRepository.claim(eq("SM1"), any())).thenReturn(1);
+        when(inboundRepository.findById("SM1")).thenReturn(Optional.of(message));
+        when(studentRepository.findByFatherContactOrMotherContactOrGuardianContactOrderById(MOTHER, MOTHER, MOTHER))
+            .thenReturn(children);
+        return message;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<OutboundMessage> enqueued() {
+        ArgumentCaptor<List<OutboundMessage>> captor = ArgumentCaptor.forClass(List.class);
+        verify(outboxService).enqueueAll(captor.capture());
+        return captor.getValue();
+    }
+
+    private static Student student(Long id, String name) {
+        Student student = new Student();
+        student.setId(id);
+        student.setFullName(name);
+        student.setFatherContact(FATHER);
+        student.setMotherContact(MOTHER);
+        return student;
+    }
+}
@@ -0,0 +1,136 @@
+package com.gradepulse.service;
+
+import com.gradepulse.model.OutboundMessage;
+import com.gradepulse.repository.OutboundMessageRepository;
+import com.gradepulse.repository.StudentRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class MessageCoalescerTest {
+
+    private static final String PARENT = "+919800000001";
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 1, 15, 9, 0);
+
+    private final OutboundMessageRepository outboxRepository = mock(OutboundMessageRepository.class);
+    private final StudentRepository studentRepository = mock(StudentRepository.class);
+    private final MessageCoalescer coalescer =
+        new MessageCoalescer(outboxRepository, studentRepository, new MessageTemplateRegistry(), 120);
+
+    @Test
+    void combinesAParentsPendingMessagesIntoOneSend() {
+        List<OutboundMessage> pending = List.of(message(1, "ATTENDANCE", "Asha was present"),
+                                                message(2, "ATTENDANCE", "Ravi was absent"));
+        pendingFor(pending);
+
+        List<MessageCoalescer.Delivery> deliveries = coalescer.coalesce(pending.get(0), NOW, Set.of());
+
+        assertThat(deliveries).hasSize(1);
+        assertThat(deliveries.get(0).messages()).containsExactlyElementsOf(pending);
+        assertThat(deliveries.get(0).carrier()).isSameAs(pending.get(0));
+        assertThat(deliveries.get(0).body()).contains("2 updates", "Asha was present", "Ravi was absent");
+    }
+
+    @Test
+    void headsACombinedMessageInTheParentsLanguage() {
+        List<OutboundMessage> pending = List.of(message(1, "ATTENDANCE", "आशा उपस्थित है"),
+                                                message(2, "ATTENDANCE", "रवि अनुपस्थित है"));
+        pendingFor(pending);
+        when(studentRepository.findLanguagePreference(101L)).thenReturn(Optional.of("HINDI"));
+
+        List<MessageCoalescer.Delivery> deliveries = coalescer.coalesce(pending.get(0), NOW, Set.of());
+
+        assertThat(deliveries).singleElement().extracting(MessageCoalescer.Delivery::body).asString()
+            .startsWith("📬 GradePulse: आपके लिए 2 अपडेट")
+            .doesNotContain("updates for you");
+    }
+
+    @Test
+    void identicalBodiesAreSentOnce() {
+        List<OutboundMessage> pending = List.of(message(1, "ALERT", "School closed tomorrow"),
+                                                message(2, "ALERT", "School closed tomorrow"));
+        pendingFor(pending);
+
+        List<MessageCoalescer.Delivery> deliveries = coalescer.coalesce(pending.get(1), NOW, Set.of());
+
+        assertThat(deliveries).singleElement().satisfies(delivery -> {
+            assertThat(delivery.body()).isEqualTo("School closed tomorrow");
+            assertThat(delivery.messages()).containsExactlyElementsOf(pending);
+        });
+    }
+
+    @Test
+    void splitsGroupsThatWouldExceedTheMaximumBodyLength() {
+        List<OutboundMessage> pending = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            pending.add(message(i + 1, "ATTENDANCE", Character.toString('a' + i).repeat(500)));
+        }
+        pendingFor(pending);
+
+        List<MessageCoalescer.Delivery> deliveries = coalescer.coalesce(pending.get(0), NOW, Set.of());
+
+        assertThat(deliveries).hasSizeGreaterThan(1);
+        assertThat(deliveries).allSatisfy(delivery ->
+            assertThat(delivery.body().length()).isLessThanOrEqualTo(MessageCoalescer.MAX_BODY_LENGTH));
+        assertThat(deliveries.stream().flatMap(d -> d.messages().stream()).toList())
+            .containsExactlyElementsOf(pending);
+    }
+
+    @Test
+    void aBodyExactlyAtTheLimitStillGoesOutAlone() {
+        OutboundMessage full = message(1, "ATTENDANCE", "x".repeat(MessageCoalescer.MAX_BODY_LENGTH));
+        OutboundMessage next = message(2, "ATTENDANCE", "y");
+        pendingFor(List.of(full, next));
+
+        List<MessageCoalescer.Delivery> deliveries = coalescer.coalesce(full, NOW, Set.of());
+
+        assertThat(deliveries).extracting(MessageCoalescer.Delivery::body)
+            .containsExactly(full.getBody(), next.getBody());
+    }
+
+    @Test
+    void leavesOutInFlightMessagesAndReportsAlreadySentOnes() {
+        List<OutboundMessage> pending = List.of(message(1, "ATTENDANCE", "one"), message(2, "ATTENDANCE", "two"));
+        pendingFor(pending);
+
+        assertThat(coalescer.coalesce(pending.get(0), NOW, Set.of(2L)))
+            .singleElement().extracting(MessageCoalescer.Delivery::body).isEqualTo("one");
+        assertThat(coalescer.coalesce(message(3, "ATTENDANCE", "three"), NOW, Set.of())).isEmpty();
+    }
+
+    @Test
+    void repliesAreNeverHeldOrCombined() {
+        OutboundMessage reply = message(1, "REPLY", "Thanks, noted");
+
+        assertThat(coalescer.holdUntil(reply)).isNull();
+        assertThat(coalescer.coalesce(reply, NOW, Set.of())).singleElement()
+            .satisfies(delivery -> assertThat(delivery.messages()).containsExactly(reply));
+        verifyNoInteractions(outboxRepository);
+    }
+
+    private void pendingFor(List<OutboundMessage> messages) {
+        when(outboxRepository.findPendingForRecipient(eq(PARENT), any())).thenReturn(messages);
+    }
+
+    private static OutboundMessage message(long id, String type, String body) {
+        OutboundMessage message = new OutboundMessage();
+        message.setId(id);
+        message.setRecipient("whatsapp:" + PARENT);
+        message.setRecipientKey(PARENT);
+        message.setMessageType(type);
+        message.setBody(body);
+        message.setStudentId(100 + id);
+        return message;
+    }
+}
@@ -0,0 +1,52 @@
+package com.gradepulse.service;
+
+import com.gradepulse.model.SendFailureKind;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RetryBackoffTest {
+
+    private final RetryBackoff backoff = new RetryBackoff(30, 3600);
+
+    @Test
+    void delayDoublesPerAttemptWithEqualJitter() {
+        for (int attempts = 1; attempts <= 7; attempts++) {
+            long full = Math.min(30_000L << (attempts - 1), 3_600_000L);
+            assertWithin(attempts, SendFailureKind.PROVIDER_ERROR, full / 2, full);
+        }
+    }
+
+    @Test
+    void rateLimitedSendsStartFromALongerBase() {
+        assertWithin(1, SendFailureKind.RATE_LIMITED, 60_000, 120_000);
+        assertWithin(2, SendFailureKind.RATE_LIMITED, 120_000, 240_000);
+    }
+
+    @Test
+    void delayIsCappedAtTheMaximum() {
+        assertWithin(12, SendFailureKind.NETWORK, 1_800_000, 3_600_000);
+        assertWithin(Integer.MAX_VALUE, SendFailureKind.RATE_LIMITED, 1_800_000, 3_600_000);
+    }
+
+    @Test
+    void zeroAttemptsAndTinySettingsStayPositive() {
+        assertWithin(0, SendFailureKind.UNKNOWN, 15_000, 30_000);
+
+        RetryBackoff tiny = new RetryBackoff(0, 0);
+        for (int i = 0; i < 100; i++) {
+            assertThat(tiny.delayAfter(5, SendFailureKind.UNKNOWN))
+                .isBetween(Duration.ofMillis(500), Duration.ofSeconds(1));
+        }
+    }
+
+    private void assertWithin(int attempts, SendFailureKind kind, long minMillis, long maxMillis) {
+        for (int i = 0; i < 200; i++) {
+            assertThat(backoff.delayAfter(attempts, kind).toMillis())
+                .as("attempt %d (%s)", attempts, kind)
+                .isBetween(minMillis, maxMillis);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.gradepulse.service;
+
+import com.gradepulse.model.SendFailureKind;
+import com.twilio.exception.ApiException;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TwilioMessageTransportTest {
+
+    @Test
+    void classifiesProviderLimits() {
+        assertThat(classify(63038, 429)).isEqualTo(SendFailureKind.QUOTA_EXCEEDED);
+        assertThat(classify(null, 429)).isEqualTo(SendFailureKind.RATE_LIMITED);
+        assertThat(classify(20429, 400)).isEqualTo(SendFailureKind.RATE_LIMITED);
+        assertThat(classify(63018, 400)).isEqualTo(SendFailureKind.RATE_LIMITED);
+    }
+
+    @Test
+    void classifiesRecipientAndCredentialErrors() {
+        assertThat(classify(21211, 400)).isEqualTo(SendFailureKind.INVALID_RECIPIENT);
+        assertThat(classify(21614, 400)).isEqualTo(SendFailureKind.INVALID_RECIPIENT);
+        assertThat(classify(63003, 400)).isEqualTo(SendFailureKind.INVALID_RECIPIENT);
+        assertThat(classify(20003, 401)).isEqualTo(SendFailureKind.NOT_CONFIGURED);
+    }
+
+    @Test
+    void fallsBackOnTheHttpStatus() {
+        assertThat(classify(null, 503)).isEqualTo(SendFailureKind.PROVIDER_ERROR);
+        assertThat(classify(20500, 500)).isEqualTo(SendFailureKind.PROVIDER_ERROR);
+        assertThat(classify(21610, 400)).isEqualTo(SendFailureKind.REJECTED);
+        assertThat(classify(null, 404)).isEqualTo(SendFailureKind.REJECTED);
+        assertThat(classify(null, null)).isEqualTo(SendFailureKind.UNKNOWN);
+        assertThat(classify(21610, null)).isEqualTo(SendFailureKind.UNKNOWN);
+    }
+
+    private static SendFailureKind classify(Integer code, Integer status) {
+        return TwilioMessageTransport.classify(new ApiException("failed", code, null, status, null));
+    }
+}
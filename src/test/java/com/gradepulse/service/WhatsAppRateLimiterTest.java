@@ -0,0 +1,112 @@
+package com.gradepulse.service;
+
+import com.gradepulse.repository.OutboundMessageRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class WhatsAppRateLimiterTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 1, 15);
+
+    private final OutboundMessageRepository outboxRepository = mock(OutboundMessageRepository.class);
+    private final MovableClock clock = new MovableClock(DAY.atTime(23, 59).toInstant(ZoneOffset.UTC));
+
+    @Test
+    void burstsUpToOneSecondThenPacesAtTheConfiguredRate() throws InterruptedException {
+        WhatsAppRateLimiter limiter = new WhatsAppRateLimiter(outboxRepository, 5, 0, clock);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 5; i++) {
+            assertThat(limiter.acquire()).isTrue();
+        }
+        long burstMillis = (System.nanoTime() - start) / 1_000_000;
+        for (int i = 0; i < 5; i++) {
+            assertThat(limiter.acquire()).isTrue();
+        }
+        long totalMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertThat(burstMillis).isLessThan(150);
+        // Five more permits at 5/s need about a second of refill
+        assertThat(totalMillis).isBetween(750L, 3_000L);
+    }
+
+    @Test
+    void stopsAtTheDailyQuotaSeededFromTodaysSends() throws InterruptedException {
+        when(outboxRepository.countSendsSince(DAY.atStartOfDay())).thenReturn(48L);
+        WhatsAppRateLimiter limiter = new WhatsAppRateLimiter(outboxRepository, 100, 50, clock);
+
+        assertThat(limiter.remainingToday()).isEqualTo(2);
+        assertThat(limiter.acquire()).isTrue();
+        assertThat(limiter.acquire()).isTrue();
+        assertThat(limiter.acquire()).isFalse();
+        assertThat(limiter.remainingToday()).isZero();
+        assertThat(limiter.nextWindow()).isEqualTo(DAY.plusDays(1).atStartOfDay());
+    }
+
+    @Test
+    void rollsOverToANewQuotaAtMidnight() throws InterruptedException {
+        when(outboxRepository.countSendsSince(DAY.atStartOfDay())).thenReturn(50L);
+        when(outboxRepository.countSendsSince(DAY.plusDays(1).atStartOfDay())).thenReturn(0L);
+        WhatsAppRateLimiter limiter = new WhatsAppRateLimiter(outboxRepository, 100, 50, clock);
+
+        assertThat(limiter.acquire()).isFalse();
+
+        clock.advanceMinutes(2);
+        assertThat(limiter.remainingToday()).isEqualTo(50);
+        assertThat(limiter.acquire()).isTrue();
+        assertThat(limiter.remainingToday()).isEqualTo(49);
+        verify(outboxRepository).countSendsSince(DAY.plusDays(1).atStartOfDay());
+    }
+
+    @Test
+    void providerLimitClosesOnlyTheCurrentDay() throws InterruptedException {
+        when(outboxRepository.countSendsSince(any())).thenReturn(3L);
+        WhatsAppRateLimiter limiter = new WhatsAppRateLimiter(outboxRepository, 100, 0, clock);
+
+        assertThat(limiter.remainingToday()).isEqualTo(Long.MAX_VALUE);
+        limiter.exhaustToday();
+        assertThat(limiter.remainingToday()).isZero();
+        assertThat(limiter.acquire()).isFalse();
+
+        clock.advanceMinutes(2);
+        assertThat(limiter.acquire()).isTrue();
+    }
+
+    private static final class MovableClock extends Clock {
+        private Instant instant;
+
+        MovableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        void advanceMinutes(long minutes) {
+            instant = instant.plusSeconds(minutes * 60);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}